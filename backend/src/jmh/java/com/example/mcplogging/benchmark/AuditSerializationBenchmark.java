@@ -0,0 +1,112 @@
+package com.example.mcplogging.benchmark;
+
+import com.example.mcplogging.config.JacksonConfig;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 감사 페이로드 / 도구 결과 직렬화 비교
+ *
+ * String: 이전 경로 (copy()한 ObjectMapper로 writeValueAsString 후 getBytes / length)
+ * Bytes: 현재 경로 (미리 만든 ObjectWriter로 인자는 writeValueAsBytes, 결과는 바이트 수만 셈)
+ * mapper=reflection은 Blackbird 없는 ObjectMapper, blackbird는 JacksonConfig의 ObjectMapper
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuditSerializationBenchmark {
+
+    @Param({"reflection", "blackbird"})
+    public String mapper;
+
+    private ObjectMapper canonicalMapper;
+    private ObjectWriter canonicalWriter;
+    private ObjectWriter resultWriter;
+
+    private Map<String, Object> arguments;
+    private McpSchema.CallToolResult result;
+
+    @Setup
+    public void setup() {
+        ObjectMapper objectMapper = "blackbird".equals(mapper)
+                ? new JacksonConfig().objectMapper()
+                : new ObjectMapper().registerModule(new JavaTimeModule())
+                        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        canonicalMapper = objectMapper.copy().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+        canonicalWriter = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        resultWriter = objectMapper.writerFor(McpSchema.CallToolResult.class);
+
+        // tools/call 인자 (중첩 객체 포함)
+        arguments = new LinkedHashMap<>();
+        arguments.put("path", "/workspace/project/src/main/java/com/example/Service.java");
+        arguments.put("encoding", "utf-8");
+        arguments.put("options", Map.of("recursive", true, "maxDepth", 3, "exclude", List.of("*.class", "build/")));
+
+        List<McpSchema.Content> content = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            content.add(new McpSchema.TextContent("line " + i + ": " + "x".repeat(64)));
+        }
+        result = McpSchema.CallToolResult.builder().content(content).isError(false).build();
+    }
+
+    @Benchmark
+    public byte[] argumentsString() throws JsonProcessingException {
+        return canonicalMapper.writeValueAsString(arguments).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] argumentsBytes() throws JsonProcessingException {
+        return canonicalWriter.writeValueAsBytes(arguments);
+    }
+
+    @Benchmark
+    public int resultString() throws JsonProcessingException {
+        return canonicalMapper.writeValueAsString(result).length();
+    }
+
+    @Benchmark
+    public long resultBytes() throws IOException {
+        ByteCounter counter = new ByteCounter();
+        resultWriter.writeValue(counter, result);
+        return counter.count;
+    }
+
+    /**
+     * McpToolResultCache의 크기 계산과 같은 방식 (바이트 수만 셈)
+     */
+    private static final class ByteCounter extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
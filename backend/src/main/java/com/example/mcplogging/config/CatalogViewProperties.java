@@ -0,0 +1,50 @@
+package com.example.mcplogging.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 사용자/팀별 도구 카탈로그 뷰 설정 (mcp.views.*)
+ *
+ * 뷰가 지정되지 않은 사용자는 defaultView, defaultView도 없으면 모든 도구를 본다.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "mcp.views")
+public class CatalogViewProperties {
+
+    // 카탈로그 뷰 (viewName → 규칙)
+    private Map<String, View> views = new LinkedHashMap<>();
+
+    // 팀 구성 (teamName → 사용자 ID 목록)
+    private Map<String, List<String>> teams = new LinkedHashMap<>();
+
+    // 뷰가 지정되지 않은 사용자에게 적용할 뷰 (비어 있으면 모든 도구)
+    private String defaultView;
+
+    /**
+     * 뷰 규칙
+     * 패턴은 "커넥터/도구" 형식이며 * 와일드카드 사용 가능, "/"가 없으면 커넥터의 모든 도구
+     */
+    @Getter
+    @Setter
+    public static class View {
+        // 허용할 도구 (비어 있으면 모든 도구)
+        private List<String> allow = new ArrayList<>();
+
+        // 제외할 도구 (allow보다 우선)
+        private List<String> deny = new ArrayList<>();
+
+        // 이 뷰를 사용할 사용자 ID (팀 지정보다 우선)
+        private List<String> users = new ArrayList<>();
+
+        // 이 뷰를 사용할 팀 (teams에 정의된 이름)
+        private List<String> teams = new ArrayList<>();
+    }
+}
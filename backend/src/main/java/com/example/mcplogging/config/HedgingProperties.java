@@ -0,0 +1,40 @@
+package com.example.mcplogging.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 읽기 전용 도구 hedged 요청 설정 (mcp.hedging.*)
+ *
+ * 복제본이 둘 이상 사용 가능한 커넥터에서 읽기 전용 도구 호출이 관측 지연 백분위(기본 p95) 안에 끝나지 않으면
+ * 다른 복제본에 같은 요청을 보내고 먼저 온 응답을 사용한다.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "mcp.hedging")
+public class HedgingProperties {
+
+    // hedged 요청 사용 여부
+    private boolean enabled = false;
+
+    // 대기 기준 지연 백분위
+    private double percentile = 95;
+
+    // 도구별 지연 표본 수 (최근 호출 기준)
+    private int sampleSize = 200;
+
+    // 표본이 이 수보다 적은 도구는 hedge 하지 않음
+    private int minSamples = 20;
+
+    // hedge 대기 시간 하한 (백분위 지연이 이보다 짧아도 이 시간은 기다림)
+    private Duration minDelay = Duration.ofMillis(10);
+
+    // 대상 호출 대비 hedged 요청 비율 상한 (%)
+    private double budgetPercent = 5;
+
+    // 예산이 한 번에 쌓일 수 있는 최대 hedge 횟수 (짧은 구간의 몰림 허용치)
+    private int maxBurst = 10;
+}
@@ -0,0 +1,40 @@
+package com.example.mcplogging.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * 원격(SSE / Streamable HTTP) 커넥터용 HTTP 클라이언트 설정 (mcp.http.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "mcp.http")
+public class HttpClientProperties {
+
+    // https 호스트 선호 프로토콜 (MCP SDK 트랜스포트 기본값과 같은 HTTP_1_1, HTTP_2는 ALPN으로 협상)
+    // http 호스트는 h2c 업그레이드를 피하기 위해 항상 HTTP/1.1
+    private HttpClient.Version version = HttpClient.Version.HTTP_1_1;
+
+    private Duration connectTimeout = Duration.ofSeconds(10);
+
+    // 유휴 연결 유지 시간 (jdk.httpclient.keepalive.timeout)
+    // JVM 전역 시스템 속성이므로 MCP 외 모든 HttpClient에 적용됨, 설정하지 않으면 JDK 기본값
+    private Duration keepAlive;
+
+    // 호스트당 유휴 HTTP/1.1 연결 풀 크기 (jdk.httpclient.connectionPoolSize, 0이면 제한 없음)
+    // JVM 전역 시스템 속성이므로 MCP 외 모든 HttpClient에 적용됨, 설정하지 않으면 JDK 기본값
+    private Integer connectionPoolSize;
+
+    // 응답 처리 실행기: DEFAULT(JDK 내부 캐시 풀) 또는 FIXED(모든 호스트가 공유하는 고정 크기 풀)
+    private ExecutorType executor = ExecutorType.DEFAULT;
+
+    private int executorThreads = 8;
+
+    public enum ExecutorType {
+        DEFAULT, FIXED
+    }
+}
@@ -3,6 +3,7 @@ package com.example.mcplogging.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -19,6 +20,9 @@ public class JacksonConfig {
         // Java 8 날짜/시간 API 지원
         mapper.registerModule(new JavaTimeModule());
 
+        // 리플렉션 대신 LambdaMetafactory로 생성한 접근자 사용 (POJO/record 직렬화 속도 향상)
+        mapper.registerModule(new BlackbirdModule());
+
         // 날짜를 timestamp가 아닌 ISO-8601 형식으로 직렬화
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
@@ -0,0 +1,17 @@
+package com.example.mcplogging.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * JSON-RPC 메시지 처리 설정 (mcp.jsonrpc.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "mcp.jsonrpc")
+public class JsonRpcProperties {
+
+    // 배치 하나에서 동시에 처리하는 최대 요청 수 (1이면 순차 처리)
+    private int batchConcurrency = 8;
+}
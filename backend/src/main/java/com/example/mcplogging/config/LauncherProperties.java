@@ -0,0 +1,38 @@
+package com.example.mcplogging.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * STDIO 커넥터 실행 설정 (mcp.launcher.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "mcp.launcher")
+public class LauncherProperties {
+
+    // npx 커넥터를 로컬 캐시에 한 번 설치한 뒤 node로 직접 실행
+    private boolean resolveNpx = true;
+
+    // 패키지 설치 캐시 경로
+    private String cacheDir = "./data/npx-cache";
+
+    private String npmCommand = "npm";
+
+    private String nodeCommand = "node";
+
+    // npm install 최대 대기 시간
+    private Duration installTimeout = Duration.ofMinutes(5);
+
+    // 해석 실패 후 다시 시도하기까지의 간격 (그동안은 원래 명령으로 실행)
+    private Duration failureRetryInterval = Duration.ofMinutes(10);
+
+    // 버전을 고정하지 않은 패키지 스펙(이름만, 태그, 범위)을 다시 설치하는 간격 (0이면 갱신하지 않음)
+    private Duration refreshInterval = Duration.ofHours(24);
+
+    // 시작 시 활성 STDIO 커넥터 패키지를 미리 설치
+    private boolean prewarm = false;
+}
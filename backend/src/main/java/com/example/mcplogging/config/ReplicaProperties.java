@@ -0,0 +1,69 @@
+package com.example.mcplogging.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 커넥터 복제본(replica) 설정 (mcp.replicas.*)
+ *
+ * 복제본은 같은 연결(connector, userId, 환경 변수) 안에서 여러 STDIO 프로세스 또는 여러 URL로 나뉘며,
+ * 세션에는 하나의 연결로 보이고 도구 호출마다 routing 전략으로 복제본을 고른다.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "mcp.replicas")
+public class ReplicaProperties {
+
+    // 연속 실패가 이 횟수에 도달한 복제본은 라우팅에서 제외
+    private int ejectAfterFailures = 3;
+
+    // 제외 후 상태 확인(ping)까지 대기 시간 (실패하면 다시 대기)
+    private Duration ejectDuration = Duration.ofSeconds(30);
+
+    // 제외된 복제본 상태 확인 주기 (ms)
+    private long healthCheckIntervalMs = 5000;
+
+    // 커넥터별 복제본 설정 (connectorName → 설정)
+    private Map<String, Replicas> connectors = new HashMap<>();
+
+    /**
+     * 라우팅 전략
+     */
+    public enum Routing {
+        // 진행 중인 호출이 가장 적은 복제본
+        LEAST_OUTSTANDING,
+        // 임의의 두 복제본 중 진행 중인 호출이 적은 쪽
+        POWER_OF_TWO,
+        // 세션 키 기준 일관된 해싱 (키가 없으면 LEAST_OUTSTANDING)
+        CONSISTENT_HASH
+    }
+
+    /**
+     * 커넥터 복제본 설정
+     */
+    @Getter
+    @Setter
+    public static class Replicas {
+        // 복제본 수 (STDIO는 프로세스 수, HTTP는 같은 serverUrl에 대한 클라이언트 수)
+        private int count = 1;
+
+        // HTTP 커넥터 복제본 URL (설정하면 serverUrl 대신 사용하고 count는 무시)
+        private List<String> urls = new ArrayList<>();
+
+        private Routing routing = Routing.LEAST_OUTSTANDING;
+    }
+
+    /**
+     * 커넥터 복제본 설정 (없으면 null - 단일 클라이언트)
+     */
+    public Replicas replicasFor(String connectorName) {
+        return connectorName != null ? connectors.get(connectorName) : null;
+    }
+}
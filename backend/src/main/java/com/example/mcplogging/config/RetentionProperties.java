@@ -0,0 +1,44 @@
+package com.example.mcplogging.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 감사 테이블 보존 정책 설정 (mcp.retention.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "mcp.retention")
+public class RetentionProperties {
+
+    // 보존 작업 활성화 여부
+    private boolean enabled = true;
+
+    // 실행 주기 (기본: 매일 03:30)
+    private String cron = "0 30 3 * * *";
+
+    // tool_usage_logs 기본 보존 기간 (일)
+    private int toolUsageLogDays = 30;
+
+    // chat_logs 보존 기간 (일)
+    private int chatLogDays = 30;
+
+    // 해제된 mcp_connections 보존 기간 (일)
+    private int connectionDays = 7;
+
+    // 커넥터별 tool_usage_logs 보존 기간 (connectorName → 일)
+    private Map<String, Integer> connectorDays = new HashMap<>();
+
+    // 한 트랜잭션에서 삭제할 최대 행 수
+    private int batchSize = 500;
+
+    // 삭제 전 아카이브 여부
+    private boolean archiveEnabled = true;
+
+    // 아카이브 파일 저장 경로
+    private String archiveDir = "./data/archive";
+}
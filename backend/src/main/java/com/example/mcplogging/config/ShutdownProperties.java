@@ -0,0 +1,22 @@
+package com.example.mcplogging.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 서버 종료 시 연결 정리 설정 (mcp.shutdown.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "mcp.shutdown")
+public class ShutdownProperties {
+
+    // 진행 중인 도구 호출이 끝나기를 기다리는 최대 시간
+    private Duration drainTimeout = Duration.ofSeconds(20);
+
+    // 클라이언트 종료를 기다리는 최대 시간 (초과 시 남은 종료 작업은 포기)
+    private Duration closeTimeout = Duration.ofSeconds(10);
+}
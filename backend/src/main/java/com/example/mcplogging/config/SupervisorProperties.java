@@ -0,0 +1,69 @@
+package com.example.mcplogging.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * STDIO 프로세스 감시 설정 (mcp.supervisor.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "mcp.supervisor")
+public class SupervisorProperties {
+
+    // 실행 중인 프로세스 PID 기록 파일 (재시작 시 고아 프로세스 정리용)
+    private String pidFile = "./data/stdio-pids.json";
+
+    // 프로세스가 비정상 종료되면 재시작
+    private boolean restartOnCrash = true;
+
+    // 재시작 대기 시간 (시도마다 2배, 최대 maxBackoff)
+    private Duration initialBackoff = Duration.ofSeconds(1);
+
+    private Duration maxBackoff = Duration.ofMinutes(1);
+
+    // 연속 재시작 최대 횟수 (stableAfter 동안 살아 있으면 초기화)
+    private int maxRestarts = 5;
+
+    private Duration stableAfter = Duration.ofMinutes(5);
+
+    // 정상 종료 요청 후 강제 종료까지 대기 시간
+    private Duration terminateGrace = Duration.ofSeconds(5);
+
+    // 리소스 사용량 측정 주기 (ms)
+    private long monitorIntervalMs = 10000;
+
+    // 기본 리소스 제한
+    private Limits defaultLimits = new Limits();
+
+    // 커넥터별 리소스 제한 (connectorName → 제한)
+    private Map<String, Limits> limits = new HashMap<>();
+
+    /**
+     * 프로세스 리소스 제한 (null이면 제한 없음)
+     */
+    @Getter
+    @Setter
+    public static class Limits {
+        // 상주 메모리(RSS) 상한 - 초과 시 프로세스 종료 후 재시작
+        private Integer memoryMb;
+
+        // CPU 시간 상한 (ulimit -t)
+        private Integer cpuSeconds;
+
+        // 열린 파일 수 상한 (ulimit -n)
+        private Integer openFiles;
+    }
+
+    /**
+     * 커넥터에 적용할 제한 (커넥터별 설정이 없으면 기본값)
+     */
+    public Limits limitsFor(String connectorName) {
+        return limits.getOrDefault(connectorName, defaultLimits);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.mcplogging.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 도구 결과 캐시 / 동일 호출 병합 설정 (mcp.cache.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "mcp.cache")
+public class ToolCacheProperties {
+
+    // 캐시 사용 여부 (규칙이 있는 커넥터만 캐시, 동일 호출 병합은 이 값과 무관하게 규칙의 coalesce로 동작)
+    private boolean enabled = false;
+
+    // 캐시 최대 크기 (결과 JSON 크기 기준, 초과 시 W-TinyLFU로 제거)
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    // 규칙에 ttl이 없을 때 사용하는 보관 시간
+    private Duration defaultTtl = Duration.ofSeconds(30);
+
+    // 커넥터별 캐시 규칙 (connectorName → 규칙)
+    private Map<String, Rule> rules = new HashMap<>();
+
+    /**
+     * 커넥터 캐시 규칙 (도구 이름은 * 와일드카드 사용 가능)
+     */
+    @Getter
+    @Setter
+    public static class Rule {
+        // 결과를 캐시할 읽기 전용 도구
+        private List<String> cacheable = new ArrayList<>();
+
+        // 실행되면 이 커넥터의 캐시를 무효화하는 도구 (비어 있으면 cacheable이 아닌 모든 도구)
+        private List<String> mutating = new ArrayList<>();
+
+        // 동시에 들어온 같은 호출(도구 + 인자)을 업스트림 한 번으로 병합할 도구
+        private List<String> coalesce = new ArrayList<>();
+
+        // 캐시/병합 키에서 제외할 인자 이름 (예: 요청 추적 ID)
+        private List<String> ignoredArguments = new ArrayList<>();
+
+        // 보관 시간 (null이면 defaultTtl)
+        private Duration ttl;
+    }
+
+    /**
+     * 커넥터 규칙 (없으면 null - 캐시하지 않음)
+     */
+    public Rule ruleFor(String connectorName) {
+        return connectorName != null ? rules.get(connectorName) : null;
+    }
+}
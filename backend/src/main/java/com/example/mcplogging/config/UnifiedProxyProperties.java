@@ -0,0 +1,46 @@
+package com.example.mcplogging.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 통합 MCP 프록시 설정 (mcp.unified.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "mcp.unified")
+public class UnifiedProxyProperties {
+
+    // true: tools/list는 캐시된 카탈로그로 응답하고, 커넥터는 첫 tools/call 때 연결
+    private boolean lazyActivation = true;
+
+    // 세션 안에서 이 시간 동안 사용되지 않은 커넥터 연결은 해제 (0이면 해제하지 않음)
+    private Duration connectorIdleTimeout = Duration.ofMinutes(10);
+
+    // SSE 스트림이 끊긴 뒤 업스트림 연결을 유지하며 재개를 기다리는 시간 (0이면 즉시 해제)
+    private Duration resumeGrace = Duration.ofMinutes(2);
+
+    // 재개 시 재전송을 위해 세션마다 보관하는 최근 SSE 이벤트 수
+    private int replayBufferSize = 256;
+
+    // SSE 스트림 없이 생성된 임시 세션의 유휴 만료 시간
+    private Duration tempSessionIdleTimeout = Duration.ofMinutes(5);
+
+    // Streamable HTTP 세션(Mcp-Session-Id) 유휴 만료 시간
+    private Duration streamableSessionIdleTimeout = Duration.ofMinutes(30);
+
+    // 사용자별 최대 세션 수 (초과 시 가장 오래 사용되지 않은 세션 정리, 0이면 제한 없음)
+    private int maxSessionsPerUser = 8;
+
+    // tools/call 결과의 content 항목이 이 수 이상이면 JSON 응답을 항목 단위로 나눠 전송 (0이면 한 번에 전송)
+    private int streamContentMinItems = 16;
+
+    // tools/list 페이지당 도구 수 (초과하면 nextCursor로 나눠 응답, 0이면 한 번에 전체 응답)
+    private int toolsPageSize = 0;
+
+    // 세션 만료 타이머 휠 틱 간격
+    private Duration expiryTick = Duration.ofSeconds(1);
+}
@@ -0,0 +1,45 @@
+package com.example.mcplogging.controller;
+
+import com.example.mcplogging.dto.ApiResponse;
+import com.example.mcplogging.service.AuditRetentionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 감사 데이터 보존 정책 관리 API
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/admin/retention")
+@RequiredArgsConstructor
+public class AuditRetentionController { //TODO: 관리자 권한
+
+    private final AuditRetentionService retentionService;
+
+    /**
+     * 보존 정책 상태 및 삭제 통계 조회
+     */
+    @GetMapping
+    public ApiResponse<Map<String, Object>> getStatus() {
+        return ApiResponse.ok(retentionService.getStatus());
+    }
+
+    /**
+     * 보존 정책 즉시 실행
+     */
+    @PostMapping("/run")
+    public ApiResponse<Map<String, Long>> run() {
+        try {
+            return ApiResponse.ok(retentionService.purge());
+        } catch (Exception e) {
+            log.error("보존 정책 실행 실패", e);
+            return ApiResponse.error("보존 정책 실행 실패: " + e.getMessage());
+        }
+    }
+}
@@ -6,9 +6,12 @@ import com.example.mcplogging.dto.McpConnectorDto;
 import com.example.mcplogging.service.McpConnectorService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -18,15 +21,44 @@ public class McpConnectorAdminController { //TODO: 관리자 권한
 
     private final McpConnectorService connectorService;
 
-//    /**
-//     * 새 커넥터 생성
-//     *
-//     * @param request 커넥터 생성 정보
-//     * @return 생성된 커넥터 정보
-//     */
-//    @PostMapping
-//    public ApiResponse<McpConnectorDto> createConnector(@Valid @RequestBody McpConnectorCreateRequest request) {
-//        McpConnectorDto connector = connectorService.createConnector(request);
-//        return ApiResponse.ok("created connector.", connector);
-//    }
+    /**
+     * 새 커넥터 생성
+     *
+     * @param request 커넥터 생성 정보
+     * @return 생성된 커넥터 정보
+     */
+    @PostMapping
+    public ApiResponse<McpConnectorDto> createConnector(@Valid @RequestBody McpConnectorCreateRequest request) {
+        try {
+            McpConnectorDto connector = connectorService.createConnector(request);
+            return ApiResponse.ok("created connector.", connector);
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 커넥터 활성화/비활성화
+     *
+     * @param id      커넥터 ID
+     * @param enabled 활성화 여부
+     * @return 변경된 커넥터 정보
+     */
+    @PatchMapping("/{id}/enabled")
+    public ApiResponse<McpConnectorDto> updateEnabled(@PathVariable Long id, @RequestParam boolean enabled) {
+        try {
+            return ApiResponse.ok(connectorService.updateEnabled(id, enabled));
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 커넥터 레지스트리 갱신 (DB를 직접 수정한 경우)
+     */
+    @PostMapping("/reload")
+    public ApiResponse<Void> reload() {
+        connectorService.reloadRegistry();
+        return ApiResponse.ok("reloaded connector registry.", null);
+    }
 }
@@ -6,11 +6,13 @@ import com.example.mcplogging.service.McpProxyService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -49,22 +51,40 @@ public class McpProxyController {
     /**
      * JSON-RPC 메시지 수신 엔드포인트 (SSE의 POST companion)
      * Claude Desktop이 JSON-RPC 요청을 이 엔드포인트로 전송
+     * 배열로 보내면 배치로 처리하고 응답도 배열로 반환 (notification만 있으면 202)
      *
      * POST /api/v1/mcp/proxy/{connectorName}/message
      */
     @PostMapping("/{connectorName}/message")
-    public Mono<Map<String, Object>> handleMessage(
+    @SuppressWarnings("unchecked")
+    public Mono<ResponseEntity<Object>> handleMessage(
             @PathVariable String connectorName,
-            @RequestBody Map<String, Object> message,
+            @RequestBody Object body,
             @RequestHeader(value = "X-User-Id", defaultValue = "anonymous") String userId,
             @RequestHeader(value = "X-Session-Id", required = false) String sessionId
     ) {
+        if (body instanceof List<?> messages) {
+            log.info("JSON-RPC 배치 수신: connector={}, count={}", connectorName, messages.size());
+            if (messages.isEmpty()) {
+                return Mono.just(ResponseEntity.badRequest().body(Map.of(
+                        "jsonrpc", "2.0",
+                        "error", Map.of("code", -32600, "message", "Invalid Request"))));
+            }
+            return proxyService.handleJsonRpcBatch(connectorName, userId, sessionId, messages)
+                    .map(responses -> responses.isEmpty()
+                            ? ResponseEntity.accepted().build()
+                            : ResponseEntity.ok((Object) responses))
+                    .doOnError(error -> log.error("JSON-RPC 배치 처리 에러", error));
+        }
+
+        Map<String, Object> message = (Map<String, Object>) body;
         log.info("JSON-RPC 메시지 수신: connector={}, method={}",
                 connectorName, message.get("method"));
 
         return proxyService.handleJsonRpcMessage(connectorName, userId, sessionId, message)
                 .doOnSuccess(response -> log.info("JSON-RPC 응답 전송: {}", response.get("id")))
-                .doOnError(error -> log.error("JSON-RPC 처리 에러", error));
+                .doOnError(error -> log.error("JSON-RPC 처리 에러", error))
+                .map(response -> ResponseEntity.ok((Object) response));
     }
 
     /**
@@ -0,0 +1,90 @@
+package com.example.mcplogging.controller;
+
+import com.example.mcplogging.dto.ApiResponse;
+import com.example.mcplogging.mcp.service.McpConnectionService;
+import com.example.mcplogging.mcp.service.McpHedgingPolicy;
+import com.example.mcplogging.mcp.service.McpHttpClientProvider;
+import com.example.mcplogging.mcp.service.McpProcessSupervisor;
+import com.example.mcplogging.mcp.service.McpStdioLauncher;
+import com.example.mcplogging.mcp.service.McpToolResultCache;
+import com.example.mcplogging.service.McpToolsListCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MCP 런타임 상태 조회 API (업스트림 실행/연결 통계)
+ */
+@RestController
+@RequestMapping("/api/v1/admin/runtime")
+@RequiredArgsConstructor
+public class McpRuntimeController { //TODO: 관리자 권한
+
+    private final McpStdioLauncher stdioLauncher;
+    private final McpProcessSupervisor processSupervisor;
+    private final McpHttpClientProvider httpClientProvider;
+    private final McpToolResultCache resultCache;
+    private final McpToolsListCache toolsListCache;
+    private final McpConnectionService connectionService;
+    private final McpHedgingPolicy hedgingPolicy;
+
+    /**
+     * STDIO 커넥터 실행 통계 (npx 캐시 해석 여부, 실행 시간)
+     */
+    @GetMapping("/launcher")
+    public ApiResponse<Map<String, Object>> getLauncherStats() {
+        return ApiResponse.ok(stdioLauncher.getStats());
+    }
+
+    /**
+     * STDIO 프로세스별 리소스 사용량 (PID, RSS, CPU 시간, 열린 파일 수, 재시작 횟수)
+     */
+    @GetMapping("/processes")
+    public ApiResponse<List<Map<String, Object>>> getProcessStats() {
+        return ApiResponse.ok(processSupervisor.getProcessStats());
+    }
+
+    /**
+     * 원격 커넥터 HTTP 클라이언트 통계 (호스트별 공유 트랜스포트 수, 동시 스트림, 협상된 프로토콜)
+     */
+    @GetMapping("/http")
+    public ApiResponse<Map<String, Object>> getHttpStats() {
+        return ApiResponse.ok(httpClientProvider.getStats());
+    }
+
+    /**
+     * 도구 결과 캐시 통계 (적중/미스, 제거, 사용 크기, 커넥터별 무효화 횟수)
+     */
+    @GetMapping("/cache")
+    public ApiResponse<Map<String, Object>> getCacheStats() {
+        return ApiResponse.ok(resultCache.getStats());
+    }
+
+    /**
+     * 직렬화된 tools/list 결과 캐시 통계 (항목 수, 재사용/생성 횟수)
+     */
+    @GetMapping("/tools-list")
+    public ApiResponse<Map<String, Object>> getToolsListStats() {
+        return ApiResponse.ok(toolsListCache.getStats());
+    }
+
+    /**
+     * 커넥터 복제본 상태 (연결별 라우팅 전략, 복제본별 진행 중인 호출/실패 수, 제외 여부)
+     */
+    @GetMapping("/replicas")
+    public ApiResponse<List<Map<String, Object>>> getReplicaStats() {
+        return ApiResponse.ok(connectionService.getReplicaStats());
+    }
+
+    /**
+     * hedged 요청 통계 (대상/hedge/hedge 승리 횟수, 예산 부족, 도구별 대기 기준 지연)
+     */
+    @GetMapping("/hedging")
+    public ApiResponse<Map<String, Object>> getHedgingStats() {
+        return ApiResponse.ok(hedgingPolicy.getStats());
+    }
+}
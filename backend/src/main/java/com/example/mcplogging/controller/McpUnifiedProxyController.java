@@ -1,14 +1,38 @@
 package com.example.mcplogging.controller;
 
+import com.example.mcplogging.config.UnifiedProxyProperties;
+import com.example.mcplogging.dto.JsonRpcRequest;
+import com.example.mcplogging.dto.JsonRpcResponse;
+import com.example.mcplogging.dto.McpMessages;
 import com.example.mcplogging.service.McpUnifiedProxyService;
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.modelcontextprotocol.spec.McpSchema;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -18,24 +42,48 @@ import java.util.Map;
 @Slf4j
 @RestController
 @RequestMapping("/mcp")
-@RequiredArgsConstructor
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = "Mcp-Session-Id")
 public class McpUnifiedProxyController {
 
+    private static final String MCP_SESSION_ID = "Mcp-Session-Id";
+
     private final McpUnifiedProxyService proxyService;
+    private final UnifiedProxyProperties properties;
+    private final ObjectMapper objectMapper;
+
+    // 요청마다 만들지 않도록 미리 생성
+    private final ObjectReader requestReader;
+    // 항목의 type 필드가 빠지지 않도록 선언 타입(Content)으로 직렬화
+    private final ObjectWriter contentWriter;
+
+    public McpUnifiedProxyController(McpUnifiedProxyService proxyService,
+                                     UnifiedProxyProperties properties,
+                                     ObjectMapper objectMapper) {
+        this.proxyService = proxyService;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.requestReader = objectMapper.readerFor(JsonRpcRequest.class);
+        this.contentWriter = objectMapper.writerFor(McpSchema.Content.class);
+    }
 
     /**
      * SSE 엔드포인트 - Claude Desktop이 연결
      *
      * GET /mcp/sse
+     * 재연결 시 session 이벤트의 resumeToken(X-Resume-Token 또는 resumeToken 파라미터)과
+     * Last-Event-ID를 보내면 기존 세션을 이어서 사용하고 놓친 이벤트를 다시 받는다.
      */
     @GetMapping(value = "/sse", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public Flux<ServerSentEvent<String>> sseEndpoint(
-            @RequestHeader(value = "X-User-Id", defaultValue = "anonymous") String userId
+            @RequestHeader(value = "X-User-Id", defaultValue = "anonymous") String userId,
+            @RequestHeader(value = "X-Resume-Token", required = false) String resumeTokenHeader,
+            @RequestParam(value = "resumeToken", required = false) String resumeTokenParam,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
     ) {
-        log.info("통합 MCP SSE 연결: userId={}", userId);
+        String resumeToken = resumeTokenHeader != null ? resumeTokenHeader : resumeTokenParam;
+        log.info("통합 MCP SSE 연결: userId={}, resume={}", userId, resumeToken != null);
 
-        return proxyService.createUnifiedSseStream(userId)
+        return proxyService.createUnifiedSseStream(userId, resumeToken, lastEventId)
                 .doOnSubscribe(sub -> log.info("SSE 스트림 시작"))
                 .doOnComplete(() -> log.info("SSE 스트림 종료"))
                 .doOnError(error -> log.error("SSE 에러", error));
@@ -45,38 +93,124 @@ public class McpUnifiedProxyController {
      * JSON-RPC 메시지 처리 (SSE 프로토콜 - 같은 경로에 POST)
      *
      * POST /mcp/sse
+     * - JSON-RPC 배치(배열) 지원, 요청 없이 notification/response만 있으면 202 Accepted
      */
     @PostMapping("/sse")
-    public Mono<Map<String, Object>> handleSseMessage(
-            @RequestBody Map<String, Object> message,
+    public ResponseEntity<ResponseBodyEmitter> handleSseMessage(
+            @RequestBody byte[] body,
             @RequestHeader(value = "X-User-Id", defaultValue = "anonymous") String userId,
             @RequestHeader(value = "X-Session-Id", required = false) String sessionId
     ) {
-        String method = (String) message.get("method");
-        log.info("JSON-RPC 메시지 (SSE): method={}, id={}", method, message.get("id"));
+        ParsedMessages parsed;
+        try {
+            parsed = readMessages(body);
+        } catch (IOException e) {
+            return json(HttpStatus.OK, null, Mono.just(parseError()));
+        }
+        List<JsonRpcRequest> messages = parsed.messages();
+        log.info("JSON-RPC 메시지 (SSE): count={}, batch={}, sessionId={}", messages.size(), parsed.batch(), sessionId);
 
-        return proxyService.handleJsonRpcMessage(userId, sessionId, message)
-                .doOnSuccess(response -> log.info("응답 전송 완료"))
-                .doOnError(error -> log.error("메시지 처리 에러", error));
+        if (messages.isEmpty()) {
+            return json(HttpStatus.OK, null, Mono.just(invalidRequest()));
+        }
+
+        if (!proxyService.containsRequest(messages)) {
+            proxyService.handleJsonRpcBatch(userId, sessionId, messages).subscribe();
+            return ResponseEntity.accepted().build();
+        }
+        return json(HttpStatus.OK, null, batchResponse(userId, sessionId, parsed));
     }
 
     /**
-     * JSON-RPC 메시지 처리 (신 Streamable HTTP 프로토콜)
+     * Streamable HTTP 엔드포인트 - JSON-RPC 메시지 처리
      *
      * POST /mcp/message
+     * - initialize 요청에는 Mcp-Session-Id 헤더로 세션 ID를 발급하고, 이후 요청은 같은 헤더로 세션을 지정
+     * - 지정한 세션(Mcp-Session-Id 또는 X-Session-Id)이 없거나 만료되었으면 404
+     * - 요청 없이 notification/response만 있으면 202 Accepted
+     * - tools/call이 있고 text/event-stream을 허용하면 요청 단위 SSE 스트림으로 알림과 응답 전송, 그 외에는 JSON 응답
+     * - JSON-RPC 배치(배열) 지원
      */
     @PostMapping("/message")
-    public Mono<Map<String, Object>> handleMessage(
-            @RequestBody Map<String, Object> message,
+    public ResponseEntity<ResponseBodyEmitter> handleMessage(
+            @RequestBody byte[] body,
             @RequestHeader(value = "X-User-Id", defaultValue = "anonymous") String userId,
-            @RequestHeader(value = "X-Session-Id", required = false) String sessionId
+            @RequestHeader(value = "X-Session-Id", required = false) String legacySessionId,
+            @RequestHeader(value = MCP_SESSION_ID, required = false) String mcpSessionId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        ParsedMessages parsed;
+        try {
+            parsed = readMessages(body);
+        } catch (IOException e) {
+            return json(HttpStatus.BAD_REQUEST, null, Mono.just(parseError()));
+        }
+        boolean batch = parsed.batch();
+        List<JsonRpcRequest> messages = parsed.messages();
+        log.info("JSON-RPC 메시지: count={}, batch={}, sessionId={}", messages.size(), batch, mcpSessionId);
+
+        if (messages.isEmpty()) {
+            return json(HttpStatus.BAD_REQUEST, null, Mono.just(invalidRequest()));
+        }
+
+        // 세션 결정 (Mcp-Session-Id가 없으면 기존 X-Session-Id / 임시 세션 사용)
+        String sessionId = mcpSessionId != null ? mcpSessionId : legacySessionId;
+        String issuedSessionId = null;
+        if (proxyService.containsInitialize(messages)) {
+            issuedSessionId = proxyService.openStreamableSession(userId);
+            sessionId = issuedSessionId;
+        } else if (sessionId != null && !proxyService.hasSession(sessionId)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // notification/response만 있는 경우
+        if (!proxyService.containsRequest(messages)) {
+            proxyService.handleJsonRpcBatch(userId, sessionId, messages).subscribe();
+            return ResponseEntity.accepted().build();
+        }
+
+        if (acceptsEventStream(accept) && proxyService.containsToolCall(messages)) {
+            return sse(issuedSessionId, proxyService.streamJsonRpcMessages(userId, sessionId, messages));
+        }
+
+        return json(HttpStatus.OK, issuedSessionId, batchResponse(userId, sessionId, parsed));
+    }
+
+    /**
+     * Streamable HTTP 서버 알림 스트림 (progress, tools/list_changed 등)
+     *
+     * GET /mcp/message
+     * Last-Event-ID를 보내면 이후 이벤트를 재전송한다.
+     */
+    @GetMapping(value = "/message", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<String>>> notificationStream(
+            @RequestHeader(value = MCP_SESSION_ID, required = false) String mcpSessionId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
     ) {
-        String method = (String) message.get("method");
-        log.info("JSON-RPC 메시지: method={}, id={}", method, message.get("id"));
+        if (mcpSessionId == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!proxyService.hasSession(mcpSessionId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(proxyService.attachNotificationStream(mcpSessionId, lastEventId));
+    }
 
-        return proxyService.handleJsonRpcMessage(userId, sessionId, message)
-                .doOnSuccess(response -> log.info("응답 전송 완료"))
-                .doOnError(error -> log.error("메시지 처리 에러", error));
+    /**
+     * Streamable HTTP 세션 종료
+     *
+     * DELETE /mcp/message
+     */
+    @DeleteMapping("/message")
+    public ResponseEntity<Void> terminateSession(
+            @RequestHeader(value = MCP_SESSION_ID, required = false) String mcpSessionId
+    ) {
+        if (mcpSessionId == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return proxyService.terminateSession(mcpSessionId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
     }
 
     /**
@@ -86,4 +220,200 @@ public class McpUnifiedProxyController {
     public Mono<Map<String, Object>> getStatus() {
         return proxyService.getStatus();
     }
-}
\ No newline at end of file
+
+    // ===== Private Helper Methods =====
+
+    /**
+     * 배치면 응답 배열, 단일 메시지면 응답 하나 (취소된 요청은 응답 없음)
+     */
+    private Mono<?> batchResponse(String userId, String sessionId, ParsedMessages parsed) {
+        Mono<List<JsonRpcResponse>> responses = proxyService.handleJsonRpcBatch(userId, sessionId, parsed.messages());
+        return parsed.batch()
+                ? responses
+                : responses.mapNotNull(list -> list.isEmpty() ? null : list.get(0));
+    }
+
+    private boolean acceptsEventStream(String accept) {
+        return accept != null && MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(mediaType -> mediaType.includes(MediaType.TEXT_EVENT_STREAM)
+                        && !mediaType.isWildcardType());
+    }
+
+    /**
+     * JSON 응답
+     * content가 mcp.unified.stream-content-min-items 개 이상인 응답은 항목 단위로 나눠 전송한다.
+     */
+    private ResponseEntity<ResponseBodyEmitter> json(HttpStatus status, String sessionId, Mono<?> response) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(0L);
+        response.subscribe(body -> {
+            try {
+                if (streamsContent(body)) {
+                    writeIncrementally(emitter, body);
+                } else if (body instanceof JsonRpcResponse rpc
+                        && rpc.result() instanceof McpMessages.RenderedToolsList rendered) {
+                    emitter.send(withId(rpc.id(), rendered.resultJson()), MediaType.APPLICATION_JSON);
+                } else {
+                    emitter.send(body, MediaType.APPLICATION_JSON);
+                }
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+        }, error -> {
+            log.error("메시지 처리 에러", error);
+            emitter.completeWithError(error);
+        }, emitter::complete);
+        return withSessionId(ResponseEntity.status(status), sessionId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(emitter);
+    }
+
+    /**
+     * 요청 단위 SSE 응답
+     */
+    private ResponseEntity<ResponseBodyEmitter> sse(String sessionId, Flux<ServerSentEvent<String>> events) {
+        SseEmitter emitter = new SseEmitter(0L);
+        Disposable subscription = events.subscribe(event -> {
+            try {
+                emitter.send(SseEmitter.event().name(event.event()).data(event.data()));
+            } catch (IOException e) {
+                throw new IllegalStateException("SSE 전송 실패", e);
+            }
+        }, error -> {
+            log.error("SSE 응답 에러", error);
+            emitter.completeWithError(error);
+        }, emitter::complete);
+
+        // 클라이언트 연결이 끊기면 처리 중단
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(error -> subscription.dispose());
+        return withSessionId(ResponseEntity.ok(), sessionId)
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(emitter);
+    }
+
+    private boolean streamsContent(Object body) {
+        int minItems = properties.getStreamContentMinItems();
+        if (minItems <= 0) {
+            return false;
+        }
+        if (body instanceof List<?> responses) {
+            return responses.stream().anyMatch(this::streamsContent);
+        }
+        List<?> content = content(body);
+        return content != null && content.size() >= minItems;
+    }
+
+    private static List<McpSchema.Content> content(Object response) {
+        return response instanceof JsonRpcResponse rpc
+                && rpc.result() instanceof McpMessages.ToolCallResult result ? result.content() : null;
+    }
+
+    /**
+     * content 항목마다 직렬화한 만큼 바로 전송 (전체 응답을 하나의 문자열로 만들지 않음)
+     */
+    private void writeIncrementally(ResponseBodyEmitter emitter, Object body) throws IOException {
+        StringWriter buffer = new StringWriter();
+        try (JsonGenerator generator = objectMapper.createGenerator(buffer)) {
+            writeValue(generator, body, emitter, buffer);
+        }
+        sendChunk(emitter, buffer);
+    }
+
+    private void writeValue(JsonGenerator generator, Object value, ResponseBodyEmitter emitter,
+                            StringWriter buffer) throws IOException {
+        if (value instanceof List<?> responses) {
+            generator.writeStartArray();
+            for (Object response : responses) {
+                writeValue(generator, response, emitter, buffer);
+            }
+            generator.writeEndArray();
+            return;
+        }
+
+        List<McpSchema.Content> content = content(value);
+        if (content == null) {
+            generator.writeObject(value);
+            return;
+        }
+
+        JsonRpcResponse response = (JsonRpcResponse) value;
+        McpMessages.ToolCallResult result = (McpMessages.ToolCallResult) response.result();
+
+        generator.writeStartObject();
+        generator.writeStringField("jsonrpc", response.jsonrpc());
+        generator.writeObjectField("id", response.id());
+        generator.writeObjectFieldStart("result");
+        generator.writeArrayFieldStart("content");
+        for (McpSchema.Content item : content) {
+            contentWriter.writeValue(generator, item);
+            generator.flush();
+            sendChunk(emitter, buffer);
+        }
+        generator.writeEndArray();
+        generator.writeBooleanField("isError", result.isError());
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    /**
+     * 미리 직렬화된 result에 JSON-RPC 봉투와 id만 붙임
+     */
+    private byte[] withId(Object id, byte[] resultJson) throws IOException {
+        byte[] prefix = ("{\"jsonrpc\":\"2.0\",\"id\":" + objectMapper.writeValueAsString(id) + ",\"result\":")
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] response = Arrays.copyOf(prefix, prefix.length + resultJson.length + 1);
+        System.arraycopy(resultJson, 0, response, prefix.length, resultJson.length);
+        response[response.length - 1] = '}';
+        return response;
+    }
+
+    private void sendChunk(ResponseBodyEmitter emitter, StringWriter buffer) throws IOException {
+        if (buffer.getBuffer().length() > 0) {
+            emitter.send(buffer.toString(), MediaType.APPLICATION_JSON);
+            buffer.getBuffer().setLength(0);
+        }
+    }
+
+    private ResponseEntity.BodyBuilder withSessionId(ResponseEntity.BodyBuilder builder, String sessionId) {
+        return sessionId != null ? builder.header(MCP_SESSION_ID, sessionId) : builder;
+    }
+
+    /**
+     * 요청 본문 파싱 (배열이면 배치)
+     * 배치 항목 중 객체가 아닌 것은 null로 남겨 Invalid Request로 응답한다.
+     */
+    private ParsedMessages readMessages(byte[] body) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return new ParsedMessages(Collections.singletonList(readMessage(parser)), false);
+            }
+            List<JsonRpcRequest> messages = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                messages.add(readMessage(parser));
+            }
+            return new ParsedMessages(messages, true);
+        }
+    }
+
+    private JsonRpcRequest readMessage(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.START_OBJECT) {
+            return requestReader.readValue(parser);
+        }
+        if (parser.currentToken() == null) {
+            throw new EOFException("빈 요청 본문");
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private JsonRpcResponse invalidRequest() {
+        return JsonRpcResponse.error(null, -32600, "Invalid Request");
+    }
+
+    private JsonRpcResponse parseError() {
+        return JsonRpcResponse.error(null, -32700, "Parse error");
+    }
+
+    private record ParsedMessages(List<JsonRpcRequest> messages, boolean batch) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.mcplogging.converter;
+
+import com.example.mcplogging.entity.ToolCallOutcome;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class ToolCallOutcomeConverter implements AttributeConverter<ToolCallOutcome, String> {
+
+    @Override
+    public String convertToDatabaseColumn(ToolCallOutcome attribute) {
+        if (attribute == null) {
+            return null;
+        }
+        return attribute.name().toLowerCase();
+    }
+
+    @Override
+    public ToolCallOutcome convertToEntityAttribute(String dbData) {
+        if (dbData == null || dbData.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return ToolCallOutcome.valueOf(dbData.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown ToolCallOutcome: " + dbData, e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.mcplogging.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+
+/**
+ * JSON-RPC 요청/알림 메시지
+ *
+ * params는 파싱한 토큰 그대로 보관했다가 메서드가 정해진 뒤 필요한 타입으로만 읽는다.
+ * id가 없으면 notification이고, "id": null은 NullNode로 구분된다.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record JsonRpcRequest(String jsonrpc, JsonNode id, String method, TokenBuffer params) {
+
+    public boolean isNotification() {
+        return id == null;
+    }
+
+    /**
+     * 응답에 돌려줄 id (숫자 또는 문자열, 없거나 null이면 null)
+     */
+    public Object idValue() {
+        if (id == null || id.isNull()) {
+            return null;
+        }
+        return id.isNumber() ? id.numberValue() : id.asText();
+    }
+
+    /**
+     * params를 지정한 타입으로 읽기
+     *
+     * @return params가 없으면 null
+     * @throws IllegalArgumentException params 형식이 맞지 않는 경우
+     */
+    public <T> T params(ObjectMapper objectMapper, Class<T> type) {
+        if (params == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(params.asParser(objectMapper), type);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid params", e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.mcplogging.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * JSON-RPC 응답 메시지 (result 또는 error 중 하나만 포함, id는 null이어도 항상 포함)
+ */
+public record JsonRpcResponse(
+        String jsonrpc,
+        Object id,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Object result,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Error error
+) {
+
+    public static JsonRpcResponse result(Object id, Object result) {
+        return new JsonRpcResponse("2.0", id, result, null);
+    }
+
+    public static JsonRpcResponse error(Object id, int code, String message) {
+        return new JsonRpcResponse("2.0", id, null, new Error(code, message));
+    }
+
+    public record Error(int code, String message) {
+    }
+}
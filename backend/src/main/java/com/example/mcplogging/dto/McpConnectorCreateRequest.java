@@ -3,6 +3,7 @@ package com.example.mcplogging.dto;
 import com.example.mcplogging.enums.McpServerType;
 import com.example.mcplogging.enums.McpTransportType;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import lombok.*;
 
 /**
@@ -21,10 +22,10 @@ public class McpConnectorCreateRequest {
     @NotBlank(message = "설명은 필수입니다")
     private String description;
 
-    @NotBlank(message = "타입은 필수입니다 (official, custom)")
+    @NotNull(message = "타입은 필수입니다 (official, custom)")
     private McpServerType type;
 
-    @NotBlank(message = "전송 타입은 필수입니다 (stdio, sse)")
+    @NotNull(message = "전송 타입은 필수입니다 (stdio, sse, streamable_http)")
     private McpTransportType transportType;
 
     // SSE 방식인 경우
@@ -0,0 +1,81 @@
+package com.example.mcplogging.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import io.modelcontextprotocol.spec.McpSchema;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 통합 프록시가 처리하는 MCP 메서드의 params / result
+ */
+public final class McpMessages {
+
+    private McpMessages() {
+    }
+
+    // ===== params =====
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record ToolCallParams(
+            String name,
+            Map<String, Object> arguments,
+            @JsonProperty("_meta") Map<String, Object> meta
+    ) {
+        public Object progressToken() {
+            return meta != null ? meta.get("progressToken") : null;
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record SetLevelParams(String level) {
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record ToolsListParams(String cursor, @JsonProperty("_meta") Map<String, Object> meta) {
+        /**
+         * 클라이언트가 가진 목록의 etag (같으면 목록 없이 notModified로 응답)
+         */
+        public Object ifNoneMatch() {
+            return meta != null ? meta.get("ifNoneMatch") : null;
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record CancelledParams(Object requestId, String reason) {
+    }
+
+    // ===== result =====
+
+    public record InitializeResult(String protocolVersion, Map<String, Object> capabilities, ServerInfo serverInfo) {
+    }
+
+    public record ServerInfo(String name, String version) {
+    }
+
+    public record ToolsListResult(List<ToolDescriptor> tools) {
+    }
+
+    public record ToolDescriptor(String name, String description, Object inputSchema) {
+    }
+
+    /**
+     * 미리 직렬화된 tools/list 결과
+     * tools는 직렬화된 JSON 배열을 그대로 쓰고, resultJson은 result 전체 바이트 (id만 붙여 바로 전송)
+     */
+    public record RenderedToolsList(
+            @JsonRawValue String tools,
+            @JsonInclude(JsonInclude.Include.NON_NULL) String nextCursor,
+            @JsonProperty("_meta") Map<String, Object> meta,
+            @JsonIgnore byte[] resultJson,
+            @JsonIgnore String etag
+    ) {
+    }
+
+    public record ToolCallResult(List<McpSchema.Content> content, @JsonProperty("isError") boolean isError) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.mcplogging.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 감사 로그 페이로드 (내용 주소 기반 저장)
+ * 같은 내용은 해시로 찾아 한 행만 저장하며, 참조하는 tool_usage_logs가 없는 행은 보존 정책 실행 시 정리한다.
+ */
+@Entity
+@Table(name = "audit_payloads", indexes = {
+        @Index(name = "uk_audit_payloads_hash", columnList = "hash", unique = true)
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditPayload {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // 정규화된 JSON의 128비트 해시 (hex)
+    @Column(nullable = false, length = 32)
+    private String hash;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String content; // 정규화된 JSON string
+
+    private int sizeBytes;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
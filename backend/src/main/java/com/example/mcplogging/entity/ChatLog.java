@@ -7,7 +7,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "chat_logs")
+@Table(name = "chat_logs", indexes = {
+        @Index(name = "idx_chat_logs_created_at", columnList = "createdAt")
+})
 @Getter
 @Setter
 @NoArgsConstructor
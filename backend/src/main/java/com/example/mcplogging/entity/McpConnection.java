@@ -7,7 +7,10 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "mcp_connections")
+@Table(name = "mcp_connections", indexes = {
+        @Index(name = "idx_mcp_connections_status_created_at", columnList = "status, createdAt"),
+        @Index(name = "idx_mcp_connections_identity", columnList = "connector_id, userId, envFingerprint")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -27,6 +30,10 @@ public class McpConnection {
     @Column(columnDefinition = "TEXT")
     private String envConfig;
 
+    // 환경 변수 지문 (SHA-256) - (connector, userId, envFingerprint)로 연결 식별
+    @Column(length = 64)
+    private String envFingerprint;
+
     @Column(length = 50)
     @Convert(converter = McpStatusConverter.class)
     @Builder.Default
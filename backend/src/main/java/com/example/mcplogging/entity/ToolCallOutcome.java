@@ -0,0 +1,7 @@
+package com.example.mcplogging.entity;
+
+public enum ToolCallOutcome {
+    SUCCESS,
+    ERROR,
+    CANCELLED
+}
@@ -1,12 +1,19 @@
 package com.example.mcplogging.entity;
 
+import com.example.mcplogging.converter.ToolCallOutcomeConverter;
 import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tool_usage_logs")
+@Table(name = "tool_usage_logs", indexes = {
+        @Index(name = "idx_tool_usage_logs_executed_at", columnList = "executedAt"),
+        @Index(name = "idx_tool_usage_logs_connector_executed_at", columnList = "connectorName, executedAt"),
+        // 참조가 없는 audit_payloads 정리 시 조회
+        @Index(name = "idx_tool_usage_logs_tool_parameters_payload", columnList = "tool_parameters_payload_id"),
+        @Index(name = "idx_tool_usage_logs_mcp_request_payload", columnList = "mcp_request_payload_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -32,18 +39,35 @@ public class ToolUsageLog {
     @Column(nullable = false, length = 200)
     private String toolName;
 
+    // 인자/원본 요청은 audit_payloads에 중복 없이 저장하고 참조만 기록
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "tool_parameters_payload_id")
+    private AuditPayload toolParametersPayload;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "mcp_request_payload_id")
+    private AuditPayload mcpRequestPayload;
+
     @Column(columnDefinition = "TEXT")
-    private String toolParameters; // JSON string
+    private String toolParameters; // JSON string (이전 기록)
 
     @Column(columnDefinition = "TEXT")
     private String toolResponse; // JSON string
 
     @Column(columnDefinition = "TEXT")
-    private String mcpRequestRaw; // MCP 프로토콜 원본 요청
+    private String mcpRequestRaw; // MCP 프로토콜 원본 요청 (이전 기록)
 
     @Column(columnDefinition = "TEXT")
     private String mcpResponseRaw; // MCP 프로토콜 원본 응답
 
+    // 호출 결과 (success / error / cancelled), 이전 기록은 null
+    @Column(length = 20)
+    @Convert(converter = ToolCallOutcomeConverter.class)
+    private ToolCallOutcome outcome;
+
+    // 결과 캐시에서 응답한 호출 (업스트림 미호출)
+    private Boolean cacheHit;
+
     @Builder.Default
     private LocalDateTime executedAt = LocalDateTime.now();
 }
\ No newline at end of file
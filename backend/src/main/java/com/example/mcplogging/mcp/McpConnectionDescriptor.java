@@ -0,0 +1,16 @@
+package com.example.mcplogging.mcp.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * 활성 연결의 경량 메타데이터 (DB 조회 없이 감사 로깅 등에 사용)
+ */
+public record McpConnectionDescriptor(
+        Long connectionId,
+        Long connectorId,
+        String connectorName,
+        String userId,
+        String envFingerprint,
+        LocalDateTime connectedAt
+) {
+}
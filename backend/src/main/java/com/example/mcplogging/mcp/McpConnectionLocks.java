@@ -0,0 +1,52 @@
+package com.example.mcplogging.mcp.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 연결 식별자(connectorId:userId:envFingerprint)별 생성/해제 잠금
+ * 식별자마다 잠금을 따로 두어 프로세스 생성을 기다리는 동안 다른 식별자가 막히지 않으며,
+ * 잠금을 잡거나 기다리는 스레드가 없어지면 항목을 제거한다.
+ */
+final class McpConnectionLocks {
+
+    // Key: 연결 식별자, Value: 잠금 + 잡고 있거나 기다리는 스레드 수
+    private final Map<String, Entry> locks = new ConcurrentHashMap<>();
+
+    /**
+     * 식별자 잠금 획득 (같은 스레드에서 다시 잡을 수 있음, unlock과 짝으로 호출)
+     */
+    void lock(String identity) {
+        Entry entry = locks.compute(identity, (key, existing) -> {
+            Entry held = existing != null ? existing : new Entry();
+            held.holders++;
+            return held;
+        });
+        entry.lock.lock();
+    }
+
+    /**
+     * 식별자 잠금 해제, 잡거나 기다리는 스레드가 없으면 항목 제거
+     */
+    void unlock(String identity) {
+        Entry entry = locks.get(identity);
+        if (entry == null || !entry.lock.isHeldByCurrentThread()) {
+            throw new IllegalStateException("잠금을 잡고 있지 않음: " + identity);
+        }
+        entry.lock.unlock();
+        locks.computeIfPresent(identity, (key, existing) -> --existing.holders > 0 ? existing : null);
+    }
+
+    /**
+     * 잠금 항목 수 (사용 중인 식별자 수)
+     */
+    int size() {
+        return locks.size();
+    }
+
+    private static final class Entry {
+        final ReentrantLock lock = new ReentrantLock();
+        int holders;  // locks.compute 안에서만 변경
+    }
+}
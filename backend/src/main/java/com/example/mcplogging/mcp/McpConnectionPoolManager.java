@@ -1,50 +1,123 @@
 package com.example.mcplogging.mcp.service;
 
-import io.modelcontextprotocol.client.McpSyncClient;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 활성 MCP 연결 풀 관리자
  * 사용자별 연결 인스턴스를 메모리에 유지
+ *
+ * 같은 McpConnection 행을 여러 세션이 공유할 수 있으므로 참조 카운트로 관리하고,
+ * 마지막 참조가 해제될 때만 클라이언트를 풀에서 제거한다.
+ * 연결마다 복제본 묶음(McpReplicaSet)을 보관하며, 복제본이 없는 커넥터는 클라이언트 하나짜리 묶음이다.
  */
 @Slf4j
 @Component
 public class McpConnectionPoolManager {
 
-    // Key: connectionId (McpConnection.id), Value: McpSyncClient 인스턴스
-    private final Map<Long, McpSyncClient> activeConnections = new ConcurrentHashMap<>();
+    // Key: connectionId (McpConnection.id), Value: 복제본 클라이언트 묶음 + 참조 수
+    private final Map<Long, PooledClient> activeConnections = new ConcurrentHashMap<>();
 
     /**
-     * 연결 풀에 클라이언트 추가
+     * 연결 풀에 클라이언트 추가 (참조 수 1)
      */
-    public void addConnection(Long connectionId, McpSyncClient client) {
-        activeConnections.put(connectionId, client);
+    public void addConnection(Long connectionId, McpReplicaSet replicas) {
+        activeConnections.put(connectionId, new PooledClient(replicas));
         log.info("연결 풀에 추가: connectionId={}, 현재 활성 연결 수={}",
                  connectionId, activeConnections.size());
     }
 
     /**
-     * 연결 풀에서 클라이언트 조회
+     * 이미 풀에 있는 클라이언트의 참조 수 증가
+     *
+     * @return 풀에 클라이언트가 있어 재사용한 경우 true
      */
-    public Optional<McpSyncClient> getConnection(Long connectionId) {
-        return Optional.ofNullable(activeConnections.get(connectionId));
+    public boolean acquire(Long connectionId) {
+        PooledClient pooled = activeConnections.computeIfPresent(connectionId, (id, existing) -> {
+            existing.references++;
+            return existing;
+        });
+        if (pooled != null) {
+            log.info("연결 재사용: connectionId={}, 참조 수={}", connectionId, pooled.references);
+        }
+        return pooled != null;
+    }
+
+    /**
+     * 참조 수 감소, 마지막 참조였다면 풀에서 제거
+     *
+     * @return 풀에서 제거되어 종료가 필요한 클라이언트
+     */
+    public Optional<McpReplicaSet> release(Long connectionId) {
+        PooledClient[] removed = new PooledClient[1];
+        activeConnections.computeIfPresent(connectionId, (id, existing) -> {
+            if (--existing.references > 0) {
+                return existing;
+            }
+            removed[0] = existing;
+            return null;
+        });
+        if (removed[0] != null) {
+            log.info("연결 풀에서 제거: connectionId={}, 현재 활성 연결 수={}",
+                     connectionId, activeConnections.size());
+            return Optional.of(removed[0].replicas);
+        }
+        return Optional.empty();
     }
 
     /**
-     * 연결 풀에서 클라이언트 제거
+     * 연결 풀에서 복제본 묶음 조회 (복제본 교체는 McpReplicaSet.setClient로 처리)
      */
-    public Optional<McpSyncClient> removeConnection(Long connectionId) {
-        McpSyncClient removed = activeConnections.remove(connectionId);
+    public Optional<McpReplicaSet> getReplicas(Long connectionId) {
+        PooledClient pooled = activeConnections.get(connectionId);
+        return Optional.ofNullable(pooled != null ? pooled.replicas : null);
+    }
+
+    /**
+     * 복제본이 있는 활성 연결 (connectionId → 복제본 묶음)
+     */
+    public Map<Long, McpReplicaSet> getReplicatedConnections() {
+        Map<Long, McpReplicaSet> result = new HashMap<>();
+        activeConnections.forEach((id, pooled) -> {
+            if (pooled.replicas.size() > 1) {
+                result.put(id, pooled.replicas);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 복제본 상태 확인 - 제외 기간이 지난 복제본을 ping으로 확인해 복귀시키거나 다시 생성
+     * 종료 시 removeAll 이후에는 확인할 묶음이 없고, 그 사이 재생성된 클라이언트는 재생성 쪽에서 정리한다.
+     */
+    @Scheduled(fixedDelayString = "${mcp.replicas.health-check-interval-ms:5000}")
+    public void checkReplicaHealth() {
+        // ping/재생성이 오래 걸릴 수 있으므로 스케줄러 스레드를 막지 않음
+        getReplicatedConnections().values().forEach(replicas ->
+                Mono.fromRunnable(replicas::checkHealth)
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .subscribe());
+    }
+
+    /**
+     * 연결 풀에서 클라이언트 제거 (참조 수와 무관하게 강제 제거)
+     */
+    public Optional<McpReplicaSet> removeConnection(Long connectionId) {
+        PooledClient removed = activeConnections.remove(connectionId);
         if (removed != null) {
             log.info("연결 풀에서 제거: connectionId={}, 현재 활성 연결 수={}",
                      connectionId, activeConnections.size());
         }
-        return Optional.ofNullable(removed);
+        return Optional.ofNullable(removed != null ? removed.replicas : null);
     }
 
     /**
@@ -54,6 +127,13 @@ public class McpConnectionPoolManager {
         return activeConnections.containsKey(connectionId);
     }
 
+    /**
+     * 풀에 있는 연결 ID 스냅샷
+     */
+    public Set<Long> getConnectionIds() {
+        return Set.copyOf(activeConnections.keySet());
+    }
+
     /**
      * 모든 활성 연결 개수
      */
@@ -62,19 +142,31 @@ public class McpConnectionPoolManager {
     }
 
     /**
-     * 모든 연결 종료 (서버 종료 시)
+     * 모든 클라이언트를 풀에서 제거 (서버 종료 시, 종료는 호출자가 처리)
+     *
+     * @return connectionId → 제거된 복제본 묶음
      */
-    public void disconnectAll() {
-        log.info("모든 연결 종료 시작: 총 {} 개", activeConnections.size());
-        activeConnections.forEach((id, client) -> {
-            try {
-                client.close();
-                log.info("연결 종료 완료: connectionId={}", id);
-            } catch (Exception e) {
-                log.error("연결 종료 실패: connectionId={}", id, e);
+    public Map<Long, McpReplicaSet> removeAll() {
+        Map<Long, McpReplicaSet> removed = new HashMap<>();
+        activeConnections.keySet().forEach(id -> {
+            PooledClient pooled = activeConnections.remove(id);
+            if (pooled != null) {
+                removed.put(id, pooled.replicas);
             }
         });
-        activeConnections.clear();
-        log.info("모든 연결 종료 완료");
+        log.info("연결 풀 비움: {} 개", removed.size());
+        return removed;
+    }
+
+    /**
+     * 풀에 보관된 클라이언트 (참조 수는 compute 블록 안에서만 변경)
+     */
+    private static class PooledClient {
+        final McpReplicaSet replicas;
+        int references = 1;
+
+        PooledClient(McpReplicaSet replicas) {
+            this.replicas = replicas;
+        }
     }
 }
@@ -0,0 +1,49 @@
+package com.example.mcplogging.mcp.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 활성 연결 메타데이터 레지스트리
+ * 연결 풀과 같은 생명주기로 유지되며, 도구 호출 경로에서 DB 읽기를 대신한다.
+ */
+@Slf4j
+@Component
+public class McpConnectionRegistry {
+
+    // Key: connectionId, Value: 연결 메타데이터
+    private final Map<Long, McpConnectionDescriptor> descriptors = new ConcurrentHashMap<>();
+
+    /**
+     * 연결 메타데이터 등록
+     */
+    public void register(McpConnectionDescriptor descriptor) {
+        descriptors.put(descriptor.connectionId(), descriptor);
+        log.debug("연결 메타데이터 등록: {}", descriptor);
+    }
+
+    /**
+     * 연결 메타데이터 조회
+     */
+    public Optional<McpConnectionDescriptor> get(Long connectionId) {
+        return Optional.ofNullable(descriptors.get(connectionId));
+    }
+
+    /**
+     * 연결 메타데이터 제거
+     */
+    public void remove(Long connectionId) {
+        descriptors.remove(connectionId);
+    }
+
+    /**
+     * 등록된 연결 수
+     */
+    public int size() {
+        return descriptors.size();
+    }
+}
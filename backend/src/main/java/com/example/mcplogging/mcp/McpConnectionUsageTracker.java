@@ -0,0 +1,64 @@
+package com.example.mcplogging.mcp.service;
+
+import com.example.mcplogging.repository.McpConnectionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * McpConnection.lastUsedAt write-behind 버퍼
+ * 도구 호출마다 DB를 갱신하지 않고 메모리에 모았다가 주기적으로 연결당 한 번만 기록
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class McpConnectionUsageTracker {
+
+    private final McpConnectionRepository connectionRepository;
+
+    // Key: connectionId, Value: 마지막 사용 시각
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 연결 사용 기록 (메모리만 갱신)
+     */
+    public void touch(Long connectionId) {
+        pending.put(connectionId, LocalDateTime.now());
+    }
+
+    /**
+     * 버퍼에 모인 lastUsedAt을 DB에 반영
+     */
+    @Scheduled(fixedDelayString = "${mcp.connection.usage-flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        int flushed = 0;
+        for (Map.Entry<Long, LocalDateTime> entry : pending.entrySet()) {
+            // 그 사이 더 새로운 값이 들어왔다면 다음 주기에 반영
+            if (!pending.remove(entry.getKey(), entry.getValue())) {
+                continue;
+            }
+            try {
+                connectionRepository.touchLastUsedAt(entry.getKey(), entry.getValue());
+                flushed++;
+            } catch (Exception e) {
+                log.warn("lastUsedAt 반영 실패: connectionId={}", entry.getKey(), e);
+            }
+        }
+        log.debug("lastUsedAt 반영: {} 건", flushed);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
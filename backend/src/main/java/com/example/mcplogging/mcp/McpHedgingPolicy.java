@@ -0,0 +1,214 @@
+package com.example.mcplogging.mcp.service;
+
+import com.example.mcplogging.config.HedgingProperties;
+import com.example.mcplogging.service.McpToolCatalog;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * hedged 요청 정책 (대상 판단, 대기 시간, 예산, 통계)
+ *
+ * 대상: hedging이 켜져 있고, 읽기 전용 도구이며, 사용 가능한 복제본이 둘 이상인 호출.
+ * 읽기 전용 도구는 업스트림 도구 annotations의 readOnlyHint 또는 캐시 규칙의 cacheable로 판단한다.
+ * 대기 시간은 도구별 최근 지연 표본의 백분위이며, 예산은 대상 호출마다 budgetPercent만큼 쌓이는 토큰으로 제한한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class McpHedgingPolicy {
+
+    // 예산 토큰 단위 (hedge 1회 = 1000)
+    private static final long TOKEN = 1000;
+
+    private final HedgingProperties properties;
+    private final McpToolCatalog toolCatalog;
+    private final McpToolResultCache resultCache;
+
+    // Key: connector__tool, Value: 최근 지연 표본
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+
+    // Key: connectorName, Value: annotations로 읽기 전용 표시된 도구 (카탈로그 목록이 바뀌면 다시 계산)
+    private final Map<String, ReadOnlyTools> readOnlyTools = new ConcurrentHashMap<>();
+
+    private final AtomicLong budget = new AtomicLong();
+
+    private final LongAdder eligible = new LongAdder();
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder budgetDenied = new LongAdder();
+    private final LongAdder noReplica = new LongAdder();
+
+    /**
+     * 호출의 hedge 대기 시간
+     * 대상 호출이면 예산을 적립하고, 표본이 부족하면 hedge 없이 지연만 기록하도록 Long.MAX_VALUE를 반환한다.
+     *
+     * @return 대기 시간(ns), 대상이 아니면 -1
+     */
+    public long hedgeDelayNanos(String connectorName, String toolName, McpReplicaSet replicas) {
+        if (!properties.isEnabled() || connectorName == null || replicas.availableCount() < 2
+                || !isReadOnly(connectorName, toolName)) {
+            return -1;
+        }
+
+        eligible.increment();
+        long deposit = Math.round(TOKEN * properties.getBudgetPercent() / 100);
+        long cap = TOKEN * Math.max(1, properties.getMaxBurst());
+        budget.accumulateAndGet(deposit, (current, added) -> Math.min(cap, current + added));
+
+        LatencyWindow window = latencies.get(key(connectorName, toolName));
+        long percentile = window != null ? window.percentile(properties) : -1;
+        return percentile < 0 ? Long.MAX_VALUE : Math.max(percentile, properties.getMinDelay().toNanos());
+    }
+
+    /**
+     * hedge 예산 사용 (부족하면 false)
+     */
+    public boolean tryHedge() {
+        long current;
+        do {
+            current = budget.get();
+            if (current < TOKEN) {
+                budgetDenied.increment();
+                return false;
+            }
+        } while (!budget.compareAndSet(current, current - TOKEN));
+        hedged.increment();
+        return true;
+    }
+
+    /**
+     * hedge를 보낼 다른 복제본이 없었음
+     */
+    public void recordNoReplica() {
+        noReplica.increment();
+    }
+
+    /**
+     * hedged 요청이 먼저 응답함
+     */
+    public void recordHedgeWin() {
+        hedgeWins.increment();
+    }
+
+    /**
+     * 호출 지연 기록
+     * hedge에 져서 취소된 첫 시도는 취소 시점까지의 경과 시간을 하한값으로 기록한다 (느린 호출이 표본에서 빠지지 않도록).
+     * 진 hedge는 기준 지연 뒤에 시작했으므로 기록하지 않는다.
+     */
+    public void recordLatency(String connectorName, String toolName, long nanos) {
+        latencies.computeIfAbsent(key(connectorName, toolName), key -> new LatencyWindow(properties.getSampleSize()))
+                .record(nanos);
+    }
+
+    /**
+     * hedging 통계 (대상/hedge/hedge 승리/예산 부족/복제본 부족 횟수, 도구별 대기 기준 지연)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> tools = new TreeMap<>();
+        latencies.forEach((key, window) -> {
+            long percentile = window.percentile(properties);
+            tools.put(key, Map.of(
+                    "samples", window.size(),
+                    "delayMs", percentile < 0 ? -1 : Math.max(percentile, properties.getMinDelay().toNanos()) / 1_000_000.0));
+        });
+
+        long eligibleCount = eligible.sum();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", properties.isEnabled());
+        result.put("percentile", properties.getPercentile());
+        result.put("eligible", eligibleCount);
+        result.put("hedged", hedged.sum());
+        result.put("hedgeWins", hedgeWins.sum());
+        result.put("budgetDenied", budgetDenied.sum());
+        result.put("noReplica", noReplica.sum());
+        result.put("hedgeRatePercent", eligibleCount > 0 ? hedged.sum() * 100.0 / eligibleCount : 0.0);
+        result.put("budget", budget.get() / (double) TOKEN);
+        result.put("tools", tools);
+        return result;
+    }
+
+    // ===== Private Helper Methods =====
+
+    private boolean isReadOnly(String connectorName, String toolName) {
+        if (resultCache.isReadOnly(connectorName, toolName)) {
+            return true;
+        }
+        List<McpSchema.Tool> tools = toolCatalog.getTools(connectorName);
+        if (tools == null) {
+            return false;
+        }
+        ReadOnlyTools cached = readOnlyTools.get(connectorName);
+        if (cached == null || cached.source != tools) {
+            cached = new ReadOnlyTools(tools, tools.stream()
+                    .filter(tool -> tool.annotations() != null && Boolean.TRUE.equals(tool.annotations().readOnlyHint()))
+                    .map(McpSchema.Tool::name)
+                    .collect(Collectors.toUnmodifiableSet()));
+            readOnlyTools.put(connectorName, cached);
+        }
+        return cached.names.contains(toolName);
+    }
+
+    private static String key(String connectorName, String toolName) {
+        return connectorName + "__" + toolName;
+    }
+
+    private record ReadOnlyTools(List<McpSchema.Tool> source, Set<String> names) {
+    }
+
+    /**
+     * 최근 지연 표본 (링 버퍼), 백분위는 표본이 일정 수 늘어날 때마다 다시 계산
+     */
+    private static final class LatencyWindow {
+        private final long[] samples;
+        private int count;
+        private int next;
+        private int sinceComputed;
+        private long percentile = -1;
+        private double computedFor = -1;
+
+        LatencyWindow(int size) {
+            this.samples = new long[Math.max(1, size)];
+        }
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            sinceComputed++;
+        }
+
+        synchronized int size() {
+            return count;
+        }
+
+        synchronized long percentile(HedgingProperties properties) {
+            if (count < Math.max(1, properties.getMinSamples())) {
+                return -1;
+            }
+            // 표본의 1/10 이상 새로 쌓였거나 설정이 바뀐 경우에만 정렬
+            if (percentile < 0 || computedFor != properties.getPercentile()
+                    || sinceComputed >= Math.max(1, samples.length / 10)) {
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                int index = (int) Math.ceil(properties.getPercentile() / 100 * count) - 1;
+                percentile = sorted[Math.min(count - 1, Math.max(0, index))];
+                computedFor = properties.getPercentile();
+                sinceComputed = 0;
+            }
+            return percentile;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.mcplogging.mcp.service;
+
+import com.example.mcplogging.config.HttpClientProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 원격 커넥터용 공유 HttpClient 제공
+ *
+ * 연결마다 HttpClient를 만들면 스레드 풀, 연결, TLS 세션이 모두 따로 생기므로
+ * 원격 호스트(scheme://host:port)당 하나의 클라이언트를 만들어 모든 트랜스포트가 공유한다.
+ * mcp.http.version=HTTP_2이면 https 호스트는 ALPN으로 HTTP/2를 협상해 하나의 연결에서 여러 스트림을 다중화한다.
+ * http 호스트는 h2c 업그레이드를 시도하지 않도록 항상 HTTP/1.1을 사용한다.
+ *
+ * 공유 클라이언트는 트랜스포트가 빌더에 지정한 설정을 적용할 수 없으므로, 공유 설정과 다른 값이 지정되면 경고를 남긴다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class McpHttpClientProvider {
+
+    private final HttpClientProperties properties;
+
+    // Key: scheme://host:port, Value: 공유 클라이언트
+    private final Map<String, MeteredHttpClient> clients = new ConcurrentHashMap<>();
+
+    // 이미 경고한 (호스트, 설정) - 트랜스포트마다 같은 경고를 반복하지 않음
+    private final Set<String> warnedSettings = ConcurrentHashMap.newKeySet();
+
+    // FIXED 실행기 (모든 호스트 공유)
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        // JDK HttpClient 연결 풀 설정은 JVM 전역 시스템 속성으로만 지정 가능
+        // 설정한 경우에만 반영하며 (-D로 이미 지정된 값은 유지), MCP 외 다른 HttpClient에도 적용된다
+        if (properties.getKeepAlive() != null) {
+            setIfAbsent("jdk.httpclient.keepalive.timeout", String.valueOf(properties.getKeepAlive().toSeconds()));
+        }
+        if (properties.getConnectionPoolSize() != null) {
+            setIfAbsent("jdk.httpclient.connectionPoolSize", String.valueOf(properties.getConnectionPoolSize()));
+        }
+
+        if (properties.getExecutor() == HttpClientProperties.ExecutorType.FIXED) {
+            AtomicInteger sequence = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(properties.getExecutorThreads(), runnable -> {
+                Thread thread = new Thread(runnable, "mcp-http-" + sequence.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 트랜스포트 빌더에 전달할 HttpClient.Builder
+     * build() 호출 시 호스트별 공유 클라이언트를 반환하며, 트랜스포트가 지정하는 설정은 무시된다.
+     */
+    public HttpClient.Builder clientBuilder(String serverUrl) {
+        String hostKey = hostKey(serverUrl);
+        return new SharedClientBuilder(hostKey, clientFor(hostKey), this::warnIgnored);
+    }
+
+    /**
+     * 호스트별 요청/스트림 통계
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> hosts = new TreeMap<>();
+        clients.forEach((host, client) -> hosts.put(host, client.getStats()));
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("version", properties.getVersion());
+        stats.put("executor", properties.getExecutor());
+        stats.put("hosts", hosts);
+        return stats;
+    }
+
+    // ===== Private Helper Methods =====
+
+    private MeteredHttpClient clientFor(String hostKey) {
+        return clients.computeIfAbsent(hostKey, key -> {
+            // 평문 http에서 HTTP_2는 h2c 업그레이드 요청이 되므로 https 호스트에만 적용
+            HttpClient.Version version = key.startsWith("https://") ? properties.getVersion() : HttpClient.Version.HTTP_1_1;
+            HttpClient.Builder builder = HttpClient.newBuilder()
+                    .version(version)
+                    .connectTimeout(properties.getConnectTimeout());
+            if (executor != null) {
+                builder.executor(executor);
+            }
+            log.info("공유 HttpClient 생성: host={}, version={}", key, version);
+            return new MeteredHttpClient(builder.build());
+        });
+    }
+
+    private void warnIgnored(String hostKey, String setting, Object requested, Object shared) {
+        if (warnedSettings.add(hostKey + " " + setting)) {
+            log.warn("공유 HttpClient는 트랜스포트가 지정한 설정을 적용하지 않음: host={}, setting={}, requested={}, shared={}",
+                    hostKey, setting, requested, shared);
+        }
+    }
+
+    private String hostKey(String serverUrl) {
+        URI uri = URI.create(serverUrl);
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            throw new IllegalArgumentException("Invalid server URL: " + serverUrl);
+        }
+        int port = uri.getPort() != -1 ? uri.getPort() : ("https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80);
+        return uri.getScheme().toLowerCase() + "://" + uri.getHost().toLowerCase() + ":" + port;
+    }
+
+    private void setIfAbsent(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+
+    /**
+     * 무시된 빌더 설정 경고 (호스트, 설정 이름, 요청 값, 공유 클라이언트 값)
+     */
+    @FunctionalInterface
+    private interface IgnoredSettingListener {
+        void ignored(String hostKey, String setting, Object requested, Object shared);
+    }
+
+    /**
+     * 공유 클라이언트를 반환하는 HttpClient.Builder
+     * 지정된 설정은 기록만 하고, build() 시 공유 클라이언트와 다른 값이 있으면 알린다.
+     */
+    private static class SharedClientBuilder implements HttpClient.Builder {
+        private final String hostKey;
+        private final MeteredHttpClient client;
+        private final IgnoredSettingListener listener;
+        private final Map<String, Object> requested = new LinkedHashMap<>();
+
+        SharedClientBuilder(String hostKey, MeteredHttpClient client, IgnoredSettingListener listener) {
+            this.hostKey = hostKey;
+            this.client = client;
+            this.listener = listener;
+        }
+
+        @Override
+        public HttpClient.Builder cookieHandler(CookieHandler cookieHandler) {
+            return request("cookieHandler", cookieHandler);
+        }
+
+        @Override
+        public HttpClient.Builder connectTimeout(Duration duration) {
+            return request("connectTimeout", duration);
+        }
+
+        @Override
+        public HttpClient.Builder sslContext(SSLContext sslContext) {
+            return request("sslContext", sslContext);
+        }
+
+        @Override
+        public HttpClient.Builder sslParameters(SSLParameters sslParameters) {
+            return request("sslParameters", sslParameters);
+        }
+
+        @Override
+        public HttpClient.Builder executor(Executor executor) {
+            return request("executor", executor);
+        }
+
+        @Override
+        public HttpClient.Builder followRedirects(HttpClient.Redirect policy) {
+            return request("followRedirects", policy);
+        }
+
+        @Override
+        public HttpClient.Builder version(HttpClient.Version version) {
+            return request("version", version);
+        }
+
+        @Override
+        public HttpClient.Builder priority(int priority) {
+            return request("priority", priority);
+        }
+
+        @Override
+        public HttpClient.Builder proxy(ProxySelector proxySelector) {
+            return request("proxy", proxySelector);
+        }
+
+        @Override
+        public HttpClient.Builder authenticator(Authenticator authenticator) {
+            return request("authenticator", authenticator);
+        }
+
+        @Override
+        public HttpClient build() {
+            requested.forEach((setting, value) -> {
+                Object shared = sharedValue(setting);
+                if (!Objects.equals(value, shared)) {
+                    listener.ignored(hostKey, setting, value, shared);
+                }
+            });
+            client.attachTransport();
+            return client;
+        }
+
+        private HttpClient.Builder request(String setting, Object value) {
+            requested.put(setting, value);
+            return this;
+        }
+
+        /**
+         * 공유 클라이언트의 현재 값 (비교할 수 없는 설정은 null - 지정되면 항상 경고)
+         */
+        private Object sharedValue(String setting) {
+            return switch (setting) {
+                case "version" -> client.version();
+                case "connectTimeout" -> client.connectTimeout().orElse(null);
+                case "followRedirects" -> client.followRedirects();
+                case "sslContext" -> client.sslContext();
+                case "cookieHandler" -> client.cookieHandler().orElse(null);
+                case "proxy" -> client.proxy().orElse(null);
+                case "authenticator" -> client.authenticator().orElse(null);
+                default -> null;
+            };
+        }
+    }
+}
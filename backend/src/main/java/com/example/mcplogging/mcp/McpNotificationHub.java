@@ -0,0 +1,158 @@
+package com.example.mcplogging.mcp.service;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * 업스트림 MCP 서버 알림 분배
+ *
+ * 업스트림 클라이언트는 여러 세션이 공유하므로 progress 알림은 프록시가 발급한 토큰으로 요청을 찾아 전달하고,
+ * tools/list_changed, 로그 알림은 등록된 모든 리스너에 전달한다. (로그는 연결 ID로 대상 세션을 찾음)
+ */
+@Slf4j
+@Component
+public class McpNotificationHub {
+
+    private static final String PROGRESS_TOKEN_PREFIX = "mcp-logging-";
+
+    private final AtomicLong progressSequence = new AtomicLong();
+
+    // Key: 프록시 발급 progressToken, Value: 알림을 받을 요청
+    private final Map<String, Consumer<McpSchema.ProgressNotification>> progressRoutes = new ConcurrentHashMap<>();
+
+    // (connectorName, 변경된 도구 목록)
+    private final List<BiConsumer<String, List<McpSchema.Tool>>> toolsChangedListeners = new CopyOnWriteArrayList<>();
+
+    // (connectionId, 로그 알림)
+    private final List<BiConsumer<Long, McpSchema.LoggingMessageNotification>> loggingListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * progress 알림 수신 등록
+     *
+     * @return 업스트림 요청에 넣을 프록시 progressToken (요청이 끝나면 unregisterProgress 필요)
+     */
+    public String registerProgress(Consumer<McpSchema.ProgressNotification> route) {
+        String token = PROGRESS_TOKEN_PREFIX + progressSequence.incrementAndGet();
+        progressRoutes.put(token, route);
+        return token;
+    }
+
+    public void unregisterProgress(String token) {
+        progressRoutes.remove(token);
+    }
+
+    /**
+     * tools/list_changed 리스너 등록
+     */
+    public void addToolsChangedListener(BiConsumer<String, List<McpSchema.Tool>> listener) {
+        toolsChangedListeners.add(listener);
+    }
+
+    /**
+     * 로그 알림(notifications/message) 리스너 등록
+     */
+    public void addLoggingListener(BiConsumer<Long, McpSchema.LoggingMessageNotification> listener) {
+        loggingListeners.add(listener);
+    }
+
+    /**
+     * 업스트림 progress 알림 (McpSyncClient progressConsumer)
+     */
+    public void onProgress(McpSchema.ProgressNotification notification) {
+        Consumer<McpSchema.ProgressNotification> route = progressRoutes.get(String.valueOf(notification.progressToken()));
+        if (route == null) {
+            log.debug("대상 없는 progress 알림: token={}", notification.progressToken());
+            return;
+        }
+        try {
+            route.accept(notification);
+        } catch (Exception e) {
+            log.warn("progress 알림 전달 실패: token={}", notification.progressToken(), e);
+        }
+    }
+
+    /**
+     * 업스트림 tools/list_changed 알림 (McpSyncClient toolsChangeConsumer)
+     */
+    public void onToolsChanged(String connectorName, List<McpSchema.Tool> tools) {
+        log.info("업스트림 도구 목록 변경: connector={}, tools={}", connectorName, tools.size());
+        toolsChangedListeners.forEach(listener -> {
+            try {
+                listener.accept(connectorName, tools);
+            } catch (Exception e) {
+                log.warn("tools/list_changed 알림 전달 실패: connector={}", connectorName, e);
+            }
+        });
+    }
+
+    /**
+     * 업스트림 로그 알림 (McpSyncClient loggingConsumer)
+     * 여러 커넥터의 로그가 한 스트림에 섞이므로 logger 앞에 커넥터 이름을 붙인다.
+     */
+    public void onLogging(Long connectionId, String connectorName, McpSchema.LoggingMessageNotification notification) {
+        String logger = notification.logger() != null ? connectorName + "/" + notification.logger() : connectorName;
+        McpSchema.LoggingMessageNotification relayed =
+                new McpSchema.LoggingMessageNotification(notification.level(), logger, notification.data());
+        loggingListeners.forEach(listener -> {
+            try {
+                listener.accept(connectionId, relayed);
+            } catch (Exception e) {
+                log.warn("로그 알림 전달 실패: connectionId={}", connectionId, e);
+            }
+        });
+    }
+
+    /**
+     * 클라이언트로 보낼 notifications/progress 메시지 (클라이언트의 원래 progressToken 사용)
+     */
+    public Map<String, Object> progressMessage(Object clientToken, McpSchema.ProgressNotification progress) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("progressToken", clientToken);
+        params.put("progress", progress.progress());
+        if (progress.total() != null) {
+            params.put("total", progress.total());
+        }
+        if (progress.message() != null) {
+            params.put("message", progress.message());
+        }
+        return Map.of(
+                "jsonrpc", "2.0",
+                "method", "notifications/progress",
+                "params", params
+        );
+    }
+
+    /**
+     * 클라이언트로 보낼 notifications/message 메시지
+     */
+    public Map<String, Object> loggingMessage(McpSchema.LoggingMessageNotification notification) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("level", notification.level().name().toLowerCase());
+        if (notification.logger() != null) {
+            params.put("logger", notification.logger());
+        }
+        params.put("data", notification.data());
+        return Map.of(
+                "jsonrpc", "2.0",
+                "method", "notifications/message",
+                "params", params
+        );
+    }
+
+    /**
+     * 클라이언트가 logging/setLevel로 지정한 최소 수준 이상인지 확인 (지정하지 않았으면 모두 전달)
+     */
+    public static boolean isLoggable(McpSchema.LoggingLevel minimum, McpSchema.LoggingLevel level) {
+        return minimum == null || level == null || level.level() >= minimum.level();
+    }
+}
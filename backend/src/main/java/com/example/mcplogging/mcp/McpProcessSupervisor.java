@@ -0,0 +1,434 @@
+package com.example.mcplogging.mcp.service;
+
+import com.example.mcplogging.config.SupervisorProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * STDIO 커넥터 프로세스 감시자
+ *
+ * - 연결(복제본)별 자식 프로세스 PID 추적 (실행 시 환경 변수로 표식을 남겨 식별)
+ * - 리소스 제한: Linux에서는 ulimit(CPU 시간, 열린 파일 수)으로 실행하고, 메모리는 RSS를 주기적으로 측정하여 초과 시 종료
+ * - 비정상 종료 시 백오프를 두고 재시작
+ * - 시작 시 이전 실행에서 남은 고아 프로세스 정리
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class McpProcessSupervisor {
+
+    public static final String LAUNCH_ID_ENV = "MCP_LOGGING_LAUNCH_ID";
+
+    private final SupervisorProperties properties;
+    private final ObjectMapper objectMapper;
+
+    // Key: (connectionId, 복제본 번호), Value: 추적 중인 프로세스
+    private final Map<ProcessKey, TrackedProcess> processes = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mcp-process-supervisor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 이전 실행에서 남은 고아 프로세스 정리
+     */
+    @PostConstruct
+    public void reapOrphans() {
+        Path pidFile = Paths.get(properties.getPidFile());
+        if (!Files.exists(pidFile)) {
+            return;
+        }
+
+        try {
+            List<PidRecord> records = objectMapper.readValue(pidFile.toFile(), new TypeReference<List<PidRecord>>() {});
+            for (PidRecord record : records) {
+                ProcessHandle.of(record.pid())
+                        .filter(ProcessHandle::isAlive)
+                        .filter(handle -> startedAtMillis(handle) == record.startedAt())
+                        .ifPresent(handle -> {
+                            log.warn("고아 프로세스 정리: pid={}, connector={}", record.pid(), record.connector());
+                            destroyTree(handle, true);
+                        });
+            }
+            Files.delete(pidFile);
+        } catch (IOException e) {
+            log.warn("PID 파일 읽기 실패: {}", pidFile, e);
+        }
+    }
+
+    /**
+     * 실행 표식 생성 (StdioClientTransport 환경 변수로 전달)
+     */
+    public String newLaunchId() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * 리소스 제한을 적용한 실행 명령 (Linux 외에는 그대로 반환)
+     */
+    public List<String> applyLimits(String connectorName, List<String> command) {
+        SupervisorProperties.Limits limits = properties.limitsFor(connectorName);
+        if (!isLinux() || limits == null || (limits.getCpuSeconds() == null && limits.getOpenFiles() == null)) {
+            return command;
+        }
+
+        StringBuilder script = new StringBuilder();
+        if (limits.getCpuSeconds() != null) {
+            script.append("ulimit -t ").append(limits.getCpuSeconds()).append("; ");
+        }
+        if (limits.getOpenFiles() != null) {
+            script.append("ulimit -n ").append(limits.getOpenFiles()).append("; ");
+        }
+        // exec로 셸을 대체하므로 PID는 원래 프로세스와 같다
+        script.append("exec \"$0\" \"$@\"");
+
+        List<String> wrapped = new ArrayList<>(List.of("sh", "-c", script.toString()));
+        wrapped.addAll(command);
+        return wrapped;
+    }
+
+    /**
+     * 연결(복제본)의 자식 프로세스 추적 시작
+     *
+     * @param replica 복제본 번호 (복제본이 없는 커넥터는 0)
+     * @param restart 비정상 종료 시 호출할 재시작 작업
+     * @return 추적을 시작한 프로세스 (찾지 못하면 empty)
+     */
+    public Optional<ProcessHandle> track(Long connectionId, int replica, String connectorName, String launchId,
+                                         Instant launchedAt, Runnable restart) {
+        Optional<ProcessHandle> found = findChild(launchId, launchedAt);
+        if (found.isEmpty()) {
+            log.warn("STDIO 프로세스를 찾지 못함: connectionId={}, replica={}, connector={}", connectionId, replica, connectorName);
+            return found;
+        }
+
+        ProcessHandle handle = found.get();
+        ProcessKey key = new ProcessKey(connectionId, replica);
+        TrackedProcess previous = processes.get(key);
+        TrackedProcess tracked = new TrackedProcess(key, connectorName, handle, restart,
+                previous != null ? previous.restarts : 0);
+        processes.put(key, tracked);
+        handle.onExit().thenRun(() -> onExit(tracked));
+        persistPids();
+
+        log.info("STDIO 프로세스 추적: connectionId={}, replica={}, connector={}, pid={}",
+                connectionId, replica, connectorName, handle.pid());
+        return found;
+    }
+
+    /**
+     * 연결의 모든 복제본 프로세스 추적 중단 후 종료 작업 실행, 유예 시간 뒤에도 살아 있으면 강제 종료
+     */
+    public void stop(Long connectionId, Runnable closeAction) {
+        List<TrackedProcess> stopped = new ArrayList<>();
+        processes.entrySet().removeIf(entry -> {
+            if (!entry.getKey().connectionId().equals(connectionId)) {
+                return false;
+            }
+            stopped.add(entry.getValue());
+            return true;
+        });
+        try {
+            closeAction.run();
+        } finally {
+            if (!stopped.isEmpty()) {
+                persistPids();
+                stopped.forEach(tracked -> scheduleTermination(tracked.handle));
+            }
+        }
+    }
+
+    /**
+     * 추적 중인 모든 프로세스 종료 (서버 종료 시)
+     */
+    @PreDestroy
+    public void terminateAll() {
+        if (!processes.isEmpty()) {
+            log.info("STDIO 프로세스 전체 종료: {} 개", processes.size());
+        }
+        processes.values().forEach(tracked -> destroyTree(tracked.handle, false));
+        long deadline = System.nanoTime() + properties.getTerminateGrace().toNanos();
+        processes.values().forEach(tracked -> {
+            long remaining = deadline - System.nanoTime();
+            try {
+                tracked.handle.onExit().get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+            } catch (Exception e) {
+                destroyTree(tracked.handle, true);
+            }
+        });
+        processes.clear();
+        persistPids();
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 메모리 사용량 측정 및 상한 초과 프로세스 종료
+     */
+    @Scheduled(fixedDelayString = "${mcp.supervisor.monitor-interval-ms:10000}")
+    public void monitor() {
+        processes.values().forEach(tracked -> {
+            SupervisorProperties.Limits limits = properties.limitsFor(tracked.connectorName);
+            if (limits == null || limits.getMemoryMb() == null) {
+                return;
+            }
+            long rssBytes = treeRssBytes(tracked.handle);
+            if (rssBytes > limits.getMemoryMb() * 1024L * 1024L) {
+                log.warn("STDIO 프로세스 메모리 상한 초과, 종료: connectionId={}, replica={}, connector={}, rss={}MB, limit={}MB",
+                        tracked.key.connectionId(), tracked.key.replica(), tracked.connectorName, rssBytes / (1024 * 1024), limits.getMemoryMb());
+                destroyTree(tracked.handle, true);
+            }
+        });
+    }
+
+    /**
+     * 프로세스별 리소스 사용량
+     */
+    public List<Map<String, Object>> getProcessStats() {
+        return processes.values().stream()
+                .sorted(Comparator.comparing((TrackedProcess tracked) -> tracked.key.connectionId())
+                        .thenComparingInt(tracked -> tracked.key.replica()))
+                .map(tracked -> {
+                    ProcessHandle.Info info = tracked.handle.info();
+                    Map<String, Object> stats = new LinkedHashMap<>();
+                    stats.put("connectionId", tracked.key.connectionId());
+                    stats.put("replica", tracked.key.replica());
+                    stats.put("connector", tracked.connectorName);
+                    stats.put("pid", tracked.handle.pid());
+                    stats.put("alive", tracked.handle.isAlive());
+                    stats.put("uptimeSeconds", Duration.between(tracked.trackedAt, Instant.now()).toSeconds());
+                    stats.put("restarts", tracked.restarts);
+                    stats.put("rssBytes", treeRssBytes(tracked.handle));
+                    stats.put("cpuMillis", info.totalCpuDuration().map(Duration::toMillis).orElse(-1L));
+                    stats.put("openFiles", openFileCount(tracked.handle));
+                    stats.put("childProcesses", tracked.handle.descendants().count());
+                    return stats;
+                })
+                .toList();
+    }
+
+    // ===== Private Helper Methods =====
+
+    /**
+     * 추적 중인 프로세스 종료 처리 - 의도하지 않은 종료면 재시작 예약
+     */
+    private void onExit(TrackedProcess tracked) {
+        if (processes.get(tracked.key) != tracked) {
+            return;  // stop()으로 정상 종료된 경우
+        }
+
+        log.warn("STDIO 프로세스 비정상 종료: connectionId={}, replica={}, connector={}, pid={}",
+                tracked.key.connectionId(), tracked.key.replica(), tracked.connectorName, tracked.handle.pid());
+
+        if (!properties.isRestartOnCrash()) {
+            processes.remove(tracked.key, tracked);
+            persistPids();
+            return;
+        }
+
+        // 충분히 오래 살아 있었다면 재시작 횟수 초기화
+        if (Duration.between(tracked.trackedAt, Instant.now()).compareTo(properties.getStableAfter()) > 0) {
+            tracked.restarts = 0;
+        }
+        if (tracked.restarts >= properties.getMaxRestarts()) {
+            log.error("STDIO 프로세스 재시작 한도 초과: connectionId={}, replica={}, connector={}, restarts={}",
+                    tracked.key.connectionId(), tracked.key.replica(), tracked.connectorName, tracked.restarts);
+            processes.remove(tracked.key, tracked);
+            persistPids();
+            return;
+        }
+
+        long backoffMillis = Math.min(
+                properties.getInitialBackoff().toMillis() << Math.min(tracked.restarts, 20),
+                properties.getMaxBackoff().toMillis());
+        tracked.restarts++;
+
+        log.info("STDIO 프로세스 재시작 예약: connectionId={}, replica={}, attempt={}, backoff={}ms",
+                tracked.key.connectionId(), tracked.key.replica(), tracked.restarts, backoffMillis);
+        scheduler.schedule(() -> {
+            if (processes.get(tracked.key) != tracked) {
+                return;  // 그 사이 연결 해제됨
+            }
+            try {
+                tracked.restart.run();
+            } catch (Exception e) {
+                log.error("STDIO 프로세스 재시작 실패: connectionId={}, replica={}", tracked.key.connectionId(), tracked.key.replica(), e);
+                onExit(tracked);
+            }
+        }, backoffMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 실행 표식으로 자식 프로세스 찾기
+     * Linux는 /proc/{pid}/environ으로 정확히 식별하고, 그 외에는 실행 시각 이후에 시작된 미추적 자식 중 가장 이른 것을 선택
+     */
+    private Optional<ProcessHandle> findChild(String launchId, Instant launchedAt) {
+        List<ProcessHandle> children = ProcessHandle.current().children().toList();
+
+        if (isLinux()) {
+            String marker = LAUNCH_ID_ENV + "=" + launchId;
+            return children.stream()
+                    .filter(child -> readEnviron(child.pid()).contains(marker))
+                    .findFirst();
+        }
+
+        Instant threshold = launchedAt.minusSeconds(1);
+        return children.stream()
+                .filter(child -> processes.values().stream().noneMatch(tracked -> tracked.handle.pid() == child.pid()))
+                .filter(child -> child.info().startInstant().map(start -> !start.isBefore(threshold)).orElse(false))
+                .min(Comparator.comparing(child -> child.info().startInstant().orElse(Instant.MAX)));
+    }
+
+    private void scheduleTermination(ProcessHandle handle) {
+        scheduler.schedule(() -> {
+            if (handle.isAlive()) {
+                log.warn("STDIO 프로세스가 종료되지 않아 강제 종료: pid={}", handle.pid());
+                destroyTree(handle, true);
+            }
+        }, properties.getTerminateGrace().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void destroyTree(ProcessHandle handle, boolean forcibly) {
+        handle.descendants().forEach(child -> {
+            if (forcibly) {
+                child.destroyForcibly();
+            } else {
+                child.destroy();
+            }
+        });
+        if (forcibly) {
+            handle.destroyForcibly();
+        } else {
+            handle.destroy();
+        }
+    }
+
+    /**
+     * 프로세스와 모든 하위 프로세스의 RSS 합계 (Linux 외에는 -1)
+     */
+    private long treeRssBytes(ProcessHandle handle) {
+        if (!isLinux()) {
+            return -1;
+        }
+        return Stream.concat(Stream.of(handle), handle.descendants())
+                .mapToLong(process -> rssBytes(process.pid()))
+                .sum();
+    }
+
+    private long rssBytes(long pid) {
+        try (Stream<String> lines = Files.lines(Paths.get("/proc", String.valueOf(pid), "status"))) {
+            return lines.filter(line -> line.startsWith("VmRSS:"))
+                    .findFirst()
+                    .map(line -> Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024L)
+                    .orElse(0L);
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private long openFileCount(ProcessHandle handle) {
+        if (!isLinux()) {
+            return -1;
+        }
+        try (Stream<Path> fds = Files.list(Paths.get("/proc", String.valueOf(handle.pid()), "fd"))) {
+            return fds.count();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private String readEnviron(long pid) {
+        try {
+            return new String(Files.readAllBytes(Paths.get("/proc", String.valueOf(pid), "environ")), StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            return "";
+        }
+    }
+
+    private long startedAtMillis(ProcessHandle handle) {
+        return handle.info().startInstant().map(Instant::toEpochMilli).orElse(-1L);
+    }
+
+    /**
+     * 추적 중인 PID를 파일에 기록
+     */
+    private synchronized void persistPids() {
+        List<PidRecord> records = processes.values().stream()
+                .map(tracked -> new PidRecord(tracked.handle.pid(), startedAtMillis(tracked.handle), tracked.connectorName))
+                .toList();
+        Path pidFile = Paths.get(properties.getPidFile());
+        try {
+            if (records.isEmpty()) {
+                Files.deleteIfExists(pidFile);
+                return;
+            }
+            Files.createDirectories(pidFile.toAbsolutePath().getParent());
+            objectMapper.writeValue(pidFile.toFile(), records);
+        } catch (IOException e) {
+            log.warn("PID 파일 기록 실패: {}", pidFile, e);
+        }
+    }
+
+    private boolean isLinux() {
+        return System.getProperty("os.name").toLowerCase().contains("linux");
+    }
+
+    /**
+     * PID 파일 항목
+     */
+    private record PidRecord(long pid, long startedAt, String connector) {
+    }
+
+    /**
+     * 추적 키 (연결, 복제본 번호)
+     */
+    private record ProcessKey(Long connectionId, int replica) {
+    }
+
+    /**
+     * 추적 중인 프로세스
+     */
+    private static class TrackedProcess {
+        final ProcessKey key;
+        final String connectorName;
+        final ProcessHandle handle;
+        final Runnable restart;
+        final Instant trackedAt = Instant.now();
+        volatile int restarts;
+
+        TrackedProcess(ProcessKey key, String connectorName, ProcessHandle handle, Runnable restart, int restarts) {
+            this.key = key;
+            this.connectorName = connectorName;
+            this.handle = handle;
+            this.restart = restart;
+            this.restarts = restarts;
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package com.example.mcplogging.mcp.service;
+
+import com.example.mcplogging.config.ReplicaProperties;
+import io.modelcontextprotocol.client.McpSyncClient;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * 연결 하나에 속한 복제본 클라이언트 묶음
+ *
+ * 호출마다 라우팅 전략으로 복제본을 고르고, 진행 중인 호출 수와 연속 실패 수를 기록한다.
+ * 연속 실패가 기준에 도달한 복제본은 제외(eject)하며, 제외 기간이 지나면 상태 확인 후 복귀시킨다.
+ * 사용 가능한 복제본이 없으면 제외된 복제본이라도 클라이언트가 있는 것을 사용한다 (전부 거절하는 것보다 나음).
+ * 상태 확인은 ping으로 하고, 시작에 실패해 클라이언트가 없는 복제본은 factory로 다시 만든다.
+ */
+@Slf4j
+public class McpReplicaSet {
+
+    // 일관된 해싱 링에서 복제본당 가상 노드 수
+    private static final int VIRTUAL_NODES = 64;
+
+    private final String connectorName;
+    private final ReplicaProperties.Routing routing;
+    private final int ejectAfterFailures;
+    private final long ejectNanos;
+    private final Replica[] replicas;
+    private final IntFunction<McpSyncClient> factory;
+
+    // 일관된 해싱 링 (정렬된 해시와 해당 복제본 위치)
+    private final long[] ringHashes;
+    private final int[] ringOwners;
+
+    // LEAST_OUTSTANDING 동률일 때 시작 위치를 돌려 고르게 분산
+    private final AtomicInteger rotation = new AtomicInteger();
+
+    // close() 이후에는 새 클라이언트를 받지 않음
+    private boolean closed;
+
+    // 상태 확인 중복 실행 방지
+    private final AtomicBoolean checking = new AtomicBoolean();
+
+    /**
+     * @param factory 복제본 번호로 새 클라이언트 생성 (초기화 완료된 클라이언트 반환, 실패 시 예외)
+     */
+    public McpReplicaSet(String connectorName, ReplicaProperties.Routing routing, int ejectAfterFailures,
+                         long ejectNanos, List<String> targets, IntFunction<McpSyncClient> factory) {
+        this.connectorName = connectorName;
+        this.factory = factory;
+        this.routing = routing != null ? routing : ReplicaProperties.Routing.LEAST_OUTSTANDING;
+        this.ejectAfterFailures = Math.max(1, ejectAfterFailures);
+        this.ejectNanos = ejectNanos;
+        this.replicas = new Replica[targets.size()];
+        for (int i = 0; i < replicas.length; i++) {
+            replicas[i] = new Replica(i, targets.get(i));
+        }
+
+        long[][] ring = new long[replicas.length * VIRTUAL_NODES][];
+        for (int i = 0; i < replicas.length; i++) {
+            for (int v = 0; v < VIRTUAL_NODES; v++) {
+                ring[i * VIRTUAL_NODES + v] = new long[]{hash(i + "#" + v + "#" + targets.get(i)), i};
+            }
+        }
+        Arrays.sort(ring, (a, b) -> Long.compare(a[0], b[0]));
+        this.ringHashes = Arrays.stream(ring).mapToLong(node -> node[0]).toArray();
+        this.ringOwners = Arrays.stream(ring).mapToInt(node -> (int) node[1]).toArray();
+    }
+
+    /**
+     * 복제본 없는 단일 클라이언트
+     */
+    public static McpReplicaSet single(String connectorName, String target, McpSyncClient client) {
+        McpReplicaSet set = new McpReplicaSet(connectorName, null, 1, 0, List.of(target), index -> {
+            throw new IllegalStateException("단일 클라이언트는 다시 만들지 않음");
+        });
+        set.replicas[0].client = client;
+        return set;
+    }
+
+    /**
+     * 호출할 복제본 선택
+     *
+     * @param routingKey 일관된 해싱 키 (세션 ID 등, null 가능)
+     * @throws IllegalStateException 클라이언트가 있는 복제본이 없는 경우
+     */
+    public Replica choose(String routingKey) {
+        if (replicas.length == 1) {
+            return requireClient(replicas[0]);
+        }
+
+        Replica chosen = switch (routing) {
+            case CONSISTENT_HASH -> routingKey != null ? byHash(routingKey) : leastOutstanding();
+            case POWER_OF_TWO -> powerOfTwo();
+            case LEAST_OUTSTANDING -> leastOutstanding();
+        };
+        if (chosen != null) {
+            return chosen;
+        }
+
+        // 모두 제외된 상태 - 클라이언트가 있는 복제본 중 진행 중인 호출이 가장 적은 것
+        Replica fallback = null;
+        for (Replica replica : replicas) {
+            if (replica.client != null && (fallback == null || replica.outstanding.get() < fallback.outstanding.get())) {
+                fallback = replica;
+            }
+        }
+        return requireClient(fallback);
+    }
+
+    /**
+     * excluded를 제외하고 진행 중인 호출이 가장 적은 사용 가능한 복제본 (hedged 요청용, 없으면 null)
+     */
+    public Replica chooseOther(Replica excluded) {
+        Replica best = null;
+        for (Replica replica : replicas) {
+            if (replica != excluded && replica.available()
+                    && (best == null || replica.outstanding.get() < best.outstanding.get())) {
+                best = replica;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 라우팅 대상이 될 수 있는 (제외되지 않은) 복제본 수
+     */
+    public int availableCount() {
+        int count = 0;
+        for (Replica replica : replicas) {
+            if (replica.available()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 호출 시작 (진행 중인 호출 수 증가)
+     */
+    public void begin(Replica replica) {
+        replica.outstanding.incrementAndGet();
+        replica.calls.increment();
+    }
+
+    /**
+     * 호출 종료 - 업스트림 예외(전송 실패, 타임아웃 등)만 실패로 센다 (isError 결과는 정상 응답)
+     */
+    public void end(Replica replica, boolean success) {
+        replica.outstanding.decrementAndGet();
+        if (success) {
+            replica.consecutiveFailures.set(0);
+            return;
+        }
+        replica.failures.increment();
+        if (replicas.length > 1 && replica.consecutiveFailures.incrementAndGet() >= ejectAfterFailures && !replica.ejected) {
+            eject(replica, "연속 실패 " + replica.consecutiveFailures.get() + "회");
+        }
+    }
+
+    /**
+     * 제외 기간이 지난 복제본 상태 확인 (이미 확인 중이면 건너뜀)
+     * ping에 성공하면 복귀시키고, 클라이언트가 없으면 새로 만든다.
+     */
+    public void checkHealth() {
+        if (!checking.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            for (Replica replica : dueForHealthCheck()) {
+                healthChecked(replica, probe(replica));
+            }
+        } finally {
+            checking.set(false);
+        }
+    }
+
+    /**
+     * 취소된 호출 종료 (hedged 요청에서 진 쪽 - 성공/실패로 세지 않음)
+     */
+    public void cancelled(Replica replica) {
+        replica.outstanding.decrementAndGet();
+    }
+
+    /**
+     * 상태 확인이 필요한 복제본 (제외 기간이 지났거나 클라이언트가 없는 것)
+     */
+    private List<Replica> dueForHealthCheck() {
+        long now = System.nanoTime();
+        List<Replica> due = new ArrayList<>();
+        for (Replica replica : replicas) {
+            if ((replica.ejected || replica.client == null) && now - replica.ejectedAt >= ejectNanos) {
+                due.add(replica);
+            }
+        }
+        return due;
+    }
+
+    private boolean probe(Replica replica) {
+        try {
+            McpSyncClient client = replica.client;
+            if (client != null) {
+                client.ping();
+                return true;
+            }
+            McpSyncClient created = factory.apply(replica.index);
+            McpSyncClient stale = setClient(replica.index, created);
+            if (stale != null) {
+                stale.close();
+            }
+            return stale != created;
+        } catch (Exception e) {
+            log.debug("복제본 상태 확인 실패: connector={}, replica={}", connectorName, replica.index, e);
+            return false;
+        }
+    }
+
+    /**
+     * 상태 확인 결과 반영
+     */
+    private void healthChecked(Replica replica, boolean healthy) {
+        if (healthy) {
+            replica.ejected = false;
+            replica.consecutiveFailures.set(0);
+            log.info("복제본 복귀: connector={}, replica={}, target={}", connectorName, replica.index, replica.target);
+        } else {
+            replica.ejectedAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * 복제본 클라이언트 설정 (시작 실패 시 null, 재시작/복구 시 새 클라이언트)
+     *
+     * @return 종료가 필요한 클라이언트 - 교체된 이전 클라이언트, 이미 닫힌 묶음이면 전달한 클라이언트 (없으면 null)
+     */
+    public synchronized McpSyncClient setClient(int index, McpSyncClient client) {
+        if (closed) {
+            return client;
+        }
+        Replica replica = replicas[index];
+        McpSyncClient previous = replica.client;
+        replica.client = client;
+        if (client == null) {
+            eject(replica, "클라이언트 없음");
+        }
+        return previous;
+    }
+
+    /**
+     * 첫 번째 복제본 클라이언트 (단일 클라이언트 연결과의 호환용)
+     */
+    public McpSyncClient primaryClient() {
+        return replicas[0].client;
+    }
+
+    public int size() {
+        return replicas.length;
+    }
+
+    public Replica get(int index) {
+        return replicas[index];
+    }
+
+    /**
+     * 모든 복제본 클라이언트 종료
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        for (Replica replica : replicas) {
+            McpSyncClient client = replica.client;
+            replica.client = null;
+            if (client != null) {
+                try {
+                    client.close();
+                } catch (Exception e) {
+                    log.warn("복제본 클라이언트 종료 실패: connector={}, replica={}", connectorName, replica.index, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 복제본별 상태
+     */
+    public List<Map<String, Object>> getStats() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Replica replica : replicas) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("replica", replica.index);
+            stats.put("target", replica.target);
+            stats.put("connected", replica.client != null);
+            stats.put("ejected", replica.ejected);
+            stats.put("outstanding", replica.outstanding.get());
+            stats.put("calls", replica.calls.sum());
+            stats.put("failures", replica.failures.sum());
+            result.add(stats);
+        }
+        return result;
+    }
+
+    public String getConnectorName() {
+        return connectorName;
+    }
+
+    public ReplicaProperties.Routing getRouting() {
+        return routing;
+    }
+
+    // ===== Private Helper Methods =====
+
+    private Replica leastOutstanding() {
+        int start = Math.floorMod(rotation.getAndIncrement(), replicas.length);
+        Replica best = null;
+        for (int i = 0; i < replicas.length; i++) {
+            Replica replica = replicas[(start + i) % replicas.length];
+            if (replica.available() && (best == null || replica.outstanding.get() < best.outstanding.get())) {
+                best = replica;
+            }
+        }
+        return best;
+    }
+
+    private Replica powerOfTwo() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(replicas.length);
+        int second = (first + 1 + random.nextInt(replicas.length - 1)) % replicas.length;
+        Replica a = replicas[first];
+        Replica b = replicas[second];
+        if (a.available() && b.available()) {
+            return a.outstanding.get() <= b.outstanding.get() ? a : b;
+        }
+        if (a.available() || b.available()) {
+            return a.available() ? a : b;
+        }
+        return leastOutstanding();
+    }
+
+    private Replica byHash(String routingKey) {
+        int position = Arrays.binarySearch(ringHashes, hash(routingKey));
+        if (position < 0) {
+            position = -position - 1;
+        }
+        // 시계 방향으로 사용 가능한 복제본 탐색 (제외된 복제본의 키만 다른 복제본으로 이동)
+        for (int i = 0; i < ringHashes.length; i++) {
+            Replica replica = replicas[ringOwners[(position + i) % ringHashes.length]];
+            if (replica.available()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private void eject(Replica replica, String reason) {
+        replica.ejected = true;
+        replica.ejectedAt = System.nanoTime();
+        log.warn("복제본 제외: connector={}, replica={}, target={}, reason={}",
+                connectorName, replica.index, replica.target, reason);
+    }
+
+    private Replica requireClient(Replica replica) {
+        if (replica == null || replica.client == null) {
+            throw new IllegalStateException("사용 가능한 복제본이 없음: " + connectorName);
+        }
+        return replica;
+    }
+
+    /**
+     * 64비트 문자열 해시 (FNV-1a + MurmurHash3 fmix64)
+     */
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * 복제본 (클라이언트와 라우팅/상태 정보)
+     */
+    public static final class Replica {
+        private final int index;
+        private final String target;
+        private volatile McpSyncClient client;
+        private volatile boolean ejected;
+        private volatile long ejectedAt;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        private Replica(int index, String target) {
+            this.index = index;
+            this.target = target;
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public String target() {
+            return target;
+        }
+
+        public McpSyncClient client() {
+            return client;
+        }
+
+        private boolean available() {
+            return client != null && !ejected;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.mcplogging.mcp.service;
+
+import com.example.mcplogging.config.ShutdownProperties;
+import com.example.mcplogging.entity.McpStatus;
+import com.example.mcplogging.repository.McpConnectionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 서버 종료 조정자
+ *
+ * 종료 시 다음 순서로 정리한다.
+ * 1. 새 세션/연결/도구 호출 거부
+ * 2. 진행 중인 도구 호출 완료 대기 (drainTimeout)
+ * 3. 프록시 세션 종료 (SSE 스트림 완료)
+ * 4. 모든 클라이언트 병렬 종료
+ * 5. lastUsedAt 버퍼 반영 후 CONNECTED 행을 한 번의 UPDATE로 DISCONNECTED 처리
+ *
+ * 시작 시에는 이전 실행에서 남은 CONNECTED 행을 정리한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class McpShutdownCoordinator implements SmartLifecycle {
+
+    // 웹 서버 graceful shutdown(Integer.MAX_VALUE - 1024)보다 먼저 정리하여 SSE 스트림이 종료를 막지 않도록 한다
+    private static final int PHASE = Integer.MAX_VALUE - 512;
+
+    private final ShutdownProperties properties;
+    private final McpConnectionPoolManager connectionPool;
+    private final McpConnectionRegistry connectionRegistry;
+    private final McpProcessSupervisor processSupervisor;
+    private final McpConnectionUsageTracker usageTracker;
+    private final McpConnectionRepository connectionRepository;
+
+    // 종료 시 세션을 닫을 작업 (프록시 서비스가 등록)
+    private final List<Runnable> sessionClosers = new CopyOnWriteArrayList<>();
+
+    private final Object monitor = new Object();
+    private boolean accepting = true;
+    private int inFlight;
+    private volatile boolean running;
+
+    /**
+     * 종료 시 세션 정리 작업 등록
+     */
+    public void registerSessionCloser(Runnable closer) {
+        sessionClosers.add(closer);
+    }
+
+    /**
+     * 새 세션/연결 요청 수락 여부 확인
+     */
+    public void ensureAccepting() {
+        synchronized (monitor) {
+            if (!accepting) {
+                throw new IllegalStateException("Server is shutting down");
+            }
+        }
+    }
+
+    /**
+     * 종료 진행 중 여부
+     */
+    public boolean isShuttingDown() {
+        synchronized (monitor) {
+            return !accepting;
+        }
+    }
+
+    /**
+     * 도구 호출 시작 (종료 중이면 거부)
+     */
+    public void enterCall() {
+        synchronized (monitor) {
+            if (!accepting) {
+                throw new IllegalStateException("Server is shutting down");
+            }
+            inFlight++;
+        }
+    }
+
+    /**
+     * 도구 호출 종료
+     */
+    public void exitCall() {
+        synchronized (monitor) {
+            if (--inFlight == 0) {
+                monitor.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 이전 실행에서 정리되지 않은 CONNECTED 행 정리
+     */
+    @Override
+    public void start() {
+        int updated = connectionRepository.updateStatusByStatus(McpStatus.CONNECTED, McpStatus.DISCONNECTED);
+        if (updated > 0) {
+            log.info("이전 실행의 CONNECTED 연결 정리: {} 건", updated);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        long startedAt = System.currentTimeMillis();
+        log.info("MCP 연결 종료 시작: 진행 중인 호출={}, 활성 연결={}", currentInFlight(), connectionPool.getActiveConnectionCount());
+
+        // 1. 새 요청 거부 후 진행 중인 호출 대기
+        synchronized (monitor) {
+            accepting = false;
+        }
+        int remaining = awaitInFlight();
+        if (remaining > 0) {
+            log.warn("도구 호출 완료 대기 시간 초과: 남은 호출={}", remaining);
+        }
+
+        // 2. 프록시 세션 종료
+        sessionClosers.forEach(closer -> {
+            try {
+                closer.run();
+            } catch (Exception e) {
+                log.warn("세션 종료 실패", e);
+            }
+        });
+
+        // 3. 클라이언트 병렬 종료
+        closeClients(connectionPool.removeAll());
+
+        // 4. 사용 기록 반영 및 연결 상태 일괄 갱신
+        usageTracker.flush();
+        int updated = connectionRepository.updateStatusByStatus(McpStatus.CONNECTED, McpStatus.DISCONNECTED);
+
+        running = false;
+        log.info("MCP 연결 종료 완료: DISCONNECTED 처리 {} 건, {}ms", updated, System.currentTimeMillis() - startedAt);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    // ===== Private Helper Methods =====
+
+    private int currentInFlight() {
+        synchronized (monitor) {
+            return inFlight;
+        }
+    }
+
+    /**
+     * 진행 중인 호출이 끝날 때까지 대기
+     *
+     * @return 대기 시간 초과 시 남은 호출 수
+     */
+    private int awaitInFlight() {
+        long deadline = System.nanoTime() + properties.getDrainTimeout().toNanos();
+        synchronized (monitor) {
+            while (inFlight > 0) {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMillis <= 0) {
+                    break;
+                }
+                try {
+                    monitor.wait(remainingMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return inFlight;
+        }
+    }
+
+    /**
+     * 클라이언트 병렬 종료 (STDIO 프로세스 종료 포함)
+     */
+    private void closeClients(Map<Long, McpReplicaSet> clients) {
+        if (clients.isEmpty()) {
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(clients.size(), 16), runnable -> {
+            Thread thread = new Thread(runnable, "mcp-shutdown");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            CompletableFuture<?>[] futures = clients.entrySet().stream()
+                    .map(entry -> CompletableFuture.runAsync(() -> {
+                        try {
+                            connectionRegistry.remove(entry.getKey());
+                            processSupervisor.stop(entry.getKey(), entry.getValue()::close);
+                        } catch (Exception e) {
+                            log.error("연결 종료 실패: connectionId={}", entry.getKey(), e);
+                        }
+                    }, executor))
+                    .toArray(CompletableFuture[]::new);
+
+            CompletableFuture.allOf(futures).get(properties.getCloseTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            log.info("클라이언트 {} 개 종료 완료", clients.size());
+        } catch (TimeoutException e) {
+            log.warn("클라이언트 종료 대기 시간 초과: {} 개 중 일부 미완료", clients.size());
+        } catch (Exception e) {
+            log.error("클라이언트 종료 중 오류", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
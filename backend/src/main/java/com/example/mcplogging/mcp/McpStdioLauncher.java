@@ -0,0 +1,559 @@
+package com.example.mcplogging.mcp.service;
+
+import com.example.mcplogging.config.LauncherProperties;
+import com.example.mcplogging.entity.McpConnector;
+import com.example.mcplogging.enums.McpTransportType;
+import com.example.mcplogging.service.McpConnectorRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * STDIO 커넥터 실행 명령 결정
+ *
+ * `npx -y <package> [args...]` 형태의 커넥터는 패키지를 캐시 디렉토리에 한 번만 설치하고
+ * 이후에는 `node <bin> [args...]`로 직접 실행하여 매 실행마다의 npx 패키지 해석을 건너뛴다.
+ * 설치는 백그라운드에서 진행하며, 설치가 끝나기 전이나 해석에 실패한 경우에는 원래 명령으로 실행한다.
+ * 버전을 고정하지 않은 패키지 스펙은 refresh-interval마다 백그라운드에서 다시 설치한다 (그동안은 기존 설치본 사용).
+ * 설치는 매번 새 디렉토리(<cache-dir>/<패키지>/<설치 시각>)에 하고 실행 파일 해석이 끝난 뒤에 교체하며,
+ * 이전 설치본은 그 설치본으로 실행한 프로세스가 모두 종료된 뒤 삭제한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class McpStdioLauncher {
+
+    private final LauncherProperties properties;
+    private final McpConnectorRegistry connectorRegistry;
+    private final ObjectMapper objectMapper;
+
+    // 설치 완료 표시 파일 (내용은 설치 시각 ms) - npm은 package.json 수정 시각을 고정값으로 두므로 별도로 기록
+    private static final String INSTALLED_MARKER = ".installed";
+
+    // 설치본 디렉토리 이름 (설치 시각 ms) - 이 외의 항목은 이전 버전에서 패키지 디렉토리에 바로 설치한 것
+    private static final Pattern INSTALL_DIR = Pattern.compile("\\d+");
+
+    // 정확한 버전 (1.2.3, 1.2.3-beta.1) - 이 외의 스펙(이름만, 태그, 범위)은 주기적으로 다시 설치
+    private static final Pattern PINNED_VERSION = Pattern.compile("\\d+\\.\\d+\\.\\d+([-+][0-9A-Za-z.-]+)?");
+
+    // Key: 패키지 스펙 (예: @notionhq/notion-mcp-server), Value: 실행 파일 경로와 설치 시각
+    private final Map<String, ResolvedBin> resolvedBins = new ConcurrentHashMap<>();
+
+    // Key: 패키지 스펙, Value: 마지막 해석 실패 시각 (ms) - 재시도 간격 동안은 원래 명령으로 실행
+    private final Map<String, Long> failedAt = new ConcurrentHashMap<>();
+
+    // 설치 중인 패키지 스펙 (패키지별 한 번만 실행)
+    private final Set<String> installing = ConcurrentHashMap.newKeySet();
+
+    // Key: 설치본 디렉토리, Value: 그 설치본으로 시작했거나 실행 중인 프로세스 수
+    // resolvedBins 교체와 함께 이 객체로 동기화하여, 교체된 설치본의 수가 다시 늘지 않도록 한다.
+    private final Map<Path, Integer> runningFrom = new HashMap<>();
+
+    // npm install 전용 스레드 (연결 요청 스레드와 연결 잠금을 설치 시간 동안 붙잡지 않도록 분리)
+    private final ExecutorService installer = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "mcp-launcher-install");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Key: connectorName, Value: 실행 통계
+    private final Map<String, LaunchStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * 실행 명령
+     *
+     * @param installation 캐시된 패키지로 직접 실행하는 경우 그 설치본 (프로세스가 끝나면 release 필요)
+     */
+    public record LaunchSpec(String command, List<String> args, ResolvedBin installation) {
+
+        /**
+         * 캐시된 패키지로 직접 실행하는 경우 true
+         */
+        public boolean resolved() {
+            return installation != null;
+        }
+    }
+
+    /**
+     * 캐시된 패키지 설치본의 실행 파일
+     */
+    public record ResolvedBin(String packageSpec, Path bin, Path installDir, long installedAtMillis) {
+    }
+
+    /**
+     * 커넥터 실행 명령 결정
+     * 캐시된 패키지로 실행하는 경우 그 설치본을 사용 중으로 기록하므로, 프로세스가 끝나거나 시작에 실패하면 release를 호출한다.
+     */
+    public LaunchSpec resolve(McpConnector connector, List<String> args) {
+        String command = connector.getCommand();
+        LaunchSpec fallback = new LaunchSpec(command, args, null);
+
+        if (!properties.isResolveNpx() || !isNpx(command)) {
+            return fallback;
+        }
+
+        NpxInvocation invocation = parseNpxArgs(args);
+        if (invocation == null) {
+            return fallback;
+        }
+
+        ResolvedBin resolved;
+        boolean located = false;
+        synchronized (runningFrom) {
+            resolved = resolvedBins.get(invocation.packageSpec);
+            if (resolved == null || !Files.exists(resolved.bin)) {
+                resolved = locateInstalled(invocation.packageSpec);
+                located = resolved != null;
+            }
+            if (resolved != null) {
+                runningFrom.merge(resolved.installDir, 1, Integer::sum);
+            }
+        }
+        if (located) {
+            removeUnused(invocation.packageSpec);  // 이전 실행에서 남은 설치본
+        }
+        if (resolved == null) {
+            // 설치가 끝날 때까지는 원래 명령으로 실행 (연결 요청이 설치를 기다리지 않음)
+            if (!recentlyFailed(invocation.packageSpec)) {
+                installInBackground(connector.getName(), invocation.packageSpec);
+            }
+            return fallback;
+        }
+        if (isStale(invocation.packageSpec, resolved)) {
+            installInBackground(connector.getName(), invocation.packageSpec);
+        }
+
+        List<String> launchArgs = new ArrayList<>();
+        launchArgs.add(resolved.bin.toString());
+        launchArgs.addAll(invocation.binArgs);
+        return new LaunchSpec(properties.getNodeCommand(), launchArgs, resolved);
+    }
+
+    /**
+     * resolve로 결정한 실행 명령의 프로세스 종료 (또는 시작 실패)
+     * 교체된 설치본을 사용하는 프로세스가 더 없으면 그 설치본을 삭제한다.
+     */
+    public void release(LaunchSpec launch) {
+        ResolvedBin installation = launch.installation();
+        if (installation == null) {
+            return;
+        }
+        synchronized (runningFrom) {
+            runningFrom.computeIfPresent(installation.installDir, (dir, count) -> count > 1 ? count - 1 : null);
+        }
+        removeUnused(installation.packageSpec);
+    }
+
+    /**
+     * 실행 결과 기록 (프로세스 시작 ~ initialize 완료)
+     */
+    public void recordLaunch(String connectorName, boolean resolved, long elapsedMillis, boolean success) {
+        LaunchStats launchStats = stats.computeIfAbsent(connectorName, key -> new LaunchStats());
+        (resolved ? launchStats.resolvedLaunches : launchStats.fallbackLaunches).incrementAndGet();
+        if (!success) {
+            launchStats.failures.incrementAndGet();
+        }
+        launchStats.totalLaunchMillis.addAndGet(elapsedMillis);
+        launchStats.lastLaunchMillis = elapsedMillis;
+    }
+
+    /**
+     * 실행 통계
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> connectors = new LinkedHashMap<>();
+        stats.forEach((name, s) -> {
+            long launches = s.resolvedLaunches.get() + s.fallbackLaunches.get();
+            connectors.put(name, Map.of(
+                    "resolvedLaunches", s.resolvedLaunches.get(),
+                    "fallbackLaunches", s.fallbackLaunches.get(),
+                    "failures", s.failures.get(),
+                    "installMillis", s.installMillis.get(),
+                    "lastLaunchMillis", s.lastLaunchMillis,
+                    "avgLaunchMillis", launches > 0 ? s.totalLaunchMillis.get() / launches : 0
+            ));
+        });
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("resolveNpx", properties.isResolveNpx());
+        result.put("cacheDir", properties.getCacheDir());
+        Map<String, String> packages = new LinkedHashMap<>();
+        resolvedBins.forEach((spec, resolved) -> packages.put(spec, resolved.bin.toString()));
+        result.put("resolvedPackages", packages);
+        result.put("installing", List.copyOf(installing));
+        result.put("connectors", connectors);
+        return result;
+    }
+
+    /**
+     * 시작 시 활성 STDIO 커넥터 패키지 미리 설치 (resolve가 백그라운드 설치를 시작)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarm() {
+        if (!properties.isPrewarm()) {
+            return;
+        }
+
+        Thread thread = new Thread(() -> connectorRegistry.getEnabled().stream()
+                .filter(connector -> connector.getTransportType() == McpTransportType.STDIO)
+                .forEach(connector -> {
+                    try {
+                        List<String> args = connector.getArgs() == null ? List.of()
+                                : objectMapper.readValue(connector.getArgs(),
+                                        objectMapper.getTypeFactory().constructCollectionType(List.class, String.class));
+                        resolve(connector, args);
+                    } catch (Exception e) {
+                        log.warn("npx 패키지 사전 설치 실패: connector={}", connector.getName(), e);
+                    }
+                }), "mcp-launcher-prewarm");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        installer.shutdownNow();
+    }
+
+    // ===== Private Helper Methods =====
+
+    /**
+     * 캐시 디렉토리에 이미 설치된 패키지의 실행 파일 (설치되어 있지 않거나 해석에 실패하면 null)
+     * 설치가 끝난 설치본 중 가장 최근 것, 없으면 이전 버전에서 패키지 디렉토리에 바로 설치한 것을 사용한다.
+     */
+    private ResolvedBin locateInstalled(String packageSpec) {
+        Path prefix = prefix(packageSpec);
+        List<Path> candidates = new ArrayList<>();
+        if (Files.isDirectory(prefix)) {
+            try (Stream<Path> children = Files.list(prefix)) {
+                children.filter(this::isInstallDir)
+                        .filter(dir -> Files.exists(dir.resolve(INSTALLED_MARKER)))
+                        .sorted(Comparator.comparing((Path dir) -> Long.parseLong(dir.getFileName().toString())).reversed())
+                        .forEach(candidates::add);
+            } catch (IOException e) {
+                log.warn("npx 패키지 캐시 조회 실패: package={}, reason={}", packageSpec, e.getMessage());
+            }
+        }
+        candidates.add(prefix);
+
+        String packageName = packageName(packageSpec);
+        for (Path installDir : candidates) {
+            Path packageDir = installDir.resolve("node_modules").resolve(packageName);
+            if (!Files.exists(packageDir.resolve("package.json"))) {
+                continue;
+            }
+            try {
+                ResolvedBin resolved = new ResolvedBin(packageSpec, locateBin(packageDir, packageName), installDir,
+                        installedAt(installDir));
+                resolvedBins.put(packageSpec, resolved);
+                return resolved;
+            } catch (Exception e) {
+                log.warn("npx 패키지 해석 실패: package={}, dir={}, reason={}", packageSpec, installDir, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 현재 설치본이 아니고 실행 중인 프로세스도 없는 설치본 삭제
+     * 설치가 끝나지 않은 디렉토리는 설치 중이 아닐 때만 (실패하거나 중단된 설치), 이전 버전에서 패키지 디렉토리에
+     * 바로 설치한 파일은 다른 설치본으로 교체된 뒤에만 삭제한다.
+     */
+    private void removeUnused(String packageSpec) {
+        Path prefix = prefix(packageSpec);
+        if (!Files.isDirectory(prefix)) {
+            return;
+        }
+
+        List<Path> unused = new ArrayList<>();
+        synchronized (runningFrom) {
+            ResolvedBin current = resolvedBins.get(packageSpec);
+            Path currentDir = current != null ? current.installDir : null;
+            boolean legacyUnused = currentDir != null && !currentDir.equals(prefix) && !runningFrom.containsKey(prefix);
+            boolean installingNow = installing.contains(packageSpec);
+            try (Stream<Path> children = Files.list(prefix)) {
+                children.filter(child -> isInstallDir(child)
+                                ? !child.equals(currentDir) && !runningFrom.containsKey(child)
+                                        && (Files.exists(child.resolve(INSTALLED_MARKER)) || !installingNow)
+                                : legacyUnused)
+                        .forEach(unused::add);
+            } catch (IOException e) {
+                log.warn("npx 패키지 캐시 조회 실패: package={}, reason={}", packageSpec, e.getMessage());
+                return;
+            }
+        }
+
+        for (Path path : unused) {
+            try {
+                deleteRecursively(path);
+                log.info("이전 npx 패키지 설치본 삭제: package={}, path={}", packageSpec, path);
+            } catch (IOException e) {
+                log.warn("이전 npx 패키지 설치본 삭제 실패: path={}, reason={}", path, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 백그라운드 설치 시작 (같은 패키지가 이미 설치 중이면 무시)
+     */
+    private void installInBackground(String connectorName, String packageSpec) {
+        // removeUnused가 설치 중인 디렉토리를 지우지 않도록 같은 잠금 안에서 표시
+        synchronized (runningFrom) {
+            if (!installing.add(packageSpec)) {
+                return;
+            }
+        }
+
+        log.info("npx 패키지 캐시 설치 시작: package={}", packageSpec);
+        try {
+            installer.execute(() -> {
+                try {
+                    installAndLocateBin(connectorName, packageSpec);
+                } catch (Exception e) {
+                    failedAt.put(packageSpec, System.currentTimeMillis());
+                    log.warn("npx 패키지 설치 실패: connector={}, package={}, reason={}",
+                            connectorName, packageSpec, e.getMessage());
+                } finally {
+                    installing.remove(packageSpec);
+                    removeUnused(packageSpec);  // 교체된 설치본 또는 실패한 설치 디렉토리
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            installing.remove(packageSpec);  // 종료 중
+        }
+    }
+
+    /**
+     * 새 설치본 디렉토리에 패키지 설치 후 실행 파일 경로 교체
+     * 실행 중인 프로세스가 쓰는 기존 설치본은 건드리지 않으며, 해석에 실패하면 기존 설치본을 계속 사용한다.
+     */
+    private void installAndLocateBin(String connectorName, String packageSpec) throws Exception {
+        String packageName = packageName(packageSpec);
+
+        long start = System.currentTimeMillis();
+        Path installDir = newInstallDir(prefix(packageSpec), start);
+        install(installDir, packageSpec);
+        long elapsed = System.currentTimeMillis() - start;
+        stats.computeIfAbsent(connectorName, key -> new LaunchStats()).installMillis.addAndGet(elapsed);
+        log.info("npx 패키지 캐시 설치 완료: package={}, elapsed={}ms", packageSpec, elapsed);
+
+        Path bin = locateBin(installDir.resolve("node_modules").resolve(packageName), packageName);
+        synchronized (runningFrom) {
+            Files.writeString(installDir.resolve(INSTALLED_MARKER), String.valueOf(start));
+            resolvedBins.put(packageSpec, new ResolvedBin(packageSpec, bin, installDir, start));
+        }
+        failedAt.remove(packageSpec);
+        log.info("npx 패키지 해석 완료: package={}, bin={}", packageSpec, bin);
+    }
+
+    /**
+     * 설치 시각 이름의 새 설치본 디렉토리 (같은 이름이 있으면 다음 값)
+     */
+    private Path newInstallDir(Path prefix, long start) {
+        Path installDir = prefix.resolve(String.valueOf(start));
+        for (long name = start + 1; Files.exists(installDir); name++) {
+            installDir = prefix.resolve(String.valueOf(name));
+        }
+        return installDir;
+    }
+
+    /**
+     * 버전을 고정하지 않은 스펙이고 설치한 지 refresh-interval이 지났으면 true
+     */
+    private boolean isStale(String packageSpec, ResolvedBin resolved) {
+        Duration refreshInterval = properties.getRefreshInterval();
+        if (refreshInterval == null || refreshInterval.isZero() || refreshInterval.isNegative()) {
+            return false;
+        }
+        String packageName = packageName(packageSpec);
+        if (packageSpec.length() > packageName.length()
+                && PINNED_VERSION.matcher(packageSpec.substring(packageName.length() + 1)).matches()) {
+            return false;
+        }
+        // 갱신 설치가 실패한 직후에는 기존 설치본 계속 사용
+        return !recentlyFailed(packageSpec)
+                && System.currentTimeMillis() - resolved.installedAtMillis >= refreshInterval.toMillis();
+    }
+
+    private boolean recentlyFailed(String packageSpec) {
+        Long lastFailure = failedAt.get(packageSpec);
+        return lastFailure != null
+                && System.currentTimeMillis() - lastFailure < properties.getFailureRetryInterval().toMillis();
+    }
+
+    /**
+     * 설치 시각 (표시 파일이 없으면 0 - 이전 버전에서 설치된 것으로 보고 갱신 대상)
+     */
+    private long installedAt(Path installDir) {
+        try {
+            return Long.parseLong(Files.readString(installDir.resolve(INSTALLED_MARKER)).trim());
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private Path prefix(String packageSpec) {
+        return Paths.get(properties.getCacheDir(), sanitize(packageSpec)).toAbsolutePath();
+    }
+
+    private boolean isInstallDir(Path path) {
+        return Files.isDirectory(path) && INSTALL_DIR.matcher(path.getFileName().toString()).matches();
+    }
+
+    private void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+        try (Stream<Path> walk = Files.walk(path)) {
+            for (Path entry : walk.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(entry);
+            }
+        }
+    }
+
+    private void install(Path prefix, String packageSpec) throws Exception {
+        Files.createDirectories(prefix);
+
+        List<String> command = new ArrayList<>();
+        if (isWindows()) {
+            command.add("cmd.exe");
+            command.add("/c");
+        }
+        command.addAll(List.of(properties.getNpmCommand(), "install",
+                "--prefix", prefix.toString(), "--no-audit", "--no-fund", "--no-save", packageSpec));
+
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(prefix.resolve("install.log").toFile())
+                .start();
+
+        try {
+            if (!process.waitFor(properties.getInstallTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+                throw new IllegalStateException("npm install timeout: " + packageSpec);
+            }
+        } catch (InterruptedException e) {
+            // 애플리케이션 종료 - 설치 프로세스를 남기지 않음
+            process.destroyForcibly();
+            throw e;
+        }
+        if (process.exitValue() != 0) {
+            throw new IllegalStateException("npm install failed (exit " + process.exitValue() + "): " + packageSpec);
+        }
+    }
+
+    /**
+     * package.json의 bin 항목으로 실행 파일 경로 결정
+     */
+    private Path locateBin(Path packageDir, String packageName) throws Exception {
+        JsonNode packageJson = objectMapper.readTree(packageDir.resolve("package.json").toFile());
+        JsonNode bin = packageJson.get("bin");
+
+        String relative = null;
+        if (bin != null && bin.isTextual()) {
+            relative = bin.asText();
+        } else if (bin != null && bin.isObject() && bin.size() > 0) {
+            String unscoped = packageName.substring(packageName.lastIndexOf('/') + 1);
+            JsonNode matching = bin.get(unscoped);
+            if (matching == null) {
+                Iterator<JsonNode> values = bin.elements();
+                matching = values.next();
+            }
+            relative = matching.asText();
+        }
+
+        if (relative == null) {
+            throw new IllegalStateException("bin entry not found in package.json: " + packageName);
+        }
+        Path path = packageDir.resolve(relative).normalize();
+        if (!Files.exists(path)) {
+            throw new IllegalStateException("bin file not found: " + path);
+        }
+        return path;
+    }
+
+    /**
+     * npx 인자 파싱: 옵션(-y, --yes 등)을 건너뛰고 첫 인자를 패키지, 나머지를 실행 인자로 사용
+     * -p/--package, -c 처럼 해석이 복잡한 옵션이 있으면 null
+     */
+    private NpxInvocation parseNpxArgs(List<String> args) {
+        for (int i = 0; i < args.size(); i++) {
+            String arg = args.get(i);
+            if (arg.equals("-p") || arg.startsWith("--package") || arg.equals("-c") || arg.equals("--call")) {
+                return null;
+            }
+            if (!arg.startsWith("-")) {
+                return new NpxInvocation(arg, List.copyOf(args.subList(i + 1, args.size())));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 패키지 스펙에서 이름만 추출 (@scope/pkg@1.0.0 → @scope/pkg)
+     */
+    private String packageName(String packageSpec) {
+        int versionAt = packageSpec.indexOf('@', packageSpec.startsWith("@") ? 1 : 0);
+        return versionAt > 0 ? packageSpec.substring(0, versionAt) : packageSpec;
+    }
+
+    private String sanitize(String packageSpec) {
+        return packageSpec.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private boolean isNpx(String command) {
+        if (command == null) {
+            return false;
+        }
+        String name = new File(command).getName().toLowerCase();
+        return name.equals("npx") || name.equals("npx.cmd");
+    }
+
+    private boolean isWindows() {
+        return System.getProperty("os.name").toLowerCase().contains("win");
+    }
+
+    private record NpxInvocation(String packageSpec, List<String> binArgs) {
+    }
+
+    /**
+     * 커넥터별 실행 통계
+     */
+    private static class LaunchStats {
+        final AtomicLong resolvedLaunches = new AtomicLong();
+        final AtomicLong fallbackLaunches = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong installMillis = new AtomicLong();
+        final AtomicLong totalLaunchMillis = new AtomicLong();
+        volatile long lastLaunchMillis;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.mcplogging.mcp.service;
+
+import io.modelcontextprotocol.spec.McpSchema;
+
+/**
+ * 도구 실행 결과 (캐시에서 응답했는지 여부 포함, 감사 로그 기록용)
+ */
+public record McpToolInvocation(
+        McpSchema.CallToolResult result,
+        boolean cacheHit
+) {
+}
@@ -0,0 +1,327 @@
+package com.example.mcplogging.mcp.service;
+
+import com.example.mcplogging.config.ToolCacheProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * 읽기 전용 도구 결과 캐시 / 동일 호출 병합 (single-flight)
+ *
+ * 캐시 키는 (connectionId, 도구 이름, 정규화된 인자 JSON, 커넥터 세대)이다.
+ * 변경 도구가 실행되면 커넥터 세대를 올려 이전 항목을 더 이상 찾지 않게 하고,
+ * 남은 항목은 TTL/크기 제한으로 정리된다. 실행 중에 세대가 바뀐 읽기 결과는 이전 세대 키로 저장되므로 다시 조회되지 않는다.
+ *
+ * 병합 키는 (커넥터, 환경 변수 지문, 도구 이름, 정규화된 인자 JSON)이다.
+ * 자격 증명이 같은 연결끼리만 결과를 공유하도록 환경 변수 지문을 포함한다.
+ */
+@Slf4j
+@Component
+public class McpToolResultCache {
+
+    private final ToolCacheProperties properties;
+    private final ObjectWriter canonicalWriter;
+    private final ObjectWriter resultWriter;
+    private final Cache<CacheKey, CachedResult> cache;
+
+    // Key: connectorName, Value: 캐시 세대 (변경 도구 실행 시 증가)
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    // 진행 중인 병합 대상 호출 (먼저 들어온 호출이 실행하고 나머지는 결과를 기다림)
+    private final Map<FlightKey, CompletableFuture<McpSchema.CallToolResult>> inFlight = new ConcurrentHashMap<>();
+
+    private final Map<String, ConnectorStats> connectorStats = new ConcurrentHashMap<>();
+    private final Map<String, Pattern> patterns = new ConcurrentHashMap<>();
+
+    public McpToolResultCache(ToolCacheProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        // 인자 순서가 달라도 같은 키가 되도록 Map 키 정렬
+        this.canonicalWriter = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        this.resultWriter = objectMapper.writerFor(McpSchema.CallToolResult.class);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((CacheKey key, CachedResult value) -> value.weight())
+                .expireAfter(new Expiry<CacheKey, CachedResult>() {
+                    @Override
+                    public long expireAfterCreate(CacheKey key, CachedResult value, long currentTime) {
+                        return value.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(CacheKey key, CachedResult value, long currentTime, long currentDuration) {
+                        return value.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(CacheKey key, CachedResult value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 캐시/병합을 거쳐 도구 실행
+     * 캐시 대상이면 저장된 결과를 반환하고, 없으면 실행 후 성공 결과를 저장한다.
+     * 병합 대상이면 같은 호출이 진행 중일 때 그 결과를 함께 사용한다.
+     * 변경 도구는 실행 후 커넥터 캐시를 무효화한다.
+     */
+    public McpToolInvocation call(McpConnectionDescriptor connection, String toolName,
+                                  Map<String, Object> arguments, Supplier<McpSchema.CallToolResult> invoker) {
+        String connectorName = connection != null ? connection.connectorName() : null;
+        ToolCacheProperties.Rule rule = properties.ruleFor(connectorName);
+        if (rule == null) {
+            return new McpToolInvocation(invoker.get(), false);
+        }
+
+        String canonical = null;
+        Supplier<McpSchema.CallToolResult> upstream = invoker;
+        if (matches(rule.getCoalesce(), toolName)) {
+            canonical = canonicalArguments(rule, arguments);
+            FlightKey flightKey = new FlightKey(connectorName, connection.envFingerprint(), toolName, canonical);
+            upstream = () -> coalesce(flightKey, connectorName, invoker);
+        }
+
+        if (!properties.isEnabled()) {
+            return new McpToolInvocation(upstream.get(), false);
+        }
+
+        if (matches(rule.getCacheable(), toolName)) {
+            CacheKey key = new CacheKey(connection.connectionId(), toolName,
+                    canonical != null ? canonical : canonicalArguments(rule, arguments),
+                    generation(connectorName).get());
+            CachedResult cached = cache.getIfPresent(key);
+            if (cached != null) {
+                stats(connectorName).hits.increment();
+                log.debug("캐시 적중: connector={}, tool={}", connectorName, toolName);
+                return new McpToolInvocation(cached.result(), true);
+            }
+
+            stats(connectorName).misses.increment();
+            McpSchema.CallToolResult result = upstream.get();
+            if (!Boolean.TRUE.equals(result.isError())) {
+                cache.put(key, new CachedResult(result, weigh(key, result), ttl(rule).toNanos()));
+            }
+            return new McpToolInvocation(result, false);
+        }
+
+        boolean mutating = rule.getMutating().isEmpty() || matches(rule.getMutating(), toolName);
+        try {
+            return new McpToolInvocation(upstream.get(), false);
+        } finally {
+            if (mutating) {
+                invalidate(connectorName);
+            }
+        }
+    }
+
+    /**
+     * 캐시 규칙에 읽기 전용(cacheable)으로 지정된 도구인지
+     */
+    public boolean isReadOnly(String connectorName, String toolName) {
+        ToolCacheProperties.Rule rule = properties.ruleFor(connectorName);
+        return rule != null && matches(rule.getCacheable(), toolName);
+    }
+
+    /**
+     * 커넥터 캐시 무효화
+     */
+    public void invalidate(String connectorName) {
+        generation(connectorName).incrementAndGet();
+        stats(connectorName).invalidations.increment();
+        log.debug("캐시 무효화: connector={}", connectorName);
+    }
+
+    /**
+     * 캐시 통계 (적중/미스, 제거, 크기, 커넥터별 적중/미스/무효화/병합)
+     */
+    public Map<String, Object> getStats() {
+        CacheStats cacheStats = cache.stats();
+        Map<String, Object> connectors = new TreeMap<>();
+        connectorStats.forEach((name, stats) -> connectors.put(name, Map.of(
+                "hits", stats.hits.sum(),
+                "misses", stats.misses.sum(),
+                "invalidations", stats.invalidations.sum(),
+                "coalesced", stats.coalesced.sum()
+        )));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", properties.isEnabled());
+        result.put("entries", cache.estimatedSize());
+        result.put("weightBytes", cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L));
+        result.put("maxBytes", properties.getMaxSize().toBytes());
+        result.put("hits", cacheStats.hitCount());
+        result.put("misses", cacheStats.missCount());
+        result.put("hitRate", cacheStats.hitRate());
+        result.put("evictions", cacheStats.evictionCount());
+        result.put("inFlight", inFlight.size());
+        result.put("coalesced", connectorStats.values().stream().mapToLong(stats -> stats.coalesced.sum()).sum());
+        result.put("connectors", connectors);
+        return result;
+    }
+
+    // ===== Private Helper Methods =====
+
+    /**
+     * 같은 호출이 진행 중이면 그 결과를 기다리고, 없으면 직접 실행해 결과를 공유
+     * 실행하던 호출이 취소(스레드 중단)되면 기다리던 호출은 결과를 받지 못하므로 다시 시도한다.
+     */
+    private McpSchema.CallToolResult coalesce(FlightKey key, String connectorName,
+                                              Supplier<McpSchema.CallToolResult> invoker) {
+        while (true) {
+            CompletableFuture<McpSchema.CallToolResult> flight = new CompletableFuture<>();
+            CompletableFuture<McpSchema.CallToolResult> existing = inFlight.putIfAbsent(key, flight);
+            if (existing == null) {
+                try {
+                    McpSchema.CallToolResult result = invoker.get();
+                    flight.complete(result);
+                    return result;
+                } catch (RuntimeException e) {
+                    if (isInterruption(e)) {
+                        flight.cancel(false);
+                    } else {
+                        flight.completeExceptionally(e);
+                    }
+                    throw e;
+                } finally {
+                    inFlight.remove(key, flight);
+                }
+            }
+
+            stats(connectorName).coalesced.increment();
+            log.debug("동일 호출 병합: connector={}, tool={}", connectorName, key.toolName());
+            try {
+                return existing.get();
+            } catch (CancellationException e) {
+                // 실행하던 호출이 취소됨 - 다시 시도
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("도구 호출 대기 중단", e);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    private static boolean isInterruption(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private AtomicLong generation(String connectorName) {
+        return generations.computeIfAbsent(connectorName, name -> new AtomicLong());
+    }
+
+    private ConnectorStats stats(String connectorName) {
+        return connectorStats.computeIfAbsent(connectorName, name -> new ConnectorStats());
+    }
+
+    private Duration ttl(ToolCacheProperties.Rule rule) {
+        return rule.getTtl() != null ? rule.getTtl() : properties.getDefaultTtl();
+    }
+
+    /**
+     * 인자를 키 순서로 정렬한 JSON (제외 인자 제거)
+     */
+    private String canonicalArguments(ToolCacheProperties.Rule rule, Map<String, Object> arguments) {
+        Map<String, Object> keyed = arguments != null ? new HashMap<>(arguments) : new HashMap<>();
+        rule.getIgnoredArguments().forEach(keyed::remove);
+        try {
+            return canonicalWriter.writeValueAsString(keyed);
+        } catch (Exception e) {
+            throw new IllegalStateException("캐시 키 생성 실패", e);
+        }
+    }
+
+    /**
+     * 항목 크기 (키 인자 길이 + 결과 JSON 바이트 수)
+     * 결과는 문자열로 만들지 않고 바이트 수만 센다.
+     */
+    private int weigh(CacheKey key, McpSchema.CallToolResult result) {
+        try {
+            ByteCounter counter = new ByteCounter();
+            resultWriter.writeValue(counter, result);
+            long size = (long) key.arguments().length() + counter.count;
+            return (int) Math.min(Integer.MAX_VALUE, size);
+        } catch (Exception e) {
+            throw new IllegalStateException("캐시 항목 크기 계산 실패", e);
+        }
+    }
+
+    /**
+     * 도구 이름 패턴 매칭 (* 와일드카드)
+     */
+    private boolean matches(List<String> toolPatterns, String toolName) {
+        for (String toolPattern : toolPatterns) {
+            Pattern pattern = patterns.computeIfAbsent(toolPattern, p -> Pattern.compile(
+                    Pattern.quote(p).replace("*", "\\E.*\\Q")));
+            if (pattern.matcher(toolName).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record CacheKey(Long connectionId, String toolName, String arguments, long generation) {
+    }
+
+    private record FlightKey(String connectorName, String envFingerprint, String toolName, String arguments) {
+    }
+
+    private record CachedResult(McpSchema.CallToolResult result, int weight, long ttlNanos) {
+    }
+
+    /**
+     * 쓰인 바이트 수만 세는 스트림
+     */
+    private static class ByteCounter extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    private static class ConnectorStats {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder invalidations = new LongAdder();
+        final LongAdder coalesced = new LongAdder();
+    }
+}
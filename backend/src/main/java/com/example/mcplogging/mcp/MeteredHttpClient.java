@@ -0,0 +1,166 @@
+package com.example.mcplogging.mcp.service;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 요청 수와 동시 스트림 수를 집계하는 HttpClient 래퍼
+ *
+ * JDK HttpClient는 연결 풀 상태를 노출하지 않으므로, 동시에 열린 요청(SSE 스트림 포함)과
+ * 실제 협상된 프로토콜 버전을 기준으로 연결 재사용 상태를 판단한다.
+ */
+class MeteredHttpClient extends HttpClient {
+
+    private final HttpClient delegate;
+
+    private final AtomicInteger openStreams = new AtomicInteger();
+    private final AtomicInteger peakStreams = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong http2Responses = new AtomicLong();
+    private final AtomicLong http1Responses = new AtomicLong();
+    private final AtomicInteger transports = new AtomicInteger();
+
+    MeteredHttpClient(HttpClient delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * 이 클라이언트를 공유하는 트랜스포트 수 증가
+     */
+    void attachTransport() {
+        transports.incrementAndGet();
+    }
+
+    Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("transports", transports.get());
+        stats.put("openStreams", openStreams.get());
+        stats.put("peakStreams", peakStreams.get());
+        stats.put("requests", requests.get());
+        stats.put("failures", failures.get());
+        stats.put("http2Responses", http2Responses.get());
+        stats.put("http1Responses", http1Responses.get());
+        return stats;
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler)
+            throws IOException, InterruptedException {
+        begin();
+        try {
+            HttpResponse<T> response = delegate.send(request, responseBodyHandler);
+            recordVersion(response);
+            return response;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            failures.incrementAndGet();
+            throw e;
+        } finally {
+            openStreams.decrementAndGet();
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                            HttpResponse.BodyHandler<T> responseBodyHandler) {
+        return track(delegate.sendAsync(request, responseBodyHandler));
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                            HttpResponse.BodyHandler<T> responseBodyHandler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        return track(delegate.sendAsync(request, responseBodyHandler, pushPromiseHandler));
+    }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() {
+        return delegate.cookieHandler();
+    }
+
+    @Override
+    public Optional<Duration> connectTimeout() {
+        return delegate.connectTimeout();
+    }
+
+    @Override
+    public Redirect followRedirects() {
+        return delegate.followRedirects();
+    }
+
+    @Override
+    public Optional<ProxySelector> proxy() {
+        return delegate.proxy();
+    }
+
+    @Override
+    public SSLContext sslContext() {
+        return delegate.sslContext();
+    }
+
+    @Override
+    public SSLParameters sslParameters() {
+        return delegate.sslParameters();
+    }
+
+    @Override
+    public Optional<Authenticator> authenticator() {
+        return delegate.authenticator();
+    }
+
+    @Override
+    public Version version() {
+        return delegate.version();
+    }
+
+    @Override
+    public Optional<Executor> executor() {
+        return delegate.executor();
+    }
+
+    // ===== Private Helper Methods =====
+
+    private void begin() {
+        requests.incrementAndGet();
+        int open = openStreams.incrementAndGet();
+        peakStreams.accumulateAndGet(open, Math::max);
+    }
+
+    /**
+     * 응답 본문까지 끝나야 스트림이 닫힌 것으로 본다 (SSE는 스트림이 끝날 때까지 열린 상태)
+     */
+    private <T> CompletableFuture<HttpResponse<T>> track(CompletableFuture<HttpResponse<T>> future) {
+        begin();
+        return future.whenComplete((response, error) -> {
+            openStreams.decrementAndGet();
+            if (error != null) {
+                failures.incrementAndGet();
+            } else {
+                recordVersion(response);
+            }
+        });
+    }
+
+    private void recordVersion(HttpResponse<?> response) {
+        if (response.version() == Version.HTTP_2) {
+            http2Responses.incrementAndGet();
+        } else {
+            http1Responses.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.mcplogging.repository;
+
+import com.example.mcplogging.entity.AuditPayload;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface AuditPayloadRepository extends JpaRepository<AuditPayload, Long> {
+
+    @Query("select p.id from AuditPayload p where p.hash = :hash")
+    Optional<Long> findIdByHash(@Param("hash") String hash);
+
+    // 참조하는 tool_usage_logs가 없는 페이로드 (cutoff 이후 생성된 행은 로그 저장 전일 수 있으므로 제외)
+    @Query("select p.id from AuditPayload p where p.createdAt < :cutoff "
+            + "and not exists (select 1 from ToolUsageLog t where t.toolParametersPayload = p) "
+            + "and not exists (select 1 from ToolUsageLog t where t.mcpRequestPayload = p) order by p.id")
+    List<Long> findUnreferencedIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+}
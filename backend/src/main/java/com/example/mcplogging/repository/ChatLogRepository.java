@@ -4,11 +4,17 @@ import com.example.mcplogging.entity.ChatLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 public interface ChatLogRepository extends JpaRepository<ChatLog, Long> {
     Page<ChatLog> findByUserId(String userId, Pageable pageable);
 
     Page<ChatLog> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @Query("select c from ChatLog c where c.createdAt < :cutoff order by c.id")
+    List<ChatLog> findExpired(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
 }
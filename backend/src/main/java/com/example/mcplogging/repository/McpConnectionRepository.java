@@ -2,8 +2,15 @@ package com.example.mcplogging.repository;
 
 import com.example.mcplogging.entity.McpConnection;
 import com.example.mcplogging.entity.McpStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +22,45 @@ public interface McpConnectionRepository extends JpaRepository<McpConnection, Lo
     Optional<McpConnection> findByConnectorIdAndUserId(Long connectorId, String userId);
 
     Optional<McpConnection> findByConnectorNameAndUserId(String connectorName, String userId);
+
+    Optional<McpConnection> findFirstByConnectorIdAndUserIdAndEnvFingerprintOrderByIdDesc(
+            Long connectorId, String userId, String envFingerprint);
+
+    @Query("select c from McpConnection c where c.status = :status and c.createdAt < :cutoff "
+            + "and (c.lastUsedAt is null or c.lastUsedAt < :cutoff) order by c.id")
+    List<McpConnection> findExpired(@Param("status") McpStatus status,
+                                    @Param("cutoff") LocalDateTime cutoff,
+                                    Pageable pageable);
+
+    @Query("select c from McpConnection c where c.status = :status and c.createdAt < :cutoff "
+            + "and (c.lastUsedAt is null or c.lastUsedAt < :cutoff) and c.id not in :excluded order by c.id")
+    List<McpConnection> findExpiredExcluding(@Param("status") McpStatus status,
+                                             @Param("cutoff") LocalDateTime cutoff,
+                                             @Param("excluded") Collection<Long> excluded,
+                                             Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("update McpConnection c set c.status = :status, c.connectedAt = :connectedAt, c.lastError = :lastError "
+            + "where c.id = :id")
+    int updateStatus(@Param("id") Long id,
+                     @Param("status") McpStatus status,
+                     @Param("connectedAt") LocalDateTime connectedAt,
+                     @Param("lastError") String lastError);
+
+    @Transactional
+    @Modifying
+    @Query("update McpConnection c set c.status = :status, c.connectedAt = null where c.id = :id")
+    int updateStatusAndClearConnectedAt(@Param("id") Long id, @Param("status") McpStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("update McpConnection c set c.lastUsedAt = :lastUsedAt "
+            + "where c.id = :id and (c.lastUsedAt is null or c.lastUsedAt < :lastUsedAt)")
+    int touchLastUsedAt(@Param("id") Long id, @Param("lastUsedAt") LocalDateTime lastUsedAt);
+
+    @Transactional
+    @Modifying
+    @Query("update McpConnection c set c.status = :status, c.connectedAt = null where c.status = :currentStatus")
+    int updateStatusByStatus(@Param("currentStatus") McpStatus currentStatus, @Param("status") McpStatus status);
 }
@@ -4,8 +4,13 @@ import com.example.mcplogging.entity.ToolUsageLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface ToolUsageLogRepository extends JpaRepository<ToolUsageLog, Long> {
     Page<ToolUsageLog> findByToolName(String toolName, Pageable pageable);
@@ -17,4 +22,28 @@ public interface ToolUsageLogRepository extends JpaRepository<ToolUsageLog, Long
     Page<ToolUsageLog> findByConnectionId(Long connectionId, Pageable pageable);
 
     Page<ToolUsageLog> findByChatLogUserId(String userId, Pageable pageable);
+
+    // ===== 보존 정책 (retention) =====
+
+    @Query("select t from ToolUsageLog t where t.executedAt < :cutoff and t.connectorName = :connectorName order by t.id")
+    List<ToolUsageLog> findExpiredByConnectorName(@Param("cutoff") LocalDateTime cutoff,
+                                                  @Param("connectorName") String connectorName,
+                                                  Pageable pageable);
+
+    @Query("select t from ToolUsageLog t where t.executedAt < :cutoff order by t.id")
+    List<ToolUsageLog> findExpired(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Query("select t from ToolUsageLog t where t.executedAt < :cutoff "
+            + "and (t.connectorName is null or t.connectorName not in :excluded) order by t.id")
+    List<ToolUsageLog> findExpiredExcludingConnectors(@Param("cutoff") LocalDateTime cutoff,
+                                                      @Param("excluded") Collection<String> excluded,
+                                                      Pageable pageable);
+
+    @Modifying
+    @Query("update ToolUsageLog t set t.chatLog = null where t.chatLog.id in :chatLogIds")
+    int detachChatLogs(@Param("chatLogIds") Collection<Long> chatLogIds);
+
+    @Modifying
+    @Query("update ToolUsageLog t set t.connection = null where t.connection.id in :connectionIds")
+    int detachConnections(@Param("connectionIds") Collection<Long> connectionIds);
 }
@@ -0,0 +1,75 @@
+package com.example.mcplogging.service;
+
+import com.example.mcplogging.config.RetentionProperties;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 보존 기간이 지난 감사 데이터를 gzip 압축 NDJSON 파일로 아카이브
+ *
+ * 파일 경로: {archiveDir}/{table}/{table}-{runId}.ndjson.gz
+ * 청크마다 gzip 멤버를 이어 붙이므로 (multi-member gzip) zcat 등으로 그대로 읽을 수 있다.
+ */
+@Slf4j
+@Component
+public class AuditArchiveWriter {
+
+    private final RetentionProperties properties;
+    private final ObjectWriter rowWriter;
+
+    public AuditArchiveWriter(RetentionProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        // 한 생성기로 여러 행을 이어 쓰므로 행 구분자를 줄바꿈으로, 행마다 flush 하지 않음
+        this.rowWriter = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * 한 청크의 행들을 아카이브 파일에 추가
+     *
+     * @return 기록된 바이트 수 (압축 후)
+     */
+    public long append(String table, String runId, List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        Path file = Paths.get(properties.getArchiveDir(), table, table + "-" + runId + ".ndjson.gz");
+        try {
+            Files.createDirectories(file.getParent());
+            long before = Files.exists(file) ? Files.size(file) : 0;
+
+            try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                 GZIPOutputStream gzip = new GZIPOutputStream(new BufferedOutputStream(out));
+                 JsonGenerator generator = rowWriter.createGenerator(gzip)) {
+                for (Map<String, Object> row : rows) {
+                    rowWriter.writeValue(generator, row);
+                }
+                generator.writeRaw('\n');
+            }
+
+            long written = Files.size(file) - before;
+            log.debug("아카이브 기록: table={}, rows={}, bytes={}, file={}", table, rows.size(), written, file);
+            return written;
+        } catch (IOException e) {
+            throw new UncheckedIOException("아카이브 기록 실패: " + file, e);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.mcplogging.service;
+
+import com.example.mcplogging.entity.AuditPayload;
+import com.example.mcplogging.repository.AuditPayloadRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 감사 로그 페이로드 저장소 (내용 주소 기반 중복 제거)
+ *
+ * 페이로드를 키 정렬 JSON으로 정규화한 뒤 MurmurHash3 x64_128 해시로 audit_payloads 행을 찾는다.
+ * 이미 있으면 그 id를 그대로 쓰고 (쓰기 없음), 없을 때만 새 행을 INSERT 한다.
+ * 참조 수는 관리하지 않으며, 참조하는 로그가 없는 행은 보존 정책 실행 시 sweep으로 정리한다.
+ * 로그 저장이 실패해 참조 없이 남은 행도 같은 방식으로 정리된다.
+ *
+ * acquire는 호출자 트랜잭션 밖에서 호출한다. 새 행은 짧은 단독 트랜잭션으로 저장하므로
+ * 동시에 같은 해시를 넣다 유니크 제약에 걸려도 기존 행을 다시 찾아 참조하면 되고, 커넥션도 한 번에 하나만 쓴다.
+ */
+@Slf4j
+@Service
+public class AuditPayloadStore {
+
+    private final AuditPayloadRepository repository;
+    private final ObjectWriter canonicalWriter;
+    private final TransactionTemplate transactionTemplate;
+
+    // Key: hash, Value: payload id (조회 생략용, sweep 후에는 전부 비움)
+    private final Cache<String, Long> ids = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .build();
+
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder deduplicatedBytes = new LongAdder();
+    private final LongAdder deleted = new LongAdder();
+
+    public AuditPayloadStore(AuditPayloadRepository repository,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        // 키 순서가 달라도 같은 내용이면 같은 해시가 되도록 Map 키 정렬
+        this.canonicalWriter = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 페이로드 id 조회, 없으면 저장 (트랜잭션 밖에서 호출)
+     *
+     * @return payload id, 페이로드가 null이면 null
+     */
+    public Long acquire(Object payload) {
+        if (payload == null) {
+            return null;
+        }
+
+        // 바이트로 바로 직렬화해 해시 (중복이면 문자열을 만들지 않음)
+        byte[] bytes = canonicalJson(payload);
+        String hash = hash(bytes);
+
+        Long id = ids.get(hash, key -> repository.findIdByHash(key).orElse(null));
+        if (id != null) {
+            deduplicated.increment();
+            deduplicatedBytes.add(bytes.length);
+            return id;
+        }
+
+        try {
+            id = transactionTemplate.execute(tx -> repository.saveAndFlush(AuditPayload.builder()
+                    .hash(hash)
+                    .content(new String(bytes, StandardCharsets.UTF_8))
+                    .sizeBytes(bytes.length)
+                    .build()).getId());
+            stored.increment();
+        } catch (DataIntegrityViolationException e) {
+            // 다른 요청이 먼저 저장함 - 기존 행 참조
+            log.debug("페이로드 동시 저장 감지: hash={}", hash);
+            id = repository.findIdByHash(hash)
+                    .orElseThrow(() -> new IllegalStateException("페이로드 저장 실패: hash=" + hash, e));
+        }
+        ids.put(hash, id);
+        return id;
+    }
+
+    /**
+     * 참조하는 로그가 없는 페이로드 삭제 (청크마다 별도 트랜잭션)
+     *
+     * @param cutoff 이 시각 이후 생성된 페이로드는 아직 로그가 저장되지 않았을 수 있으므로 제외
+     * @return 삭제된 payload 수
+     */
+    public long sweep(LocalDateTime cutoff, int batchSize) {
+        Pageable page = PageRequest.of(0, Math.max(1, batchSize));
+        long total = 0;
+        while (true) {
+            Integer removed = transactionTemplate.execute(tx -> {
+                List<Long> unreferenced = repository.findUnreferencedIds(cutoff, page);
+                repository.deleteAllByIdInBatch(unreferenced);
+                return unreferenced.size();
+            });
+            if (removed == null || removed == 0) {
+                break;
+            }
+            total += removed;
+            if (removed < page.getPageSize()) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            // 삭제된 행의 id가 남지 않도록 비움 (다음 acquire에서 다시 조회)
+            ids.invalidateAll();
+            deleted.add(total);
+        }
+        return total;
+    }
+
+    /**
+     * id 캐시 비우기 (sweep과 겹쳐 삭제된 id를 참조한 경우 다시 조회하도록)
+     */
+    public void invalidateCache() {
+        ids.invalidateAll();
+    }
+
+    /**
+     * 저장소 통계 (행 수, 신규 저장/중복 참조 수, 중복으로 절약한 바이트, 정리된 행 수)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("payloads", repository.count());
+        result.put("stored", stored.sum());
+        result.put("deduplicated", deduplicated.sum());
+        result.put("deduplicatedBytes", deduplicatedBytes.sum());
+        result.put("deleted", deleted.sum());
+        return result;
+    }
+
+    // ===== Private Helper Methods =====
+
+    private byte[] canonicalJson(Object payload) {
+        try {
+            return canonicalWriter.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("페이로드 직렬화 실패", e);
+        }
+    }
+
+    /**
+     * MurmurHash3 x64_128 (seed 0), h1/h2를 이어 붙인 32자리 hex (테스트를 위해 package-private)
+     */
+    static String hash(byte[] data) {
+        final long c1 = 0x87c37b91114253d5L;
+        final long c2 = 0x4cf5ad432745937fL;
+        long h1 = 0;
+        long h2 = 0;
+
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        int blocks = data.length / 16;
+        for (int i = 0; i < blocks; i++) {
+            long k1 = buffer.getLong(i * 16);
+            long k2 = buffer.getLong(i * 16 + 8);
+
+            h1 ^= mixK1(k1, c1, c2);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(k2, c1, c2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        int tail = blocks * 16;
+        int remaining = data.length & 15;
+        if (remaining > 8) {
+            long k2 = 0;
+            for (int i = remaining - 1; i >= 8; i--) {
+                k2 ^= (long) (data[tail + i] & 0xff) << ((i - 8) * 8);
+            }
+            h2 ^= mixK2(k2, c1, c2);
+        }
+        if (remaining > 0) {
+            long k1 = 0;
+            for (int i = Math.min(remaining, 8) - 1; i >= 0; i--) {
+                k1 ^= (long) (data[tail + i] & 0xff) << (i * 8);
+            }
+            h1 ^= mixK1(k1, c1, c2);
+        }
+
+        h1 ^= data.length;
+        h2 ^= data.length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return String.format("%016x%016x", h1, h2);
+    }
+
+    private static long mixK1(long k1, long c1, long c2) {
+        k1 *= c1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * c2;
+    }
+
+    private static long mixK2(long k2, long c1, long c2) {
+        k2 *= c2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * c1;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,323 @@
+package com.example.mcplogging.service;
+
+import com.example.mcplogging.config.RetentionProperties;
+import com.example.mcplogging.entity.AuditPayload;
+import com.example.mcplogging.entity.ChatLog;
+import com.example.mcplogging.entity.McpConnection;
+import com.example.mcplogging.entity.McpStatus;
+import com.example.mcplogging.entity.ToolUsageLog;
+import com.example.mcplogging.mcp.service.McpConnectionPoolManager;
+import com.example.mcplogging.repository.ChatLogRepository;
+import com.example.mcplogging.repository.McpConnectionRepository;
+import com.example.mcplogging.repository.ToolUsageLogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 감사 테이블 보존 정책 (TTL 삭제 + 아카이브)
+ *
+ * 대상 테이블: tool_usage_logs, chat_logs, mcp_connections
+ * tool_usage_logs 삭제 후 참조하는 로그가 없는 audit_payloads도 정리한다 (mark-and-sweep).
+ * 청크 단위로 짧은 트랜잭션을 반복하여 테이블 전체 잠금 없이 삭제한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuditRetentionService {
+
+    private static final DateTimeFormatter RUN_ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    // 최근에 저장된 페이로드는 아직 로그가 저장되지 않았을 수 있으므로 정리에서 제외
+    private static final Duration PAYLOAD_SWEEP_GRACE = Duration.ofHours(1);
+
+    private final RetentionProperties properties;
+    private final ToolUsageLogRepository toolUsageLogRepository;
+    private final ChatLogRepository chatLogRepository;
+    private final McpConnectionRepository connectionRepository;
+    private final McpConnectionPoolManager connectionPool;
+    private final AuditArchiveWriter archiveWriter;
+    private final AuditPayloadStore payloadStore;
+    private final TransactionTemplate transactionTemplate;
+
+    // 테이블별 누적 통계 (table → stats)
+    private final Map<String, TableStats> stats = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime lastRunAt;
+    private volatile long lastRunMillis;
+    private volatile String lastError;
+
+    /**
+     * 스케줄 실행
+     */
+    @Scheduled(cron = "${mcp.retention.cron:0 30 3 * * *}")
+    public void runScheduled() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            purge();
+        } catch (Exception e) {
+            log.error("보존 정책 실행 실패", e);
+        }
+    }
+
+    /**
+     * 보존 기간이 지난 데이터 아카이브 및 삭제
+     *
+     * @return 테이블별 삭제 행 수
+     */
+    public synchronized Map<String, Long> purge() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        String runId = now.format(RUN_ID_FORMAT);
+        Map<String, Long> removed = new LinkedHashMap<>();
+
+        log.info("보존 정책 실행 시작: runId={}", runId);
+        try {
+            removed.put("tool_usage_logs", purgeToolUsageLogs(now, runId));
+            removed.put("audit_payloads", payloadStore.sweep(now.minus(PAYLOAD_SWEEP_GRACE), properties.getBatchSize()));
+            removed.put("chat_logs", purgeChatLogs(now, runId));
+            removed.put("mcp_connections", purgeConnections(now, runId));
+            lastError = null;
+        } catch (RuntimeException e) {
+            lastError = e.getMessage();
+            throw e;
+        } finally {
+            lastRunAt = now;
+            lastRunMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        }
+
+        log.info("보존 정책 실행 완료: runId={}, removed={}, elapsed={}ms", runId, removed, lastRunMillis);
+        return removed;
+    }
+
+    /**
+     * 보존 정책 상태 및 통계
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> tables = new LinkedHashMap<>();
+        stats.forEach((table, s) -> tables.put(table, Map.of(
+                "archivedRows", s.archivedRows.get(),
+                "archivedBytes", s.archivedBytes.get(),
+                "deletedRows", s.deletedRows.get()
+        )));
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", properties.isEnabled());
+        status.put("cron", properties.getCron());
+        status.put("toolUsageLogDays", properties.getToolUsageLogDays());
+        status.put("connectorDays", properties.getConnectorDays());
+        status.put("chatLogDays", properties.getChatLogDays());
+        status.put("connectionDays", properties.getConnectionDays());
+        status.put("lastRunAt", lastRunAt);
+        status.put("lastRunMillis", lastRunMillis);
+        status.put("lastError", lastError);
+        status.put("tables", tables);
+        status.put("payloads", payloadStore.getStats());
+        return status;
+    }
+
+    // ===== Private Helper Methods =====
+
+    /**
+     * tool_usage_logs: 커넥터별 보존 기간 적용 후 나머지는 기본 보존 기간 적용
+     */
+    private long purgeToolUsageLogs(LocalDateTime now, String runId) {
+        Map<String, Integer> connectorDays = properties.getConnectorDays();
+        long total = 0;
+
+        for (Map.Entry<String, Integer> entry : connectorDays.entrySet()) {
+            LocalDateTime cutoff = now.minusDays(entry.getValue());
+            total += purgeInChunks("tool_usage_logs", runId,
+                    page -> toolUsageLogRepository.findExpiredByConnectorName(cutoff, entry.getKey(), page),
+                    ToolUsageLog::getId,
+                    this::toArchiveRecord,
+                    toolUsageLogRepository::deleteAllByIdInBatch);
+        }
+
+        LocalDateTime cutoff = now.minusDays(properties.getToolUsageLogDays());
+        total += purgeInChunks("tool_usage_logs", runId,
+                page -> connectorDays.isEmpty()
+                        ? toolUsageLogRepository.findExpired(cutoff, page)
+                        : toolUsageLogRepository.findExpiredExcludingConnectors(cutoff, connectorDays.keySet(), page),
+                ToolUsageLog::getId,
+                this::toArchiveRecord,
+                toolUsageLogRepository::deleteAllByIdInBatch);
+        return total;
+    }
+
+    /**
+     * chat_logs: 참조하는 tool_usage_logs의 chat_log_id를 끊은 뒤 삭제
+     */
+    private long purgeChatLogs(LocalDateTime now, String runId) {
+        LocalDateTime cutoff = now.minusDays(properties.getChatLogDays());
+        return purgeInChunks("chat_logs", runId,
+                page -> chatLogRepository.findExpired(cutoff, page),
+                ChatLog::getId,
+                this::toArchiveRecord,
+                ids -> {
+                    toolUsageLogRepository.detachChatLogs(ids);
+                    chatLogRepository.deleteAllByIdInBatch(ids);
+                });
+    }
+
+    /**
+     * mcp_connections: 해제 상태이고 풀에 없는 연결만 삭제
+     * 풀에 있는 연결은 조회에서 제외하고, 조회 후 풀에 추가된 연결은 삭제하지 않는다.
+     */
+    private long purgeConnections(LocalDateTime now, String runId) {
+        LocalDateTime cutoff = now.minusDays(properties.getConnectionDays());
+        return purgeInChunks("mcp_connections", runId,
+                page -> {
+                    Set<Long> pooledIds = connectionPool.getConnectionIds();
+                    return pooledIds.isEmpty()
+                            ? connectionRepository.findExpired(McpStatus.DISCONNECTED, cutoff, page)
+                            : connectionRepository.findExpiredExcluding(McpStatus.DISCONNECTED, cutoff, pooledIds, page);
+                },
+                connection -> !connectionPool.hasConnection(connection.getId()),
+                McpConnection::getId,
+                this::toArchiveRecord,
+                ids -> {
+                    toolUsageLogRepository.detachConnections(ids);
+                    connectionRepository.deleteAllByIdInBatch(ids);
+                });
+    }
+
+    /**
+     * 청크 단위 아카이브 + 삭제 (청크마다 별도 트랜잭션)
+     */
+    private <T> long purgeInChunks(String table,
+                                   String runId,
+                                   Function<Pageable, List<T>> fetch,
+                                   Function<T, Long> idOf,
+                                   Function<T, Map<String, Object>> toRecord,
+                                   Consumer<List<Long>> delete) {
+        return purgeInChunks(table, runId, fetch, entity -> true, idOf, toRecord, delete);
+    }
+
+    /**
+     * 청크 단위 아카이브 + 삭제 (조회한 행 중 deletable인 행만 삭제)
+     * 삭제하지 않은 행이 있어도 다음 청크를 조회하도록 종료 여부는 조회한 행 수로 판단한다.
+     */
+    private <T> long purgeInChunks(String table,
+                                   String runId,
+                                   Function<Pageable, List<T>> fetch,
+                                   Predicate<T> deletable,
+                                   Function<T, Long> idOf,
+                                   Function<T, Map<String, Object>> toRecord,
+                                   Consumer<List<Long>> delete) {
+        TableStats tableStats = stats.computeIfAbsent(table, key -> new TableStats());
+        Pageable page = PageRequest.of(0, properties.getBatchSize());
+        long total = 0;
+
+        while (true) {
+            ChunkResult result = transactionTemplate.execute(tx -> {
+                List<T> fetched = fetch.apply(page);
+                List<T> chunk = fetched.stream().filter(deletable).toList();
+                if (chunk.isEmpty()) {
+                    return new ChunkResult(fetched.size(), 0);
+                }
+
+                if (properties.isArchiveEnabled()) {
+                    long bytes = archiveWriter.append(table, runId, chunk.stream().map(toRecord).toList());
+                    tableStats.archivedRows.addAndGet(chunk.size());
+                    tableStats.archivedBytes.addAndGet(bytes);
+                }
+
+                delete.accept(chunk.stream().map(idOf).toList());
+                return new ChunkResult(fetched.size(), chunk.size());
+            });
+
+            if (result == null || result.fetched() == 0) {
+                break;
+            }
+            total += result.deleted();
+            tableStats.deletedRows.addAndGet(result.deleted());
+
+            if (result.fetched() < properties.getBatchSize()) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("보존 기간 만료 데이터 삭제: table={}, rows={}", table, total);
+        }
+        return total;
+    }
+
+    private Map<String, Object> toArchiveRecord(ToolUsageLog entity) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("id", entity.getId());
+        record.put("chatLogId", entity.getChatLog() != null ? entity.getChatLog().getId() : null);
+        record.put("connectionId", entity.getConnection() != null ? entity.getConnection().getId() : null);
+        record.put("connectorName", entity.getConnectorName());
+        record.put("toolName", entity.getToolName());
+        record.put("toolParameters", payloadContent(entity.getToolParametersPayload(), entity.getToolParameters()));
+        record.put("toolResponse", entity.getToolResponse());
+        record.put("mcpRequestRaw", payloadContent(entity.getMcpRequestPayload(), entity.getMcpRequestRaw()));
+        record.put("mcpResponseRaw", entity.getMcpResponseRaw());
+        record.put("executedAt", entity.getExecutedAt());
+        return record;
+    }
+
+    /**
+     * 페이로드 참조가 있으면 그 내용, 없으면 (이전 기록) 행에 저장된 값
+     */
+    private static String payloadContent(AuditPayload payload, String legacy) {
+        return payload != null ? payload.getContent() : legacy;
+    }
+
+    private Map<String, Object> toArchiveRecord(ChatLog entity) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("id", entity.getId());
+        record.put("userId", entity.getUserId());
+        record.put("question", entity.getQuestion());
+        record.put("answer", entity.getAnswer());
+        record.put("createdAt", entity.getCreatedAt());
+        return record;
+    }
+
+    private Map<String, Object> toArchiveRecord(McpConnection entity) {
+        // envConfig에는 토큰이 포함될 수 있으므로 아카이브하지 않음
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("id", entity.getId());
+        record.put("connectorId", entity.getConnector() != null ? entity.getConnector().getId() : null);
+        record.put("userId", entity.getUserId());
+        record.put("status", entity.getStatus());
+        record.put("connectedAt", entity.getConnectedAt());
+        record.put("lastUsedAt", entity.getLastUsedAt());
+        record.put("lastError", entity.getLastError());
+        record.put("createdAt", entity.getCreatedAt());
+        return record;
+    }
+
+    /**
+     * 테이블별 누적 통계
+     */
+    private record ChunkResult(int fetched, int deleted) {
+    }
+
+    private static class TableStats {
+        final AtomicLong archivedRows = new AtomicLong();
+        final AtomicLong archivedBytes = new AtomicLong();
+        final AtomicLong deletedRows = new AtomicLong();
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.mcplogging.service;
+
+import com.example.mcplogging.config.CatalogViewProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 사용자/팀별 도구 카탈로그 뷰
+ *
+ * 설정된 allow/deny 패턴을 시작 시 한 번 컴파일하고, 사용자 → 뷰 매핑도 미리 펼쳐 둔다.
+ * 통합 카탈로그에 대한 뷰는 패턴별 BitSet을 OR/ANDNOT으로 합쳐 만들며,
+ * 결과는 McpToolsListCache가 카탈로그 버전마다 한 번만 계산해 보관한다.
+ */
+@Slf4j
+@Component
+public class McpCatalogViews {
+
+    private final Map<String, CompiledView> views = new LinkedHashMap<>();
+
+    // Key: userId, Value: viewName
+    private final Map<String, String> userViews = new HashMap<>();
+
+    private final String defaultView;
+
+    public McpCatalogViews(CatalogViewProperties properties) {
+        properties.getViews().forEach((name, view) -> views.put(name, new CompiledView(
+                view.getAllow().stream().map(Rule::compile).toList(),
+                view.getDeny().stream().map(Rule::compile).toList())));
+
+        // 사용자 직접 지정이 팀 지정보다 우선
+        properties.getViews().forEach((name, view) -> view.getUsers().forEach(userId -> assign(userId, name)));
+        properties.getViews().forEach((name, view) -> view.getTeams().forEach(team -> {
+            List<String> members = properties.getTeams().get(team);
+            if (members == null) {
+                throw new IllegalStateException("정의되지 않은 팀: " + team + " (view=" + name + ")");
+            }
+            members.forEach(userId -> userViews.putIfAbsent(userId, name));
+        }));
+
+        defaultView = properties.getDefaultView() != null && !properties.getDefaultView().isBlank()
+                ? properties.getDefaultView()
+                : null;
+        if (defaultView != null && !views.containsKey(defaultView)) {
+            throw new IllegalStateException("정의되지 않은 기본 카탈로그 뷰: " + defaultView);
+        }
+
+        if (!views.isEmpty()) {
+            log.info("카탈로그 뷰 {} 개 로드: users={}, defaultView={}", views.size(), userViews.size(), defaultView);
+        }
+    }
+
+    /**
+     * 사용자에게 적용할 뷰 이름 (제한이 없으면 null)
+     */
+    public String viewFor(String userId) {
+        return userViews.getOrDefault(userId, defaultView);
+    }
+
+    /**
+     * 사용자가 도구를 볼 수 있는지 (tools/call 허용 여부 확인용)
+     */
+    public boolean allows(String userId, String connectorName, String toolName) {
+        String viewName = viewFor(userId);
+        return viewName == null || views.get(viewName).allows(connectorName, toolName);
+    }
+
+    /**
+     * 사용자가 커넥터의 도구 중 하나라도 볼 수 있는지 (목록 변경 알림 대상 확인용)
+     */
+    public boolean allowsAny(String userId, String connectorName, Collection<String> toolNames) {
+        String viewName = viewFor(userId);
+        if (viewName == null) {
+            return true;
+        }
+        CompiledView view = views.get(viewName);
+        return toolNames.stream().anyMatch(toolName -> view.allows(connectorName, toolName));
+    }
+
+    /**
+     * 통합 카탈로그에서 뷰에 포함되는 도구 위치
+     *
+     * @param qualifiedNames 카탈로그 도구 이름 (connector__toolName), 순서가 BitSet 위치
+     */
+    public BitSet select(String viewName, List<String> qualifiedNames) {
+        CompiledView view = views.get(viewName);
+        if (view == null) {
+            throw new IllegalArgumentException("Unknown catalog view: " + viewName);
+        }
+
+        int size = qualifiedNames.size();
+        String[] connectors = new String[size];
+        String[] tools = new String[size];
+        for (int i = 0; i < size; i++) {
+            String[] parts = qualifiedNames.get(i).split("__", 2);
+            connectors[i] = parts[0];
+            tools[i] = parts.length == 2 ? parts[1] : "";
+        }
+
+        BitSet selected = new BitSet(size);
+        if (view.allow.isEmpty()) {
+            selected.set(0, size);
+        } else {
+            view.allow.forEach(rule -> selected.or(rule.match(connectors, tools)));
+        }
+        view.deny.forEach(rule -> selected.andNot(rule.match(connectors, tools)));
+        return selected;
+    }
+
+    // ===== Private Helper Methods =====
+
+    private void assign(String userId, String viewName) {
+        String previous = userViews.putIfAbsent(userId, viewName);
+        if (previous != null && !previous.equals(viewName)) {
+            log.warn("사용자 {} 가 여러 뷰에 지정됨 - {} 사용 ({} 무시)", userId, previous, viewName);
+        }
+    }
+
+    private record CompiledView(List<Rule> allow, List<Rule> deny) {
+
+        boolean allows(String connectorName, String toolName) {
+            return (allow.isEmpty() || allow.stream().anyMatch(rule -> rule.matches(connectorName, toolName)))
+                    && deny.stream().noneMatch(rule -> rule.matches(connectorName, toolName));
+        }
+    }
+
+    /**
+     * "커넥터/도구" 패턴 (* 와일드카드)
+     */
+    private record Rule(Pattern connector, Pattern tool) {
+
+        static Rule compile(String pattern) {
+            int slash = pattern.indexOf('/');
+            return slash < 0
+                    ? new Rule(glob(pattern), glob("*"))
+                    : new Rule(glob(pattern.substring(0, slash)), glob(pattern.substring(slash + 1)));
+        }
+
+        boolean matches(String connectorName, String toolName) {
+            return connector.matcher(connectorName).matches() && tool.matcher(toolName).matches();
+        }
+
+        BitSet match(String[] connectors, String[] tools) {
+            BitSet bits = new BitSet(connectors.length);
+            for (int i = 0; i < connectors.length; i++) {
+                if (matches(connectors[i], tools[i])) {
+                    bits.set(i);
+                }
+            }
+            return bits;
+        }
+
+        private static Pattern glob(String glob) {
+            return Pattern.compile(Pattern.quote(glob.trim()).replace("*", "\\E.*\\Q"));
+        }
+    }
+}
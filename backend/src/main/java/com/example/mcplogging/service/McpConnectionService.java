@@ -3,9 +3,10 @@ package com.example.mcplogging.mcp.service;
 import com.example.mcplogging.entity.McpConnection;
 import com.example.mcplogging.entity.McpConnector;
 import com.example.mcplogging.entity.McpStatus;
+import com.example.mcplogging.config.ReplicaProperties;
 import com.example.mcplogging.enums.McpTransportType;
 import com.example.mcplogging.repository.McpConnectionRepository;
-import com.example.mcplogging.repository.McpConnectorRepository;
+import com.example.mcplogging.service.McpConnectorRegistry;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.modelcontextprotocol.client.McpClient;
@@ -15,18 +16,37 @@ import io.modelcontextprotocol.client.transport.HttpClientStreamableHttpTranspor
 import io.modelcontextprotocol.client.transport.ServerParameters;
 import io.modelcontextprotocol.client.transport.StdioClientTransport;
 import io.modelcontextprotocol.json.McpJsonMapper;
+import io.modelcontextprotocol.spec.McpError;
 import io.modelcontextprotocol.spec.McpSchema;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 /**
  * MCP 연결 관리 서비스
@@ -38,94 +58,153 @@ import java.util.Map;
 public class McpConnectionService {
 
     private final McpConnectionRepository connectionRepository;
-    private final McpConnectorRepository connectorRepository;
+    private final McpConnectorRegistry connectorRegistry;
     private final McpConnectionPoolManager connectionPool;
+    private final McpConnectionUsageTracker usageTracker;
+    private final McpConnectionRegistry connectionRegistry;
+    private final McpStdioLauncher stdioLauncher;
+    private final McpProcessSupervisor processSupervisor;
+    private final McpShutdownCoordinator shutdownCoordinator;
+    private final McpHttpClientProvider httpClientProvider;
+    private final McpNotificationHub notificationHub;
+    private final McpToolResultCache resultCache;
+    private final ReplicaProperties replicaProperties;
+    private final McpHedgingPolicy hedgingPolicy;
     private final ObjectMapper objectMapper;
 
+    // 연결 식별자(connectorId:userId:envFingerprint)별 생성/해제 잠금
+    private final McpConnectionLocks connectLocks = new McpConnectionLocks();
+
     /**
      * Connector 이름으로 조회
      */
     public McpConnector getConnectorByName(String name) {
-        return connectorRepository.findByName(name)
-                .orElseThrow(() -> new IllegalArgumentException("Connector not found: " + name));
+        McpConnector connector = connectorRegistry.getByName(name);
+        if (connector == null) {
+            throw new IllegalArgumentException("Connector not found: " + name);
+        }
+        return connector;
     }
 
     /**
      * MCP 서버 연결
+     *
+     * (connector, userId, 환경 변수 지문)이 같은 연결 행과 활성 클라이언트가 있으면 재사용하고,
+     * 없을 때만 행을 추가하거나 새 클라이언트를 생성한다.
      */
-    @Transactional
     public Mono<McpConnection> connect(Long connectorId, String userId, Map<String, String> environment) {
         // 1. Connector 조회
-        McpConnector connector = connectorRepository.findById(connectorId)
-                .orElseThrow(() -> new IllegalArgumentException("Connector not found: " + connectorId));
-
-        // 2. McpConnection 엔티티 생성 (DB에 저장)
-        McpConnection connection = McpConnection.builder()
-                .connector(connector)
-                .userId(userId)
-                .status(McpStatus.DISCONNECTED)
-                .envConfig(serializeEnvironment(environment))
-                .connectedAt(null)
-                .lastError(null)
-                .build();
+        McpConnector connector = connectorRegistry.getById(connectorId);
+        if (connector == null) {
+            throw new IllegalArgumentException("Connector not found: " + connectorId);
+        }
 
-        McpConnection savedConnection = connectionRepository.save(connection);
-        final Long connectionId = savedConnection.getId();
+        String envFingerprint = fingerprintEnvironment(environment);
+        String identity = identity(connectorId, userId, envFingerprint);
 
-        // 3-4. McpSyncClient 생성 및 초기화
         return Mono.fromCallable(() -> {
+            shutdownCoordinator.ensureAccepting();
+
+            // 같은 식별자에 대한 동시 연결 요청은 직렬화하여 클라이언트를 하나만 생성
+            connectLocks.lock(identity);
             try {
-                McpSyncClient client = createMcpClient(connector, environment);
-
-                // 연결 성공 처리
-                McpConnection conn = connectionRepository.findById(connectionId).orElseThrow();
-                conn.setStatus(McpStatus.CONNECTED);
-                conn.setConnectedAt(LocalDateTime.now());
-                conn.setLastError(null);
-                connectionRepository.save(conn);
-
-                // 연결 풀에 추가
-                connectionPool.addConnection(connectionId, client);
-
-                log.info("MCP 연결 성공: connectionId={}", connectionId);
-                return savedConnection;
-            } catch (Exception e) {
-                // 연결 실패 처리
-                McpConnection conn = connectionRepository.findById(connectionId).orElse(null);
-                if (conn != null) {
-                    conn.setStatus(McpStatus.DISCONNECTED);
-                    conn.setLastError(e.getMessage());
-                    connectionRepository.save(conn);
+                // 2. McpConnection 조회 또는 생성 (upsert)
+                McpConnection connection = findOrCreateConnection(connector, userId, environment, envFingerprint);
+                final Long connectionId = connection.getId();
+
+                // 3. 이미 활성 클라이언트가 있으면 재사용
+                if (connectionPool.acquire(connectionId)) {
+                    return connection;
                 }
-                log.error("MCP 연결 실패: connectionId={}", connectionId, e);
-                throw new RuntimeException("MCP 연결 실패: " + e.getMessage(), e);
+
+                // 4. McpSyncClient 생성 및 초기화 (복제본 설정이 있으면 복제본 수만큼)
+                try {
+                    McpReplicaSet replicas = createReplicas(connectionId, connector, environment);
+
+                    // 연결 성공 처리 (단일 UPDATE)
+                    LocalDateTime connectedAt = LocalDateTime.now();
+                    connectionRepository.updateStatus(connectionId, McpStatus.CONNECTED, connectedAt, null);
+                    connection.setStatus(McpStatus.CONNECTED);
+                    connection.setConnectedAt(connectedAt);
+                    connection.setLastError(null);
+
+                    // 연결 풀 및 메타데이터 레지스트리에 추가
+                    connectionPool.addConnection(connectionId, replicas);
+                    connectionRegistry.register(new McpConnectionDescriptor(
+                            connectionId, connector.getId(), connector.getName(), userId, envFingerprint, connectedAt));
+
+                    log.info("MCP 연결 성공: connectionId={}", connectionId);
+                    return connection;
+                } catch (Exception e) {
+                    // 연결 실패 처리 (단일 UPDATE)
+                    connectionRepository.updateStatus(connectionId, McpStatus.DISCONNECTED, null, e.getMessage());
+                    log.error("MCP 연결 실패: connectionId={}", connectionId, e);
+                    throw new RuntimeException("MCP 연결 실패: " + e.getMessage(), e);
+                }
+            } finally {
+                connectLocks.unlock(identity);
             }
         });
     }
 
     /**
      * MCP 서버 연결 해제
+     *
+     * 다른 세션이 같은 연결을 사용 중이면 참조 수만 줄이고 클라이언트는 유지한다.
+     * 같은 식별자의 connect와 번갈아 실행되면 활성 연결의 행이 DISCONNECTED로 남으므로 connect와 같은 잠금을 잡는다.
      */
-    @Transactional
     public Mono<Void> disconnect(Long connectionId) {
         return Mono.fromRunnable(() -> {
-            // 1. DB에서 연결 조회
-            McpConnection connection = connectionRepository.findById(connectionId)
-                    .orElseThrow(() -> new IllegalArgumentException("Connection not found: " + connectionId));
-
-            // 2. 연결 풀에서 클라이언트 제거
-            connectionPool.removeConnection(connectionId).ifPresent(client -> {
-                // 3. 클라이언트 연결 해제
-                client.close();
-            });
+            // 종료 중에는 McpShutdownCoordinator가 일괄 정리
+            if (shutdownCoordinator.isShuttingDown()) {
+                return;
+            }
 
-            // 4. DB 상태 업데이트
-            connection.setStatus(McpStatus.DISCONNECTED);
-            connection.setConnectedAt(null);
-            connectionRepository.save(connection);
+            String identity = connectionIdentity(connectionId);
+            connectLocks.lock(identity);
+            try {
+                releaseConnection(connectionId);
+            } finally {
+                connectLocks.unlock(identity);
+            }
+        });
+    }
 
-            log.info("MCP 연결 해제: connectionId={}", connectionId);
+    private void releaseConnection(Long connectionId) {
+        // 1. 연결 풀에서 참조 해제 후 마지막 참조였다면 클라이언트 연결 해제
+        connectionPool.release(connectionId).ifPresent(replicas -> {
+            connectionRegistry.remove(connectionId);
+            processSupervisor.stop(connectionId, replicas::close);
         });
+
+        if (connectionPool.hasConnection(connectionId)) {
+            log.info("MCP 연결 참조 해제 (다른 세션에서 사용 중): connectionId={}", connectionId);
+            return;
+        }
+
+        // 2. DB 상태 업데이트 (단일 UPDATE)
+        int updated = connectionRepository.updateStatusAndClearConnectedAt(connectionId, McpStatus.DISCONNECTED);
+        if (updated == 0) {
+            throw new IllegalArgumentException("Connection not found: " + connectionId);
+        }
+
+        log.info("MCP 연결 해제: connectionId={}", connectionId);
+    }
+
+    /**
+     * 연결 식별자 (활성 연결은 레지스트리, 아니면 연결 행에서 조회)
+     */
+    private String connectionIdentity(Long connectionId) {
+        return connectionRegistry.get(connectionId)
+                .map(descriptor -> identity(descriptor.connectorId(), descriptor.userId(), descriptor.envFingerprint()))
+                .orElseGet(() -> connectionRepository.findById(connectionId)
+                        .map(connection -> identity(connection.getConnector().getId(), connection.getUserId(),
+                                connection.getEnvFingerprint()))
+                        .orElseThrow(() -> new IllegalArgumentException("Connection not found: " + connectionId)));
+    }
+
+    private static String identity(Long connectorId, String userId, String envFingerprint) {
+        return connectorId + ":" + userId + ":" + envFingerprint;
     }
 
     /**
@@ -136,6 +215,14 @@ public class McpConnectionService {
                 .orElseThrow(() -> new IllegalArgumentException("Connection not found: " + connectionId));
     }
 
+    /**
+     * 활성 연결 메타데이터 조회 (DB 조회 없음)
+     */
+    public McpConnectionDescriptor getConnectionDescriptor(Long connectionId) {
+        return connectionRegistry.get(connectionId)
+                .orElseThrow(() -> new IllegalStateException("Connection not active: " + connectionId));
+    }
+
     /**
      * 사용자의 모든 연결 조회
      */
@@ -144,13 +231,43 @@ public class McpConnectionService {
     }
 
     /**
-     * 도구 목록 조회
+     * 도구 목록 조회 (nextCursor를 따라 모든 페이지를 합침)
      */
     public Mono<McpSchema.ListToolsResult> listTools(Long connectionId) {
+        return listToolPages(connectionId)
+                .concatMapIterable(McpSchema.ListToolsResult::tools)
+                .collectList()
+                .map(tools -> new McpSchema.ListToolsResult(tools, null));
+    }
+
+    /**
+     * 도구 목록 페이지 단위 조회 (업스트림 nextCursor가 없을 때까지 다음 페이지 요청)
+     * 같은 커서가 다시 오면 업스트림 오류로 보고 중단한다.
+     */
+    public Flux<McpSchema.ListToolsResult> listToolPages(Long connectionId) {
+        Set<String> seenCursors = ConcurrentHashMap.newKeySet();
+        return listToolPage(connectionId, null)
+                .expand(page -> {
+                    String cursor = page.nextCursor();
+                    if (cursor == null || cursor.isEmpty()) {
+                        return Mono.empty();
+                    }
+                    if (!seenCursors.add(cursor)) {
+                        return Mono.error(new IllegalStateException("도구 목록 커서 반복: " + cursor));
+                    }
+                    return listToolPage(connectionId, cursor);
+                });
+    }
+
+    private Mono<McpSchema.ListToolsResult> listToolPage(Long connectionId, String cursor) {
         return Mono.fromCallable(() -> {
-            McpSyncClient client = connectionPool.getConnection(connectionId)
-                    .orElseThrow(() -> new IllegalStateException("Connection not active: " + connectionId));
-            return client.listTools(null);  // cursor parameter
+            shutdownCoordinator.enterCall();
+            try {
+                McpSchema.ListToolsResult page = onReplica(connectionId, null, client -> client.listTools(cursor));
+                return page.tools() != null ? page : new McpSchema.ListToolsResult(List.of(), page.nextCursor());
+            } finally {
+                shutdownCoordinator.exitCall();
+            }
         });
     }
 
@@ -158,34 +275,439 @@ public class McpConnectionService {
      * 도구 실행
      */
     public Mono<McpSchema.CallToolResult> callTool(Long connectionId, String toolName, Map<String, Object> arguments) {
-        return Mono.fromCallable(() -> {
-            McpSyncClient client = connectionPool.getConnection(connectionId)
-                    .orElseThrow(() -> new IllegalStateException("Connection not active: " + connectionId));
+        return callTool(connectionId, toolName, arguments, null);
+    }
+
+    /**
+     * 도구 실행 (_meta 포함, 예: progressToken)
+     */
+    public Mono<McpSchema.CallToolResult> callTool(Long connectionId, String toolName, Map<String, Object> arguments,
+                                                   Map<String, Object> meta) {
+        return executeTool(connectionId, toolName, arguments, meta).map(McpToolInvocation::result);
+    }
+
+    /**
+     * 도구 실행 - 결과 캐시 적중 여부 포함 (감사 로그용)
+     */
+    public Mono<McpToolInvocation> executeTool(Long connectionId, String toolName, Map<String, Object> arguments,
+                                               Map<String, Object> meta) {
+        return executeTool(connectionId, toolName, arguments, meta, null);
+    }
 
-            McpSchema.CallToolRequest request = new McpSchema.CallToolRequest(toolName, arguments);
-            return client.callTool(request);
+    /**
+     * 도구 실행 - 복제본이 있는 연결은 routingKey(세션 ID 등)를 일관된 해싱 라우팅에 사용
+     */
+    public Mono<McpToolInvocation> executeTool(Long connectionId, String toolName, Map<String, Object> arguments,
+                                               Map<String, Object> meta, String routingKey) {
+        return Mono.fromCallable(() -> {
+            // 종료 중에는 새 호출을 거부하고, 진행 중인 호출은 종료 조정자가 완료를 기다린다
+            shutdownCoordinator.enterCall();
+            try {
+                if (!connectionPool.hasConnection(connectionId)) {
+                    throw new IllegalStateException("Connection not active: " + connectionId);
+                }
+                McpConnectionDescriptor connection = connectionRegistry.get(connectionId).orElse(null);
+
+                McpToolInvocation invocation = resultCache.call(connection, toolName, arguments,
+                        () -> invokeTool(connectionId, connection, routingKey,
+                                new McpSchema.CallToolRequest(toolName, arguments, meta)));
+                usageTracker.touch(connectionId);
+                return invocation;
+            } finally {
+                shutdownCoordinator.exitCall();
+            }
         });
     }
 
+    /**
+     * 복제본별 상태 (복제본이 있는 활성 연결만)
+     */
+    public List<Map<String, Object>> getReplicaStats() {
+        return connectionPool.getReplicatedConnections().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> {
+                    Map<String, Object> stats = new LinkedHashMap<>();
+                    stats.put("connectionId", entry.getKey());
+                    stats.put("connector", entry.getValue().getConnectorName());
+                    stats.put("routing", entry.getValue().getRouting());
+                    stats.put("replicas", entry.getValue().getStats());
+                    return stats;
+                })
+                .toList();
+    }
+
     // ===== Private Helper Methods =====
 
+    /**
+     * 업스트림 도구 호출 - hedge 대상(읽기 전용 도구, 사용 가능한 복제본 2개 이상)이면 hedgedCall
+     */
+    private McpSchema.CallToolResult invokeTool(Long connectionId, McpConnectionDescriptor connection, String routingKey,
+                                                McpSchema.CallToolRequest request) {
+        McpReplicaSet replicas = connectionPool.getReplicas(connectionId)
+                .orElseThrow(() -> new IllegalStateException("Connection not active: " + connectionId));
+        String connectorName = connection != null ? connection.connectorName() : null;
+        long delayNanos = hedgingPolicy.hedgeDelayNanos(connectorName, request.name(), replicas);
+        if (delayNanos < 0) {
+            return onReplica(connectionId, routingKey, client -> client.callTool(request));
+        }
+        return hedgedCall(replicas, routingKey, connectorName, request, delayNanos);
+    }
+
+    /**
+     * hedged 요청 - 첫 시도는 호출 스레드에서 실행하고, delayNanos 안에 응답하지 않으면 예산 안에서 다른 복제본에도 보낸다.
+     * hedge가 먼저 성공하면 호출 스레드를 중단해 첫 시도를 취소하고, 첫 시도가 먼저 끝나면 hedge를 취소한다
+     * (읽기 전용 도구이므로 업스트림에서 끝까지 실행되어도 무방).
+     */
+    private McpSchema.CallToolResult hedgedCall(McpReplicaSet replicas, String routingKey, String connectorName,
+                                                McpSchema.CallToolRequest request, long delayNanos) {
+        McpReplicaSet.Replica replica = replicas.choose(routingKey);
+        McpSyncClient client = replica.client();
+        if (client == null) {
+            throw new IllegalStateException("복제본 연결 없음: " + connectorName);
+        }
+
+        PrimaryAttempt primary = new PrimaryAttempt(Thread.currentThread());
+        Disposable timer = delayNanos == Long.MAX_VALUE
+                ? null
+                : Schedulers.parallel().schedule(
+                        () -> startHedge(replicas, replica, primary, connectorName, request),
+                        delayNanos, TimeUnit.NANOSECONDS);
+
+        long startedAt = System.nanoTime();
+        replicas.begin(replica);
+        McpSchema.CallToolResult result = null;
+        RuntimeException failure = null;
+        try {
+            result = client.callTool(request);
+        } catch (RuntimeException e) {
+            failure = e;
+        } finally {
+            if (timer != null) {
+                timer.dispose();
+            }
+        }
+
+        if (!primary.finish()) {
+            // hedge가 먼저 성공해 중단됨 - 첫 시도 지연은 취소 시점까지의 경과 시간(하한값)으로 기록
+            primary.clearInterrupt();
+            replicas.cancelled(replica);
+            hedgingPolicy.recordLatency(connectorName, request.name(), System.nanoTime() - startedAt);
+            hedgingPolicy.recordHedgeWin();
+            return primary.winner().future.join();
+        }
+
+        HedgeAttempt hedge = primary.hedge();
+        if (failure == null) {
+            replicas.end(replica, true);
+            hedgingPolicy.recordLatency(connectorName, request.name(), System.nanoTime() - startedAt);
+            if (hedge != null) {
+                hedge.cancel();
+            }
+            return result;
+        }
+        if (isInterruption(failure) || Thread.currentThread().isInterrupted()) {
+            // 호출 취소 (notifications/cancelled)
+            replicas.cancelled(replica);
+            if (hedge != null) {
+                hedge.cancel();
+            }
+            throw failure;
+        }
+        replicas.end(replica, failure instanceof McpError);
+        if (hedge == null) {
+            throw failure;
+        }
+
+        // 첫 시도 실패 - 진행 중인 hedge 결과 사용
+        try {
+            McpSchema.CallToolResult hedged = hedge.future.get();
+            hedgingPolicy.recordHedgeWin();
+            return hedged;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("도구 호출 실패: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            hedge.cancel();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("도구 호출이 중단됨", e);
+        }
+    }
+
+    /**
+     * 기준 지연이 지난 뒤 첫 시도가 아직 진행 중이면 다른 복제본에 hedge 시작 (타이머 스레드, 블로킹 없음)
+     */
+    private void startHedge(McpReplicaSet replicas, McpReplicaSet.Replica first, PrimaryAttempt primary,
+                            String connectorName, McpSchema.CallToolRequest request) {
+        if (!primary.isRunning()) {
+            return;
+        }
+        McpReplicaSet.Replica other = replicas.chooseOther(first);
+        if (other == null) {
+            hedgingPolicy.recordNoReplica();
+            return;
+        }
+        if (!hedgingPolicy.tryHedge()) {
+            return;
+        }
+
+        log.debug("hedged 요청: connector={}, tool={}, replica={} -> {}",
+                connectorName, request.name(), first.index(), other.index());
+        HedgeAttempt hedge = new HedgeAttempt(replicas, other, connectorName, request, primary);
+        if (!primary.attach(hedge)) {
+            // 그 사이 첫 시도가 끝남
+            hedge.cancel();
+        }
+    }
+
+    /**
+     * 복제본을 골라 호출 (진행 중인 호출 수/연속 실패 기록)
+     * 업스트림이 JSON-RPC 에러로 응답한 경우(McpError)는 복제본 장애로 보지 않고,
+     * 호출 취소로 스레드가 중단된 경우는 진행 중인 호출 수만 되돌린다.
+     */
+    private <T> T onReplica(Long connectionId, String routingKey, Function<McpSyncClient, T> call) {
+        McpReplicaSet replicas = connectionPool.getReplicas(connectionId)
+                .orElseThrow(() -> new IllegalStateException("Connection not active: " + connectionId));
+        McpReplicaSet.Replica replica = replicas.choose(routingKey);
+        McpSyncClient client = replica.client();
+        if (client == null) {
+            throw new IllegalStateException("Connection not active: " + connectionId);
+        }
+
+        replicas.begin(replica);
+        T result;
+        try {
+            result = call.apply(client);
+        } catch (McpError e) {
+            replicas.end(replica, true);
+            throw e;
+        } catch (RuntimeException | Error e) {
+            if (isInterruption(e) || Thread.currentThread().isInterrupted()) {
+                replicas.cancelled(replica);
+            } else {
+                replicas.end(replica, false);
+            }
+            throw e;
+        }
+        replicas.end(replica, true);
+        return result;
+    }
+
+    private static boolean isInterruption(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * hedged 요청의 첫 시도 (호출 스레드에서 실행)
+     * 호출 스레드가 먼저 끝내거나(finish), hedge가 먼저 성공해 호출 스레드를 중단한다(cancelBy).
+     */
+    private static final class PrimaryAttempt {
+        private final Thread thread;
+        private boolean finished;
+        private HedgeAttempt hedge;
+        private HedgeAttempt winner;
+        private volatile boolean interruptSent;
+
+        PrimaryAttempt(Thread thread) {
+            this.thread = thread;
+        }
+
+        synchronized boolean isRunning() {
+            return !finished;
+        }
+
+        /**
+         * 진행 중인 hedge 등록 (첫 시도가 이미 끝났으면 false)
+         */
+        synchronized boolean attach(HedgeAttempt attempt) {
+            if (finished) {
+                return false;
+            }
+            hedge = attempt;
+            return true;
+        }
+
+        synchronized HedgeAttempt hedge() {
+            return hedge;
+        }
+
+        synchronized HedgeAttempt winner() {
+            return winner;
+        }
+
+        /**
+         * 호출 스레드가 첫 시도를 마침 (hedge가 먼저 성공해 취소됐으면 false)
+         */
+        synchronized boolean finish() {
+            if (finished) {
+                return false;
+            }
+            finished = true;
+            return true;
+        }
+
+        /**
+         * hedge가 먼저 성공 - 첫 시도가 진행 중이면 호출 스레드 중단
+         */
+        void cancelBy(HedgeAttempt attempt) {
+            synchronized (this) {
+                if (finished) {
+                    return;
+                }
+                finished = true;
+                winner = attempt;
+            }
+            thread.interrupt();
+            interruptSent = true;
+        }
+
+        /**
+         * cancelBy의 중단 신호가 도착한 뒤 호출 스레드의 중단 상태 해제
+         */
+        void clearInterrupt() {
+            while (!interruptSent) {
+                Thread.onSpinWait();
+            }
+            Thread.interrupted();
+        }
+    }
+
+    /**
+     * hedged 요청의 hedge 시도 (별도 스레드에서 실행, 취소되면 실행 스레드 중단)
+     * 먼저 성공하면 첫 시도를 취소하고, 취소된 hedge는 진행 중인 호출 수만 되돌린다
+     * (hedge는 기준 지연 뒤에 시작하므로 경과 시간을 기록하면 지연 표본이 짧은 쪽으로 치우침).
+     */
+    private final class HedgeAttempt {
+        final CompletableFuture<McpSchema.CallToolResult> future;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+
+        HedgeAttempt(McpReplicaSet replicas, McpReplicaSet.Replica replica, String connectorName,
+                     McpSchema.CallToolRequest request, PrimaryAttempt primary) {
+            McpSyncClient client = replica.client();
+            if (client == null) {
+                this.future = CompletableFuture.failedFuture(new IllegalStateException("복제본 연결 없음: " + connectorName));
+                return;
+            }
+
+            long startedAt = System.nanoTime();
+            replicas.begin(replica);
+            this.future = Mono.fromCallable(() -> client.callTool(request))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .toFuture();
+            this.future.whenComplete((result, error) -> {
+                if (cancelled.get()) {
+                    replicas.cancelled(replica);
+                    return;
+                }
+                replicas.end(replica, error == null || error instanceof McpError);
+                if (error == null) {
+                    hedgingPolicy.recordLatency(connectorName, request.name(), System.nanoTime() - startedAt);
+                    primary.cancelBy(this);
+                }
+            });
+        }
+
+        void cancel() {
+            if (!future.isDone() && cancelled.compareAndSet(false, true)) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * 연결의 클라이언트 생성 - 복제본 설정이 없으면 단일 클라이언트
+     * 복제본은 순서대로 시작하며 (STDIO 프로세스 식별을 위해), 일부만 실패하면 실패한 복제본은 상태 확인 때 다시 만든다.
+     */
+    private McpReplicaSet createReplicas(Long connectionId, McpConnector connector, Map<String, String> environment) {
+        ReplicaProperties.Replicas config = replicaProperties.replicasFor(connector.getName());
+        List<String> targets = replicaTargets(connector, config);
+        if (targets.size() == 1) {
+            return McpReplicaSet.single(connector.getName(), targets.get(0),
+                    createMcpClient(connectionId, 0, connector, targets.get(0), environment));
+        }
+
+        McpReplicaSet replicas = new McpReplicaSet(connector.getName(), config.getRouting(),
+                replicaProperties.getEjectAfterFailures(), replicaProperties.getEjectDuration().toNanos(), targets,
+                index -> createMcpClient(connectionId, index, connector, targets.get(index), environment));
+        int started = 0;
+        RuntimeException lastError = null;
+        for (int i = 0; i < targets.size(); i++) {
+            try {
+                replicas.setClient(i, createMcpClient(connectionId, i, connector, targets.get(i), environment));
+                started++;
+            } catch (RuntimeException e) {
+                log.warn("복제본 시작 실패: connectionId={}, replica={}, target={}", connectionId, i, targets.get(i), e);
+                replicas.setClient(i, null);
+                lastError = e;
+            }
+        }
+        if (started == 0) {
+            throw lastError;
+        }
+        log.info("복제본 {}/{} 개 시작: connectionId={}, connector={}, routing={}",
+                started, targets.size(), connectionId, connector.getName(), replicas.getRouting());
+        return replicas;
+    }
+
+    /**
+     * 복제본 대상 - HTTP 커넥터에 urls가 있으면 각 URL, 아니면 같은 대상을 count 개
+     */
+    private List<String> replicaTargets(McpConnector connector, ReplicaProperties.Replicas config) {
+        boolean http = connector.getTransportType() == McpTransportType.SSE
+                || connector.getTransportType() == McpTransportType.STREAMABLE_HTTP;
+        if (config != null && http && !config.getUrls().isEmpty()) {
+            return List.copyOf(config.getUrls());
+        }
+        String target = http ? connector.getServerUrl() : "stdio";
+        return Collections.nCopies(config != null ? Math.max(1, config.getCount()) : 1, target);
+    }
+
+    /**
+     * STDIO 프로세스 비정상 종료 후 복제본 클라이언트 재생성 (참조 수는 유지)
+     */
+    private void restartClient(Long connectionId, int replica, McpConnector connector, Map<String, String> environment) {
+        McpSyncClient client = createMcpClient(connectionId, replica, connector, null, environment);
+        McpSyncClient stale = connectionPool.getReplicas(connectionId)
+                .map(replicas -> replicas.setClient(replica, client))
+                .orElse(client);
+        if (stale == client) {
+            // 재시작 중 연결이 해제된 경우 새 프로세스도 정리
+            processSupervisor.stop(connectionId, client::close);
+            return;
+        }
+        if (stale != null) {
+            stale.close();
+        }
+        log.info("MCP 클라이언트 재시작 완료: connectionId={}, replica={}", connectionId, replica);
+    }
+
     /**
      * MCP 클라이언트 생성
+     *
+     * @param replica   복제본 번호 (복제본이 없으면 0)
+     * @param serverUrl HTTP 커넥터의 접속 URL (복제본 URL 또는 connector.serverUrl)
      */
-    private McpSyncClient createMcpClient(McpConnector connector, Map<String, String> environment) {
+    private McpSyncClient createMcpClient(Long connectionId, int replica, McpConnector connector, String serverUrl,
+                                          Map<String, String> environment) {
         if (connector.getTransportType() == McpTransportType.SSE) {
             // SSE Client
-            String serverUrl = connector.getServerUrl();
             if (serverUrl == null || serverUrl.isBlank()) {
                 throw new IllegalArgumentException("SSE transport는 serverUrl이 필요합니다.");
             }
 
             log.info("SSE Transport로 MCP 서버 연결: {}", serverUrl);
             HttpClientSseClientTransport transport = HttpClientSseClientTransport.builder(serverUrl)
+                .clientBuilder(httpClientProvider.clientBuilder(serverUrl))
                 .build();
 
-            McpSyncClient client = McpClient.sync(transport)
-                .requestTimeout(Duration.ofSeconds(30))
+            McpSyncClient client = clientSpec(McpClient.sync(transport), connectionId, connector)
                 .build();
 
             client.initialize();
@@ -194,26 +716,33 @@ public class McpConnectionService {
 
         if (connector.getTransportType() == McpTransportType.STREAMABLE_HTTP) {
             // Streamable HTTP Client (권장 방식)
-            String serverUrl = connector.getServerUrl();
             if (serverUrl == null || serverUrl.isBlank()) {
                 throw new IllegalArgumentException("Streamable HTTP transport는 serverUrl이 필요합니다.");
             }
 
             log.info("Streamable HTTP Transport로 MCP 서버 연결: {}", serverUrl);
             HttpClientStreamableHttpTransport transport = HttpClientStreamableHttpTransport.builder(serverUrl)
+                .clientBuilder(httpClientProvider.clientBuilder(serverUrl))
                 .build();
 
-            McpSyncClient client = McpClient.sync(transport)
-                .requestTimeout(Duration.ofSeconds(30))
+            McpSyncClient client = clientSpec(McpClient.sync(transport), connectionId, connector)
                 .build();
 
             client.initialize();
             return client;
         }
 
-        // STDIO Client
-        List<String> args = parseArgs(connector.getArgs());
-        String command = connector.getCommand();
+        // STDIO Client (npx 커넥터는 캐시된 패키지로 직접 실행)
+        McpStdioLauncher.LaunchSpec launch = stdioLauncher.resolve(connector, parseArgs(connector.getArgs()));
+        // 리소스 제한 적용 (Linux는 ulimit 래퍼로 실행)
+        List<String> commandLine = new java.util.ArrayList<>();
+        commandLine.add(launch.command());
+        if (launch.args() != null) {
+            commandLine.addAll(launch.args());
+        }
+        commandLine = processSupervisor.applyLimits(connector.getName(), commandLine);
+        String command = commandLine.get(0);
+        List<String> args = commandLine.subList(1, commandLine.size());
 
         // Windows 환경 처리
         ServerParameters.Builder paramsBuilder;
@@ -240,17 +769,52 @@ public class McpConnectionService {
         }
 
         ServerParameters stdioParams = paramsBuilder.build();
-        StdioClientTransport transport = new StdioClientTransport(stdioParams, McpJsonMapper.createDefault());
 
-        McpSyncClient client = McpClient.sync(transport)
-            .requestTimeout(Duration.ofSeconds(30))
+        // 감시자가 자식 프로세스를 식별할 수 있도록 실행 표식을 환경 변수로 전달
+        String launchId = processSupervisor.newLaunchId();
+        StdioClientTransport transport = new StdioClientTransport(stdioParams, McpJsonMapper.createDefault()) {
+            @Override
+            protected ProcessBuilder getProcessBuilder() {
+                ProcessBuilder builder = super.getProcessBuilder();
+                builder.environment().put(McpProcessSupervisor.LAUNCH_ID_ENV, launchId);
+                return builder;
+            }
+        };
+        Instant launchedAt = Instant.now();
+
+        McpSyncClient client = clientSpec(McpClient.sync(transport), connectionId, connector)
             .build();
 
-        // 연결 초기화
-        client.initialize();
+        // 연결 초기화 (프로세스 시작 ~ initialize 완료 시간 기록)
+        long start = System.currentTimeMillis();
+        try {
+            client.initialize();
+            stdioLauncher.recordLaunch(connector.getName(), launch.resolved(), System.currentTimeMillis() - start, true);
+        } catch (RuntimeException e) {
+            stdioLauncher.recordLaunch(connector.getName(), launch.resolved(), System.currentTimeMillis() - start, false);
+            client.close();
+            stdioLauncher.release(launch);
+            throw e;
+        }
+
+        // 프로세스가 끝나면 캐시된 설치본 사용 해제 (프로세스를 찾지 못하면 설치본을 계속 사용 중으로 둠)
+        processSupervisor.track(connectionId, replica, connector.getName(), launchId, launchedAt,
+                        () -> restartClient(connectionId, replica, connector, environment))
+                .ifPresent(handle -> handle.onExit().thenRun(() -> stdioLauncher.release(launch)));
         return client;
     }
 
+    /**
+     * 공통 클라이언트 설정 (요청 타임아웃, 업스트림 알림 전달)
+     */
+    private McpClient.SyncSpec clientSpec(McpClient.SyncSpec spec, Long connectionId, McpConnector connector) {
+        return spec
+                .requestTimeout(Duration.ofSeconds(30))
+                .progressConsumer(notificationHub::onProgress)
+                .loggingConsumer(notification -> notificationHub.onLogging(connectionId, connector.getName(), notification))
+                .toolsChangeConsumer(tools -> notificationHub.onToolsChanged(connector.getName(), tools));
+    }
+
     /**
      * Windows 환경 확인
      */
@@ -273,6 +837,45 @@ public class McpConnectionService {
         }
     }
 
+    /**
+     * 연결 행 조회, 없으면 생성
+     */
+    private McpConnection findOrCreateConnection(McpConnector connector, String userId,
+                                                 Map<String, String> environment, String envFingerprint) {
+        McpConnection connection = connectionRepository
+                .findFirstByConnectorIdAndUserIdAndEnvFingerprintOrderByIdDesc(connector.getId(), userId, envFingerprint)
+                .orElseGet(() -> connectionRepository.save(McpConnection.builder()
+                        .connector(connector)
+                        .userId(userId)
+                        .status(McpStatus.DISCONNECTED)
+                        .envConfig(serializeEnvironment(environment))
+                        .envFingerprint(envFingerprint)
+                        .connectedAt(null)
+                        .lastError(null)
+                        .build()));
+
+        // 트랜잭션 밖에서도 connector 정보를 읽을 수 있도록 로드된 엔티티로 교체
+        connection.setConnector(connector);
+        return connection;
+    }
+
+    /**
+     * 환경 변수 지문 계산 (키 정렬 후 SHA-256)
+     */
+    private String fingerprintEnvironment(Map<String, String> environment) {
+        StringBuilder canonical = new StringBuilder();
+        if (environment != null) {
+            new TreeMap<>(environment).forEach((key, value) ->
+                    canonical.append(key).append('=').append(value).append('\n'));
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     /**
      * 환경 변수를 JSON 문자열로 직렬화
      */
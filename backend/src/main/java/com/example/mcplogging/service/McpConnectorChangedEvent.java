@@ -0,0 +1,7 @@
+package com.example.mcplogging.service;
+
+/**
+ * 커넥터 생성/변경 이벤트 (커밋 후 커넥터 레지스트리 갱신용)
+ */
+public record McpConnectorChangedEvent(Long connectorId) {
+}
@@ -0,0 +1,123 @@
+package com.example.mcplogging.service;
+
+import com.example.mcplogging.entity.McpConnector;
+import com.example.mcplogging.repository.McpConnectorRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 메모리 커넥터 레지스트리 (copy-on-write)
+ *
+ * 시작 시와 커넥터 변경 커밋 후에만 DB에서 전체를 읽어 불변 스냅샷으로 교체한다.
+ * 요청 경로의 조회는 volatile 읽기 + HashMap 조회만 수행한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class McpConnectorRegistry {
+
+    private static final Snapshot EMPTY = new Snapshot(0, List.of(), List.of(), Map.of(), Map.of());
+
+    private final McpConnectorRepository connectorRepository;
+
+    private volatile Snapshot snapshot = EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConnectorChanged(McpConnectorChangedEvent event) {
+        log.info("커넥터 변경 감지: connectorId={}", event.connectorId());
+        reload();
+    }
+
+    /**
+     * DB에서 커넥터 전체를 다시 읽어 스냅샷 교체
+     */
+    public synchronized void reload() {
+        List<McpConnector> all = connectorRepository.findAll().stream()
+                .sorted(Comparator.comparing(McpConnector::getId))
+                .toList();
+
+        Map<String, McpConnector> byName = new HashMap<>();
+        Map<Long, McpConnector> byId = new HashMap<>();
+        for (McpConnector connector : all) {
+            byName.put(connector.getName(), connector);
+            byId.put(connector.getId(), connector);
+        }
+        List<McpConnector> enabled = all.stream()
+                .filter(connector -> Boolean.TRUE.equals(connector.getEnabled()))
+                .toList();
+
+        snapshot = new Snapshot(snapshot.version() + 1, all, enabled, Map.copyOf(byName), Map.copyOf(byId));
+        log.info("커넥터 레지스트리 갱신: version={}, 전체={}, 활성={}", snapshot.version(), all.size(), enabled.size());
+    }
+
+    /**
+     * 모든 커넥터 (불변 리스트)
+     */
+    public List<McpConnector> getAll() {
+        return current().all();
+    }
+
+    /**
+     * 활성화된 커넥터 (불변 리스트)
+     */
+    public List<McpConnector> getEnabled() {
+        return current().enabled();
+    }
+
+    /**
+     * 이름으로 조회 (없으면 null)
+     */
+    public McpConnector getByName(String name) {
+        return current().byName().get(name);
+    }
+
+    /**
+     * ID로 조회 (없으면 null)
+     */
+    public McpConnector getById(Long id) {
+        return current().byId().get(id);
+    }
+
+    /**
+     * 스냅샷 버전 (갱신될 때마다 증가)
+     */
+    public long version() {
+        return current().version();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == EMPTY) {
+            // 시작 이벤트 이전에 호출된 경우
+            reload();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    /**
+     * 불변 스냅샷
+     */
+    private record Snapshot(
+            long version,
+            List<McpConnector> all,
+            List<McpConnector> enabled,
+            Map<String, McpConnector> byName,
+            Map<Long, McpConnector> byId
+    ) {
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.mcplogging.service;
 
+import com.example.mcplogging.dto.McpConnectorCreateRequest;
 import com.example.mcplogging.dto.McpConnectorDto;
 import com.example.mcplogging.entity.McpConnector;
 import com.example.mcplogging.enums.McpServerType;
 import com.example.mcplogging.repository.McpConnectorRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,12 +20,14 @@ import java.util.List;
 public class McpConnectorService {
 
     private final McpConnectorRepository connectorRepository;
+    private final McpConnectorRegistry connectorRegistry;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 활성화된 모든 커넥터 목록 조회 (커넥터 둘러보기)
      */
     public List<McpConnectorDto> getAvailableConnectors() {
-        return connectorRepository.findByEnabledTrue()
+        return connectorRegistry.getEnabled()
                 .stream()
                 .map(McpConnectorDto::from)
                 .toList();
@@ -33,8 +37,9 @@ public class McpConnectorService {
      * 타입별 커넥터 목록 조회
      */
     public List<McpConnectorDto> getConnectorsByType(McpServerType type) {
-        return connectorRepository.findByType(type)
+        return connectorRegistry.getAll()
                 .stream()
+                .filter(connector -> connector.getType() == type)
                 .map(McpConnectorDto::from)
                 .toList();
     }
@@ -43,8 +48,10 @@ public class McpConnectorService {
      * 커넥터 상세 조회
      */
     public McpConnectorDto getConnector(Long id) {
-        McpConnector connector = connectorRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Connector not found: " + id));
+        McpConnector connector = connectorRegistry.getById(id);
+        if (connector == null) {
+            throw new IllegalArgumentException("Connector not found: " + id);
+        }
         return McpConnectorDto.from(connector);
     }
 
@@ -52,8 +59,10 @@ public class McpConnectorService {
      * 커넥터 이름으로 조회
      */
     public McpConnectorDto getConnectorByName(String name) {
-        McpConnector connector = connectorRepository.findByName(name)
-                .orElseThrow(() -> new IllegalArgumentException("Connector not found: " + name));
+        McpConnector connector = connectorRegistry.getByName(name);
+        if (connector == null) {
+            throw new IllegalArgumentException("Connector not found: " + name);
+        }
         return McpConnectorDto.from(connector);
     }
 
@@ -61,6 +70,53 @@ public class McpConnectorService {
      * 모든 커넥터 조회 (Entity)
      */
     public List<McpConnector> getAllConnectors() {
-        return connectorRepository.findAll();
+        return connectorRegistry.getAll();
+    }
+
+    /**
+     * 커넥터 생성 (커밋 후 레지스트리 갱신)
+     */
+    @Transactional
+    public McpConnectorDto createConnector(McpConnectorCreateRequest request) {
+        if (connectorRepository.findByName(request.getName()).isPresent()) {
+            throw new IllegalArgumentException("Connector already exists: " + request.getName());
+        }
+
+        McpConnector connector = connectorRepository.save(McpConnector.builder()
+                .name(request.getName())
+                .description(request.getDescription())
+                .type(request.getType())
+                .transportType(request.getTransportType())
+                .command(request.getCommand())
+                .args(request.getArgs())
+                .serverUrl(request.getServerUrl())
+                .envTemplate(request.getEnvTemplate())
+                .enabled(request.getEnabled() != null ? request.getEnabled() : true)
+                .build());
+
+        log.info("커넥터 생성: id={}, name={}", connector.getId(), connector.getName());
+        eventPublisher.publishEvent(new McpConnectorChangedEvent(connector.getId()));
+        return McpConnectorDto.from(connector);
+    }
+
+    /**
+     * 커넥터 활성화/비활성화 (커밋 후 레지스트리 갱신)
+     */
+    @Transactional
+    public McpConnectorDto updateEnabled(Long id, boolean enabled) {
+        McpConnector connector = connectorRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Connector not found: " + id));
+        connector.setEnabled(enabled);
+
+        log.info("커넥터 활성화 변경: id={}, enabled={}", id, enabled);
+        eventPublisher.publishEvent(new McpConnectorChangedEvent(id));
+        return McpConnectorDto.from(connector);
+    }
+
+    /**
+     * 커넥터 레지스트리 수동 갱신
+     */
+    public void reloadRegistry() {
+        connectorRegistry.reload();
     }
 }
@@ -1,12 +1,16 @@
 package com.example.mcplogging.service;
 
-import com.example.mcplogging.entity.McpConnection;
+import com.example.mcplogging.config.JsonRpcProperties;
+import com.example.mcplogging.entity.ToolCallOutcome;
 import com.example.mcplogging.entity.ToolUsageLog;
+import com.example.mcplogging.mcp.service.McpConnectionDescriptor;
 import com.example.mcplogging.mcp.service.McpConnectionService;
-import com.example.mcplogging.repository.ToolUsageLogRepository;
+import com.example.mcplogging.mcp.service.McpNotificationHub;
+import com.example.mcplogging.mcp.service.McpShutdownCoordinator;
+import com.example.mcplogging.mcp.service.McpToolInvocation;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.modelcontextprotocol.client.McpSyncClient;
 import io.modelcontextprotocol.spec.McpSchema;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.codec.ServerSentEvent;
@@ -15,6 +19,7 @@ import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -30,12 +35,22 @@ import java.util.concurrent.ConcurrentHashMap;
 public class McpProxyService {
 
     private final McpConnectionService connectionService;
-    private final ToolUsageLogRepository toolUsageLogRepository;
+    private final ToolUsageAuditService auditService;
+    private final McpShutdownCoordinator shutdownCoordinator;
+    private final JsonRpcProperties jsonRpcProperties;
+    private final McpNotificationHub notificationHub;
+    private final McpCatalogViews catalogViews;
     private final ObjectMapper objectMapper;
 
     // 활성 프록시 세션 관리 (sessionId → connection)
     private final Map<String, ProxySession> activeSessions = new ConcurrentHashMap<>();
 
+    @PostConstruct
+    void registerHooks() {
+        shutdownCoordinator.registerSessionCloser(this::closeAllSessions);
+        notificationHub.addLoggingListener(this::onUpstreamLog);
+    }
+
     /**
      * SSE Proxy 스트림 생성
      */
@@ -53,7 +68,8 @@ public class McpProxyService {
 
             // 2. 세션 생성
             Sinks.Many<ServerSentEvent<String>> sink = Sinks.many().multicast().onBackpressureBuffer();
-            ProxySession session = new ProxySession(sessionId, connection.getId(), userId, sink);
+            McpConnectionDescriptor descriptor = connectionService.getConnectionDescriptor(connection.getId());
+            ProxySession session = new ProxySession(sessionId, descriptor, userId, sink);
             activeSessions.put(sessionId, session);
 
             log.info("프록시 세션 생성: sessionId={}, connectionId={}", sessionId, connection.getId());
@@ -102,9 +118,10 @@ public class McpProxyService {
             }
 
             // 3. 메서드별 처리
+            boolean[] cacheHit = new boolean[1];
             Map<String, Object> response = switch (method) {
-                case "tools/list" -> handleToolsList(session.connectionId, id);
-                case "tools/call" -> handleToolsCall(session.connectionId, id, params);
+                case "tools/list" -> handleToolsList(session, id);
+                case "tools/call" -> handleToolsCall(session, id, params, cacheHit);
                 case "initialize" -> handleInitialize(session.connectionId, id, params);
                 default -> {
                     log.warn("Unknown method: {}", method);
@@ -113,24 +130,61 @@ public class McpProxyService {
             };
 
             // 4. 응답 로깅
-            logToolUsage(session.connectionId, method, params, response);
+            logToolUsage(session.connection, method, params, response, cacheHit[0]);
 
             return response;
         });
     }
 
     /**
-     * tools/list 처리
+     * JSON-RPC 배치 처리
+     * 항목을 최대 mcp.jsonrpc.batch-concurrency 개까지 동시에 처리하고 응답은 요청 순서대로 모은다.
+     * notification은 응답 없음
      */
-    private Map<String, Object> handleToolsList(Long connectionId, Object id) {
+    public Mono<List<Map<String, Object>>> handleJsonRpcBatch(
+            String connectorName,
+            String userId,
+            String sessionId,
+            List<?> messages
+    ) {
+        int concurrency = Math.max(1, jsonRpcProperties.getBatchConcurrency());
+        return Flux.fromIterable(messages)
+                .flatMapSequential(message -> dispatchAny(connectorName, userId, sessionId, message)
+                        .subscribeOn(Schedulers.boundedElastic()), concurrency)
+                .collectList();
+    }
+
+    /**
+     * 배치 항목 처리 - 객체가 아니면 Invalid Request, 실패는 에러 응답으로 변환
+     */
+    @SuppressWarnings("unchecked")
+    private Mono<Map<String, Object>> dispatchAny(String connectorName, String userId, String sessionId, Object message) {
+        if (!(message instanceof Map<?, ?> map)) {
+            return Mono.just(createErrorResponse(null, -32600, "Invalid Request"));
+        }
+        Map<String, Object> request = (Map<String, Object>) map;
+        Mono<Map<String, Object>> response = handleJsonRpcMessage(connectorName, userId, sessionId, request)
+                .onErrorResume(error -> {
+                    log.error("배치 항목 처리 에러: method={}", request.get("method"), error);
+                    return Mono.just(createErrorResponse(request.get("id"), -32603, "Internal error: " + error.getMessage()));
+                });
+        return request.containsKey("id") ? response : response.then(Mono.empty());
+    }
+
+    /**
+     * tools/list 처리 (사용자 카탈로그 뷰에 포함된 도구만)
+     */
+    private Map<String, Object> handleToolsList(ProxySession session, Object id) {
         try {
-            McpSchema.ListToolsResult result = connectionService.listTools(connectionId).block();
+            McpSchema.ListToolsResult result = connectionService.listTools(session.connectionId).block();
+            String connectorName = session.connection.connectorName();
 
             return Map.of(
                     "jsonrpc", "2.0",
                     "id", id,
                     "result", Map.of(
                             "tools", result.tools().stream()
+                                    .filter(tool -> catalogViews.allows(session.userId, connectorName, tool.name()))
                                     .map(tool -> Map.of(
                                             "name", tool.name(),
                                             "description", tool.description() != null ? tool.description() : "",
@@ -148,7 +202,7 @@ public class McpProxyService {
     /**
      * tools/call 처리
      */
-    private Map<String, Object> handleToolsCall(Long connectionId, Object id, Object params) {
+    private Map<String, Object> handleToolsCall(ProxySession session, Object id, Object params, boolean[] cacheHit) {
         try {
             @SuppressWarnings("unchecked")
             Map<String, Object> paramsMap = (Map<String, Object>) params;
@@ -156,7 +210,28 @@ public class McpProxyService {
             @SuppressWarnings("unchecked")
             Map<String, Object> arguments = (Map<String, Object>) paramsMap.get("arguments");
 
-            McpSchema.CallToolResult result = connectionService.callTool(connectionId, toolName, arguments).block();
+            if (!catalogViews.allows(session.userId, session.connection.connectorName(), toolName)) {
+                return createErrorResponse(id, -32602, "Unknown tool: " + toolName);
+            }
+
+            // 클라이언트가 progressToken을 보냈으면 프록시 토큰으로 바꿔 전달하고 알림은 SSE 스트림으로 보낸다
+            Object progressToken = paramsMap.get("_meta") instanceof Map<?, ?> meta ? meta.get("progressToken") : null;
+            String upstreamToken = progressToken != null
+                    ? notificationHub.registerProgress(progress ->
+                            sendNotification(session, notificationHub.progressMessage(progressToken, progress)))
+                    : null;
+
+            McpToolInvocation invocation;
+            try {
+                invocation = connectionService.executeTool(session.connectionId, toolName, arguments,
+                        upstreamToken != null ? Map.of("progressToken", upstreamToken) : null).block();
+            } finally {
+                if (upstreamToken != null) {
+                    notificationHub.unregisterProgress(upstreamToken);
+                }
+            }
+            McpSchema.CallToolResult result = invocation.result();
+            cacheHit[0] = invocation.cacheHit();
 
             return Map.of(
                     "jsonrpc", "2.0",
@@ -196,39 +271,75 @@ public class McpProxyService {
      * 에러 응답 생성
      */
     private Map<String, Object> createErrorResponse(Object id, int code, String message) {
-        return Map.of(
-                "jsonrpc", "2.0",
-                "id", id != null ? id : null,
-                "error", Map.of(
-                        "code", code,
-                        "message", message
-                )
-        );
+        Map<String, Object> response = new HashMap<>();
+        response.put("jsonrpc", "2.0");
+        response.put("id", id);  // null 허용 (Invalid Request)
+        response.put("error", Map.of(
+                "code", code,
+                "message", message
+        ));
+        return response;
     }
 
     /**
      * 도구 사용 로깅
      */
-    private void logToolUsage(Long connectionId, String method, Object params, Map<String, Object> response) {
+    private void logToolUsage(McpConnectionDescriptor connection, String method, Object params,
+                              Map<String, Object> response, boolean cacheHit) {
         try {
-            McpConnection connection = connectionService.getConnectionStatus(connectionId);
-
             ToolUsageLog log = ToolUsageLog.builder()
-                    .connection(connection)
+                    .connectorName(connection.connectorName())
                     .toolName(method)
-                    .toolParameters(objectMapper.writeValueAsString(params))
-                    .mcpRequestRaw(objectMapper.writeValueAsString(Map.of("method", method, "params", params)))
                     .mcpResponseRaw(objectMapper.writeValueAsString(response))
                     .toolResponse(objectMapper.writeValueAsString(response.get("result")))
+                    .outcome(response.containsKey("error") ? ToolCallOutcome.ERROR : ToolCallOutcome.SUCCESS)
+                    .cacheHit(cacheHit)
                     .executedAt(LocalDateTime.now())
                     .build();
 
-            toolUsageLogRepository.save(log);
+            auditService.record(connection.connectionId(), log,
+                    params, Map.of("method", method, "params", params));
         } catch (Exception e) {
             this.log.error("도구 사용 로깅 실패", e);
         }
     }
 
+    /**
+     * 업스트림 로그 알림 - 해당 연결의 프록시 세션 SSE 스트림으로 전달
+     */
+    private void onUpstreamLog(Long connectionId, McpSchema.LoggingMessageNotification notification) {
+        Map<String, Object> message = notificationHub.loggingMessage(notification);
+        activeSessions.values().stream()
+                .filter(session -> session.connectionId.equals(connectionId))
+                .forEach(session -> sendNotification(session, message));
+    }
+
+    /**
+     * SSE 스트림으로 JSON-RPC 알림 전송
+     */
+    private void sendNotification(ProxySession session, Map<String, Object> notification) {
+        try {
+            String data = objectMapper.writeValueAsString(notification);
+            synchronized (session.sink) {
+                session.sink.tryEmitNext(ServerSentEvent.<String>builder()
+                        .event("message")
+                        .data(data)
+                        .build());
+            }
+        } catch (Exception e) {
+            log.warn("알림 전송 실패: sessionId={}", session.sessionId, e);
+        }
+    }
+
+    /**
+     * 모든 세션 종료 (서버 종료 시 SSE 스트림 완료)
+     */
+    private void closeAllSessions() {
+        log.info("프록시 세션 전체 종료: {} 개", activeSessions.size());
+        activeSessions.values().forEach(session -> session.sink.tryEmitComplete());
+        activeSessions.clear();
+    }
+
     /**
      * 활성 프록시 목록 조회
      */
@@ -250,12 +361,14 @@ public class McpProxyService {
     private static class ProxySession {
         final String sessionId;
         final Long connectionId;
+        final McpConnectionDescriptor connection;
         final String userId;
         final Sinks.Many<ServerSentEvent<String>> sink;
 
-        ProxySession(String sessionId, Long connectionId, String userId, Sinks.Many<ServerSentEvent<String>> sink) {
+        ProxySession(String sessionId, McpConnectionDescriptor connection, String userId, Sinks.Many<ServerSentEvent<String>> sink) {
             this.sessionId = sessionId;
-            this.connectionId = connectionId;
+            this.connectionId = connection.connectionId();
+            this.connection = connection;
             this.userId = userId;
             this.sink = sink;
         }
@@ -0,0 +1,71 @@
+package com.example.mcplogging.service;
+
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 커넥터별 도구 목록 캐시
+ * 업스트림에 연결하지 않고 tools/list에 응답하기 위해 사용 (세션 간 공유)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class McpToolCatalog {
+
+    private final McpConnectorRegistry connectorRegistry;
+
+    // Key: connectorName, Value: 도구 목록
+    private final Map<String, CatalogEntry> entries = new ConcurrentHashMap<>();
+
+    // 카탈로그가 바뀔 때마다 증가
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * 캐시된 도구 목록 조회 (없거나 커넥터 설정이 바뀌었으면 null)
+     */
+    public List<McpSchema.Tool> getTools(String connectorName) {
+        CatalogEntry entry = entries.get(connectorName);
+        if (entry == null || entry.registryVersion != connectorRegistry.version()) {
+            return null;
+        }
+        return entry.tools;
+    }
+
+    /**
+     * 도구 목록 저장 (내용이 바뀐 경우에만 버전 증가)
+     */
+    public void putTools(String connectorName, List<McpSchema.Tool> tools) {
+        List<McpSchema.Tool> copy = List.copyOf(tools);
+        CatalogEntry previous = entries.put(connectorName, new CatalogEntry(copy, connectorRegistry.version()));
+        if (previous == null || !previous.tools.equals(copy)) {
+            version.incrementAndGet();
+            log.debug("도구 카탈로그 갱신: connector={}, tools={}", connectorName, tools.size());
+        }
+    }
+
+    /**
+     * 커넥터의 도구 목록 무효화
+     */
+    public void invalidate(String connectorName) {
+        if (entries.remove(connectorName) != null) {
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * 카탈로그 버전
+     */
+    public long version() {
+        return version.get();
+    }
+
+    private record CatalogEntry(List<McpSchema.Tool> tools, long registryVersion) {
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.mcplogging.service;
+
+import com.example.mcplogging.config.UnifiedProxyProperties;
+import com.example.mcplogging.dto.McpMessages;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 직렬화된 tools/list 결과 캐시
+ *
+ * (노출 커넥터 목록, 카탈로그 버전, 커넥터 설정 버전)마다 통합 도구 목록을 한 번만 만들어 두고,
+ * 페이지별 result JSON도 처음 요청될 때 한 번만 직렬화한다. 응답할 때는 JSON-RPC id만 붙여 전송한다.
+ * etag는 전체 목록 내용의 해시이므로 내용이 같으면 재시작 후에도 같다.
+ *
+ * mcp.unified.tools-page-size가 0보다 크면 그 크기로 나눠 nextCursor를 붙인다.
+ * 커서는 (etag, 시작 위치)이므로 목록이 바뀐 뒤의 커서는 Invalid cursor로 거절된다.
+ * 페이지는 이미 모은 통합 목록을 나눈 것이며, 업스트림 목록은 커넥터마다 모든 페이지를 받아 메모리에 합친다.
+ *
+ * 사용자/팀 카탈로그 뷰는 통합 목록마다 한 번 BitSet으로 골라 별도 목록(etag, 페이지 포함)으로 보관한다.
+ */
+@Slf4j
+@Component
+public class McpToolsListCache {
+
+    private final UnifiedProxyProperties properties;
+    private final McpCatalogViews catalogViews;
+    private final ObjectWriter toolsWriter;
+
+    private final Cache<Key, Catalog> catalogs = Caffeine.newBuilder()
+            .maximumSize(64)
+            .build();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder renders = new LongAdder();
+    private final LongAdder pageRenders = new LongAdder();
+    private final LongAdder viewRenders = new LongAdder();
+
+    public McpToolsListCache(UnifiedProxyProperties properties, McpCatalogViews catalogViews, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.catalogViews = catalogViews;
+        this.toolsWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, McpMessages.ToolDescriptor.class));
+    }
+
+    /**
+     * 캐시된 목록 조회 (없으면 null)
+     */
+    public Catalog get(List<String> connectorNames, long catalogVersion, long registryVersion) {
+        Catalog cached = catalogs.getIfPresent(new Key(connectorNames, catalogVersion, registryVersion));
+        if (cached != null) {
+            hits.increment();
+        }
+        return cached;
+    }
+
+    /**
+     * 커넥터별 도구 목록으로 통합 목록을 만들어 캐시
+     *
+     * @param complete 모든 커넥터의 목록을 가져온 경우 true (일부 실패한 결과는 캐시하지 않음)
+     */
+    public Catalog render(List<String> connectorNames, long catalogVersion, long registryVersion,
+                          Map<String, List<McpSchema.Tool>> toolsByConnector, boolean complete) {
+        Key key = new Key(connectorNames, catalogVersion, registryVersion);
+        if (complete) {
+            Catalog cached = catalogs.getIfPresent(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+
+        List<McpMessages.ToolDescriptor> tools = new ArrayList<>();
+        toolsByConnector.forEach((connectorName, connectorTools) -> connectorTools.forEach(tool -> tools.add(
+                new McpMessages.ToolDescriptor(
+                        // 도구 이름에 커넥터 prefix 추가
+                        connectorName + "__" + tool.name(),
+                        "[" + connectorName + "] " + (tool.description() != null ? tool.description() : ""),
+                        tool.inputSchema() != null ? tool.inputSchema() : Map.of()
+                ))));
+
+        Catalog catalog = build(tools);
+        renders.increment();
+        if (complete) {
+            catalogs.put(key, catalog);
+        }
+        log.debug("tools/list 목록 생성: connectors={}, tools={}", connectorNames.size(), tools.size());
+        return catalog;
+    }
+
+    /**
+     * 카탈로그 뷰에 해당하는 목록 (통합 목록마다 한 번만 계산)
+     */
+    public Catalog view(Catalog catalog, String viewName) {
+        return catalog.views.computeIfAbsent(viewName, name -> {
+            BitSet selected = catalogViews.select(name, catalog.tools.stream()
+                    .map(McpMessages.ToolDescriptor::name)
+                    .toList());
+            viewRenders.increment();
+            return build(selected.stream().mapToObj(catalog.tools::get).toList());
+        });
+    }
+
+    /**
+     * 커서 위치의 페이지 (커서가 없으면 첫 페이지)
+     *
+     * @throws IllegalArgumentException 커서가 잘못됐거나 목록이 바뀐 경우
+     */
+    public McpMessages.RenderedToolsList page(Catalog catalog, String cursor) {
+        int offset = cursor != null ? parseCursor(catalog, cursor) : 0;
+        return catalog.pages.computeIfAbsent(offset, start -> {
+            int end = Math.min(catalog.tools.size(), start + catalog.pageSize);
+            String nextCursor = end < catalog.tools.size() ? cursor(catalog.etag, end) : null;
+            pageRenders.increment();
+            return toResult(serialize(catalog.tools.subList(start, end)), nextCursor, catalog.etag, false);
+        });
+    }
+
+    /**
+     * 변경 없음 응답 (목록 없이 etag만 포함)
+     */
+    public McpMessages.RenderedToolsList notModified(Catalog catalog) {
+        return toResult("[]".getBytes(StandardCharsets.UTF_8), null, catalog.etag, true);
+    }
+
+    /**
+     * 캐시 통계
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("entries", catalogs.estimatedSize());
+        result.put("hits", hits.sum());
+        result.put("renders", renders.sum());
+        result.put("pageRenders", pageRenders.sum());
+        result.put("viewRenders", viewRenders.sum());
+        result.put("pageSize", properties.getToolsPageSize());
+        return result;
+    }
+
+    // ===== Private Helper Methods =====
+
+    private Catalog build(List<McpMessages.ToolDescriptor> tools) {
+        byte[] toolsJson = serialize(tools);
+        Catalog catalog = new Catalog(List.copyOf(tools), etag(toolsJson), Math.max(0, properties.getToolsPageSize()));
+        if (catalog.pageSize == 0 || tools.size() <= catalog.pageSize) {
+            // 한 페이지로 충분하면 전체 직렬화 결과를 그대로 사용
+            catalog.pages.put(0, toResult(toolsJson, null, catalog.etag, false));
+        }
+        return catalog;
+    }
+
+    private byte[] serialize(List<McpMessages.ToolDescriptor> tools) {
+        try {
+            return toolsWriter.writeValueAsBytes(tools);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("tools/list 직렬화 실패", e);
+        }
+    }
+
+    /**
+     * {"tools":[...],"nextCursor":"...","_meta":{"etag":"...",...}} 형태의 result 바이트 구성
+     */
+    private McpMessages.RenderedToolsList toResult(byte[] toolsJson, String nextCursor, String etag, boolean notModified) {
+        Map<String, Object> meta = new LinkedHashMap<>();
+        meta.put("etag", etag);
+        if (notModified) {
+            meta.put("notModified", true);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(toolsJson.length + 128);
+        out.writeBytes("{\"tools\":".getBytes(StandardCharsets.UTF_8));
+        out.writeBytes(toolsJson);
+        if (nextCursor != null) {
+            // 커서는 base64url 문자만 사용하므로 이스케이프 불필요
+            out.writeBytes((",\"nextCursor\":\"" + nextCursor + "\"").getBytes(StandardCharsets.UTF_8));
+        }
+        out.writeBytes((",\"_meta\":{\"etag\":\"" + etag + "\"" + (notModified ? ",\"notModified\":true" : "") + "}}")
+                .getBytes(StandardCharsets.UTF_8));
+
+        return new McpMessages.RenderedToolsList(new String(toolsJson, StandardCharsets.UTF_8), nextCursor, meta,
+                out.toByteArray(), etag);
+    }
+
+    private static String cursor(String etag, int offset) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((etag + ":" + offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int parseCursor(Catalog catalog, String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            int offset = Integer.parseInt(decoded.substring(separator + 1));
+            if (separator > 0 && decoded.substring(0, separator).equals(catalog.etag)
+                    && catalog.pageSize > 0 && offset > 0 && offset < catalog.tools.size()
+                    && offset % catalog.pageSize == 0) {
+                return offset;
+            }
+        } catch (IllegalArgumentException e) {
+            // 형식 오류 - 아래에서 거절
+        }
+        throw new IllegalArgumentException("Invalid cursor");
+    }
+
+    private static String etag(byte[] toolsJson) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(toolsJson);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 통합 도구 목록 (카탈로그 버전별) 과 페이지별 직렬화 결과
+     */
+    public static final class Catalog {
+        private final List<McpMessages.ToolDescriptor> tools;
+        private final String etag;
+        private final int pageSize;
+
+        // Key: 시작 위치, Value: 직렬화된 페이지
+        private final Map<Integer, McpMessages.RenderedToolsList> pages = new ConcurrentHashMap<>();
+
+        // Key: viewName, Value: 뷰에 해당하는 목록
+        private final Map<String, Catalog> views = new ConcurrentHashMap<>();
+
+        private Catalog(List<McpMessages.ToolDescriptor> tools, String etag, int pageSize) {
+            this.tools = tools;
+            this.etag = etag;
+            this.pageSize = pageSize;
+        }
+
+        public String etag() {
+            return etag;
+        }
+    }
+
+    private record Key(List<String> connectorNames, long catalogVersion, long registryVersion) {
+    }
+}
@@ -1,22 +1,42 @@
 package com.example.mcplogging.service;
 
+import com.example.mcplogging.config.JsonRpcProperties;
+import com.example.mcplogging.config.UnifiedProxyProperties;
+import com.example.mcplogging.dto.JsonRpcRequest;
+import com.example.mcplogging.dto.JsonRpcResponse;
+import com.example.mcplogging.dto.McpMessages;
+import com.example.mcplogging.entity.McpConnection;
 import com.example.mcplogging.entity.McpConnector;
+import com.example.mcplogging.entity.ToolCallOutcome;
+import com.example.mcplogging.entity.ToolUsageLog;
+import com.example.mcplogging.mcp.service.McpConnectionDescriptor;
 import com.example.mcplogging.mcp.service.McpConnectionService;
-import com.example.mcplogging.repository.ToolUsageLogRepository;
+import com.example.mcplogging.mcp.service.McpNotificationHub;
+import com.example.mcplogging.mcp.service.McpShutdownCoordinator;
+import com.example.mcplogging.mcp.service.McpToolInvocation;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.modelcontextprotocol.spec.McpSchema;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.Disposable;
 import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -29,60 +49,208 @@ import java.util.stream.Collectors;
 public class McpUnifiedProxyService {
 
     private final McpConnectionService connectionService;
-    private final McpConnectorService connectorService;
-    private final ToolUsageLogRepository toolUsageLogRepository;
+    private final McpConnectorRegistry connectorRegistry;
+    private final McpToolCatalog toolCatalog;
+    private final McpToolsListCache toolsListCache;
+    private final McpCatalogViews catalogViews;
+    private final UnifiedProxyProperties properties;
+    private final JsonRpcProperties jsonRpcProperties;
+    private final ToolUsageAuditService auditService;
+    private final McpShutdownCoordinator shutdownCoordinator;
+    private final SessionLifecycleManager sessionLifecycle;
+    private final McpNotificationHub notificationHub;
     private final ObjectMapper objectMapper;
 
     // 활성 세션 (sessionId → UnifiedSession)
     private final Map<String, UnifiedSession> activeSessions = new ConcurrentHashMap<>();
 
+    // 재개 가능한 세션 (resumeToken → UnifiedSession)
+    private final Map<String, UnifiedSession> resumableSessions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void registerHooks() {
+        shutdownCoordinator.registerSessionCloser(this::closeAllSessions);
+        notificationHub.addToolsChangedListener(this::onUpstreamToolsChanged);
+        notificationHub.addLoggingListener(this::onUpstreamLog);
+    }
+
     /**
      * 통합 SSE 스트림 생성
+     *
+     * 유효한 재개 토큰이 있으면 기존 세션에 다시 연결하고 Last-Event-ID 이후 이벤트를 재전송한다.
      */
-    public Flux<ServerSentEvent<String>> createUnifiedSseStream(String userId) {
+    public Flux<ServerSentEvent<String>> createUnifiedSseStream(String userId, String resumeToken, String lastEventId) {
+        return Mono.fromCallable(() -> {
+            shutdownCoordinator.ensureAccepting();
+
+            if (resumeToken != null) {
+                UnifiedSession session = resumableSessions.get(resumeToken);
+                if (session != null && session.userId.equals(userId)) {
+                    return resumeSession(session, lastEventId);
+                }
+                log.info("재개할 세션 없음, 새 세션 생성: userId={}", userId);
+            }
+            return openSession(userId);
+        }).flatMapMany(flux -> flux);
+    }
+
+    /**
+     * Streamable HTTP 세션 생성 (initialize 요청 시, Mcp-Session-Id로 사용)
+     */
+    public String openStreamableSession(String userId) {
+        shutdownCoordinator.ensureAccepting();
+
         String sessionId = UUID.randomUUID().toString();
+        UnifiedSession session = new UnifiedSession(sessionId, userId, null, SessionKind.STREAMABLE);
+        activeSessions.put(sessionId, session);
+        sessionLifecycle.register(sessionId, userId, properties.getStreamableSessionIdleTimeout(),
+                () -> closeIfIdle(session));
 
-        return Mono.fromCallable(() -> {
-            // 세션 생성
-            Sinks.Many<ServerSentEvent<String>> sink = Sinks.many().multicast().onBackpressureBuffer();
-            UnifiedSession session = new UnifiedSession(sessionId, userId, sink);
-            activeSessions.put(sessionId, session);
+        log.info("Streamable HTTP 세션 생성: sessionId={}", sessionId);
+        return sessionId;
+    }
+
+    /**
+     * 세션 존재 여부
+     */
+    public boolean hasSession(String sessionId) {
+        return activeSessions.containsKey(sessionId);
+    }
+
+    /**
+     * 세션 종료 (Streamable HTTP DELETE)
+     *
+     * @return 세션이 있어 종료한 경우 true
+     */
+    public boolean terminateSession(String sessionId) {
+        UnifiedSession session = activeSessions.get(sessionId);
+        if (session == null) {
+            return false;
+        }
+        closeSession(session);
+        return true;
+    }
 
-            log.info("통합 세션 생성: sessionId={}", sessionId);
+    /**
+     * Streamable HTTP 세션의 서버 알림 스트림 (GET), Last-Event-ID 이후 이벤트 재전송
+     */
+    public Flux<ServerSentEvent<String>> attachNotificationStream(String sessionId, String lastEventId) {
+        UnifiedSession session = activeSessions.get(sessionId);
+        if (session == null) {
+            return Flux.error(new IllegalArgumentException("Session not found: " + sessionId));
+        }
 
-            // 초기화 이벤트 전송
-            sink.tryEmitNext(ServerSentEvent.<String>builder()
-                    .event("session")
-                    .data("{\"sessionId\":\"" + sessionId + "\",\"status\":\"connected\"}")
-                    .build());
+        Attachment attachment = attach(session, parseEventId(lastEventId));
+        sessionLifecycle.setIdleTimeout(sessionId, Duration.ZERO);
+        log.info("Streamable HTTP 알림 스트림 연결: sessionId={}, 재전송 이벤트={}", sessionId, attachment.replay.size());
+        return stream(session, attachment);
+    }
 
-            return sink.asFlux();
-        }).flatMapMany(flux -> flux)
-                .timeout(Duration.ofHours(1))
-                .doFinally(signal -> {
-                    UnifiedSession session = activeSessions.remove(sessionId);
-                    if (session != null) {
-                        // 모든 연결 해제
-                        session.connections.values().forEach(connectionId ->
-                                connectionService.disconnect(connectionId).subscribe()
-                        );
-                        log.info("통합 세션 종료: sessionId={}", sessionId);
+    /**
+     * JSON-RPC 배치 처리
+     * 항목을 최대 mcp.jsonrpc.batch-concurrency 개까지 동시에 처리하고 응답은 요청 순서대로 모은다.
+     * notification은 응답 없음
+     */
+    public Mono<List<JsonRpcResponse>> handleJsonRpcBatch(String userId, String sessionId, List<JsonRpcRequest> messages) {
+        // 객체가 아닌 항목은 null이므로 fromIterable 대신 인덱스로 순회
+        return Flux.range(0, messages.size())
+                .flatMapSequential(index -> dispatchAny(userId, sessionId, messages.get(index), null)
+                        .subscribeOn(Schedulers.boundedElastic()), batchConcurrency())
+                .collectList();
+    }
+
+    /**
+     * JSON-RPC 메시지를 처리하며 요청 단위 SSE 스트림으로 응답
+     * 처리 중 발생한 알림(progress 등)과 각 응답을 message 이벤트로 보내고, 모든 응답을 보낸 뒤 스트림을 닫는다.
+     * 배치 항목은 동시에 처리하고 응답은 완료되는 대로 전송한다.
+     */
+    public Flux<ServerSentEvent<String>> streamJsonRpcMessages(String userId, String sessionId,
+                                                             List<JsonRpcRequest> messages) {
+        Sinks.Many<ServerSentEvent<String>> events = Sinks.many().unicast().onBackpressureBuffer();
+        Consumer<Object> send = message -> {
+            ServerSentEvent<String> event = ServerSentEvent.<String>builder()
+                    .event("message")
+                    .data(toJson(message))
+                    .build();
+            synchronized (events) {
+                events.tryEmitNext(event);
+            }
+        };
+
+        Disposable processing = Flux.range(0, messages.size())
+                .flatMap(index -> dispatchAny(userId, sessionId, messages.get(index), send)
+                        .subscribeOn(Schedulers.boundedElastic()), batchConcurrency())
+                .subscribe(send, error -> {
+                    synchronized (events) {
+                        events.tryEmitError(error);
+                    }
+                }, () -> {
+                    synchronized (events) {
+                        events.tryEmitComplete();
                     }
                 });
+
+        return events.asFlux().doOnCancel(processing::dispose);
+    }
+
+    /**
+     * 요청(id가 있는 메시지) 포함 여부 - 없으면 Streamable HTTP는 202로 응답
+     * (null 항목은 객체가 아닌 배치 항목으로 Invalid Request 응답 대상)
+     */
+    public boolean containsRequest(List<JsonRpcRequest> messages) {
+        return messages.stream().anyMatch(message -> message == null
+                || (message.method() != null && !message.isNotification()));
+    }
+
+    /**
+     * initialize 요청 포함 여부
+     */
+    public boolean containsInitialize(List<JsonRpcRequest> messages) {
+        return messages.stream().anyMatch(message -> message != null && "initialize".equals(message.method()));
+    }
+
+    /**
+     * 오래 걸릴 수 있는 요청(tools/call) 포함 여부 - SSE 응답 대상
+     */
+    public boolean containsToolCall(List<JsonRpcRequest> messages) {
+        return messages.stream().anyMatch(message -> message != null && "tools/call".equals(message.method()));
+    }
+
+    /**
+     * 배치 항목 처리 - 객체가 아니거나(null) method가 없으면 Invalid Request, notification은 응답 없음
+     */
+    private Mono<JsonRpcResponse> dispatchAny(String userId, String sessionId, JsonRpcRequest message,
+                                              Consumer<Object> notifier) {
+        if (message == null || message.method() == null) {
+            return Mono.just(JsonRpcResponse.error(message != null ? message.idValue() : null, -32600, "Invalid Request"));
+        }
+        Mono<JsonRpcResponse> response = dispatch(userId, sessionId, message, notifier)
+                .onErrorResume(error -> {
+                    // 한 항목의 실패가 배치 전체를 중단시키지 않도록 에러 응답으로 변환
+                    log.error("배치 항목 처리 에러: method={}", message.method(), error);
+                    return Mono.just(createErrorResponse(message.idValue(), -32603, "Internal error: " + error.getMessage()));
+                });
+        return message.isNotification() ? response.then(Mono.empty()) : response;
+    }
+
+    private int batchConcurrency() {
+        return Math.max(1, jsonRpcProperties.getBatchConcurrency());
     }
 
     /**
      * JSON-RPC 메시지 처리
+     *
+     * @param requestNotifier 요청 단위 SSE 스트림으로 알림을 보낼 때 사용 (null이면 세션 스트림으로 전송)
      */
-    public Mono<Map<String, Object>> handleJsonRpcMessage(
+    private Mono<JsonRpcResponse> dispatch(
             String userId,
             String sessionId,
-            Map<String, Object> message
+            JsonRpcRequest message,
+            Consumer<Object> requestNotifier
     ) {
         return Mono.fromCallable(() -> {
-            String method = (String) message.get("method");
-            Object params = message.get("params");
-            Object id = message.get("id");
+            String method = message.method();
+            Object id = message.idValue();
 
             log.info("메시지 처리: method={}, sessionId={}, userId={}", method, sessionId, userId);
 
@@ -90,6 +258,11 @@ public class McpUnifiedProxyService {
             UnifiedSession session = null;
             if (sessionId != null) {
                 session = activeSessions.get(sessionId);
+                // 만료/종료되었거나 모르는 세션 ID는 다른 세션으로 대신 처리하지 않음
+                if (session == null && !method.equals("initialize")) {
+                    log.warn("세션을 찾을 수 없음: sessionId={}, method={}", sessionId, method);
+                    return createErrorResponse(id, -32001, "Session not found: " + sessionId);
+                }
             } else {
                 // userId별 세션 찾기 (SSE 연결에서 생성된 세션)
                 session = activeSessions.values().stream()
@@ -100,153 +273,211 @@ public class McpUnifiedProxyService {
                 // 세션이 없으면 임시 세션 생성 (tools/list, tools/call 용)
                 if (session == null && !method.equals("initialize")) {
                     String tempSessionId = "temp-" + userId;
-                    session = activeSessions.computeIfAbsent(tempSessionId, key -> {
-                        Sinks.Many<ServerSentEvent<String>> sink = Sinks.many().multicast().onBackpressureBuffer();
-                        UnifiedSession newSession = new UnifiedSession(tempSessionId, userId, sink);
-                        log.info("임시 세션 생성: sessionId={}, userId={}", tempSessionId, userId);
-                        return newSession;
-                    });
+                    session = activeSessions.get(tempSessionId);
+                    if (session == null) {
+                        UnifiedSession created = new UnifiedSession(tempSessionId, userId, null, SessionKind.TEMP);
+                        session = activeSessions.putIfAbsent(tempSessionId, created);
+                        if (session == null) {
+                            session = created;
+                            // 유휴 만료 시 임시 세션과 업스트림 연결 정리
+                            sessionLifecycle.register(tempSessionId, userId, properties.getTempSessionIdleTimeout(),
+                                    () -> closeIfIdle(created));
+                            log.info("임시 세션 생성: sessionId={}, userId={}", tempSessionId, userId);
+                        }
+                    }
                 }
             }
 
-            return switch (method) {
-                case "initialize" -> handleInitialize(id, params);
-                case "tools/list" -> handleToolsList(userId, session, id);
-                case "tools/call" -> handleToolsCall(userId, session, id, params);
-                case "notifications/initialized", "notifications/cancelled" -> {
-                    // Notification 메시지는 응답 불필요
-                    log.info("Notification 수신: {}", method);
-                    yield Map.of("jsonrpc", "2.0");
-                }
-                default -> {
-                    log.warn("알 수 없는 메서드: {}", method);
-                    yield createErrorResponse(id, -32601, "Method not found: " + method);
-                }
-            };
+            if (session != null) {
+                sessionLifecycle.touch(session.sessionId);
+            }
+
+            JsonRpcResponse response;
+            try {
+                response = switch (method) {
+                    case "initialize" -> handleInitialize(id);
+                    case "tools/list" -> handleToolsList(userId, session, id,
+                            message.params(objectMapper, McpMessages.ToolsListParams.class));
+                    case "tools/call" -> handleToolsCall(userId, session, id,
+                            message.params(objectMapper, McpMessages.ToolCallParams.class),
+                            requestNotifier != null ? requestNotifier : sessionNotifier(session));
+                    case "logging/setLevel" -> handleSetLevel(session, id,
+                            message.params(objectMapper, McpMessages.SetLevelParams.class));
+                    case "notifications/cancelled" -> {
+                        cancelRequest(session, message.params(objectMapper, McpMessages.CancelledParams.class));
+                        yield null;
+                    }
+                    case "notifications/initialized" -> {
+                        // Notification 메시지는 응답 불필요
+                        log.info("Notification 수신: {}", method);
+                        yield null;
+                    }
+                    default -> {
+                        log.warn("알 수 없는 메서드: {}", method);
+                        yield createErrorResponse(id, -32601, "Method not found: " + method);
+                    }
+                };
+            } catch (IllegalArgumentException e) {
+                // params 형식 오류
+                response = createErrorResponse(id, -32602, e.getMessage());
+            }
+
+            // 오래 걸린 요청이 끝난 직후 만료되지 않도록 완료 시점도 활동으로 기록
+            if (session != null) {
+                sessionLifecycle.touch(session.sessionId);
+            }
+            return response;
         });
     }
 
     /**
      * initialize 처리
      */
-    private Map<String, Object> handleInitialize(Object id, Object params) {
-        return Map.of(
-                "jsonrpc", "2.0",
-                "id", id,
-                "result", Map.of(
-                        "protocolVersion", "2024-11-05",
-                        "capabilities", Map.of(
-                                "tools", Map.of()
-                        ),
-                        "serverInfo", Map.of(
-                                "name", "mcp-logging-unified",
-                                "version", "1.0.0"
-                        )
-                )
-        );
+    private JsonRpcResponse handleInitialize(Object id) {
+        return JsonRpcResponse.result(id, new McpMessages.InitializeResult(
+                "2024-11-05",
+                Map.of(
+                        "tools", Map.of(),
+                        "logging", Map.of()
+                ),
+                new McpMessages.ServerInfo("mcp-logging-unified", "1.0.0")
+        ));
+    }
+
+    /**
+     * logging/setLevel 처리 - 세션으로 전달할 업스트림 로그의 최소 수준 지정
+     * 업스트림 연결은 여러 세션이 공유하므로 업스트림에는 전달하지 않고 프록시에서 거른다.
+     */
+    private JsonRpcResponse handleSetLevel(UnifiedSession session, Object id, McpMessages.SetLevelParams params) {
+        String level = params != null ? params.level() : null;
+        McpSchema.LoggingLevel loggingLevel;
+        try {
+            loggingLevel = McpSchema.LoggingLevel.valueOf(String.valueOf(level).toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(id, -32602, "Invalid log level: " + level);
+        }
+        if (session != null) {
+            session.logLevel = loggingLevel;
+        }
+        return JsonRpcResponse.result(id, Map.of());
     }
 
     /**
      * tools/list 처리 - 모든 커넥터의 도구를 통합
+     *
+     * lazyActivation이면 카탈로그에 도구 목록이 있는 커넥터는 연결하지 않고,
+     * 카탈로그가 바뀌지 않았으면 미리 직렬화해 둔 결과를 그대로 사용한다.
+     * 클라이언트가 _meta.ifNoneMatch로 보낸 etag가 같으면 목록 없이 notModified로 응답한다.
+     * tools-page-size가 설정되면 cursor 위치부터 한 페이지씩 응답한다 (ifNoneMatch는 첫 페이지에서만 확인).
+     * cursor가 있는 요청은 lazyActivation과 관계없이 첫 페이지 때 만든 목록으로 응답하고 업스트림을 다시 조회하지 않는다.
+     * 업스트림 목록은 커넥터마다 모든 페이지를 받아 합친 뒤 나누므로, 페이지 크기는 응답 크기만 줄인다.
+     * 사용자에게 카탈로그 뷰가 지정되어 있으면 뷰에 포함된 도구만 응답한다.
      */
-    private Map<String, Object> handleToolsList(String userId, UnifiedSession session, Object id) {
+    private JsonRpcResponse handleToolsList(String userId, UnifiedSession session, Object id,
+                                            McpMessages.ToolsListParams params) {
         try {
-            List<McpConnector> connectors = connectorService.getAllConnectors();
-            List<Map<String, Object>> allTools = new ArrayList<>();
-
-            for (McpConnector connector : connectors) {
-                // 비활성화된 커넥터 스킵
-                if (connector.getEnabled() == null || !connector.getEnabled()) {
-                    log.debug("비활성화된 커넥터 스킵: {}", connector.getName());
-                    continue;
-                }
+            List<McpConnector> connectors = connectorRegistry.getEnabled();
+            List<String> connectorNames = connectors.stream().map(McpConnector::getName).toList();
+            long catalogVersion = toolCatalog.version();
+            long registryVersion = connectorRegistry.version();
+            String cursor = params != null ? params.cursor() : null;
 
-                try {
-                    // 커넥터에 연결 (없으면 새로 생성)
-                    Long connectionId = session.connections.computeIfAbsent(
-                            connector.getName(),
-                            name -> {
-                                try {
-                                    log.info("커넥터 연결 시작: {}", name);
-
-                                    // 환경 변수 준비 (커넥터별 기본값)
-                                    // TODO: 사용자별 토큰을 데이터베이스나 설정에서 가져오도록 구현 필요
-                                    Map<String, String> env = new HashMap<>();
-                                    if ("notion".equals(name)) {
-                                        // TODO: 실제 사용 시 환경 변수나 사용자 설정에서 토큰을 가져와야 함
-                                        String notionToken = System.getenv("NOTION_TOKEN");
-                                        if (notionToken != null && !notionToken.isEmpty()) {
-                                            env.put("NOTION_TOKEN", notionToken);
-                                        }
-                                    }
-
-                                    var connection = connectionService.connect(
-                                            connector.getId(),
-                                            userId,
-                                            env
-                                    ).block(Duration.ofSeconds(30));  // 30초 타임아웃
-                                    log.info("커넥터 연결 완료: {} → connectionId={}", name, connection.getId());
-                                    return connection.getId();
-                                } catch (Exception e) {
-                                    log.error("커넥터 연결 실패: {}", name, e);
-                                    return null;
-                                }
-                            }
-                    );
-
-                    if (connectionId == null) {
-                        log.warn("커넥터 연결 ID가 null: {}", connector.getName());
-                        continue;
-                    }
+            // 목록이 그 사이 바뀌어 캐시에 없으면 다시 만들고, 이전 목록의 커서는 page()에서 거절됨
+            McpToolsListCache.Catalog catalog = properties.isLazyActivation() || cursor != null
+                    ? toolsListCache.get(connectorNames, catalogVersion, registryVersion)
+                    : null;
+            if (catalog == null) {
+                Map<String, List<McpSchema.Tool>> toolsByConnector = new LinkedHashMap<>();
+                boolean complete = true;
 
-                    // 도구 목록 조회
-                    log.info("도구 목록 조회 시작: {}", connector.getName());
-                    McpSchema.ListToolsResult result = connectionService.listTools(connectionId)
-                            .block(Duration.ofSeconds(10));  // 10초 타임아웃
-
-                    if (result != null && result.tools() != null) {
-                        log.info("도구 {} 개 발견: {}", result.tools().size(), connector.getName());
-                        result.tools().forEach(tool -> {
-                            // 도구 이름에 커넥터 prefix 추가
-                            String prefixedName = connector.getName() + "__" + tool.name();
-                            allTools.add(Map.of(
-                                    "name", prefixedName,
-                                    "description", String.format("[%s] %s",
-                                            connector.getName(),
-                                            tool.description() != null ? tool.description() : ""),
-                                    "inputSchema", tool.inputSchema() != null ? tool.inputSchema() : Map.of()
-                            ));
-                        });
-                    } else {
-                        log.warn("도구 목록이 비어있음: {}", connector.getName());
+                for (McpConnector connector : connectors) {
+                    List<McpSchema.Tool> tools = listConnectorTools(session, connector);
+                    if (tools == null) {
+                        complete = false;
+                        continue;
                     }
-                } catch (Exception e) {
-                    log.error("도구 목록 조회 실패: {}", connector.getName(), e);
-                    // 에러가 발생해도 다음 커넥터 계속 처리
+                    toolsByConnector.put(connector.getName(), tools);
+                }
+                // 조회하면서 putTools로 카탈로그 버전이 올라갔을 수 있음 - 내용이 조회 결과 그대로면 현재 버전으로 보관
+                long renderedVersion = toolCatalog.version();
+                if (renderedVersion != catalogVersion && !toolsByConnector.entrySet().stream()
+                        .allMatch(entry -> entry.getValue().equals(toolCatalog.getTools(entry.getKey())))) {
+                    renderedVersion = catalogVersion;
                 }
+                catalog = toolsListCache.render(connectorNames, renderedVersion, registryVersion,
+                        toolsByConnector, complete);
+            }
+
+            String viewName = catalogViews.viewFor(userId);
+            if (viewName != null) {
+                catalog = toolsListCache.view(catalog, viewName);
             }
 
-            return Map.of(
-                    "jsonrpc", "2.0",
-                    "id", id,
-                    "result", Map.of("tools", allTools)
-            );
+            Object ifNoneMatch = params != null ? params.ifNoneMatch() : null;
+            if (cursor == null && catalog.etag().equals(ifNoneMatch)) {
+                return JsonRpcResponse.result(id, toolsListCache.notModified(catalog));
+            }
+            return JsonRpcResponse.result(id, toolsListCache.page(catalog, cursor));
+        } catch (IllegalArgumentException e) {
+            return createErrorResponse(id, -32602, e.getMessage());
         } catch (Exception e) {
             log.error("tools/list 에러", e);
             return createErrorResponse(id, -32603, "Internal error: " + e.getMessage());
         }
     }
 
+    /**
+     * 커넥터 도구 목록 (카탈로그 또는 업스트림 조회, 실패하면 null)
+     */
+    private List<McpSchema.Tool> listConnectorTools(UnifiedSession session, McpConnector connector) {
+        try {
+            List<McpSchema.Tool> tools = properties.isLazyActivation()
+                    ? toolCatalog.getTools(connector.getName())
+                    : null;
+            if (tools != null) {
+                return tools;
+            }
+
+            // 커넥터에 연결 (없으면 새로 생성)
+            SessionConnector active = activateConnector(session, connector);
+            if (active == null) {
+                log.warn("커넥터 연결 ID가 null: {}", connector.getName());
+                return null;
+            }
+
+            // 도구 목록 조회
+            log.info("도구 목록 조회 시작: {}", connector.getName());
+            McpSchema.ListToolsResult result = connectionService.listTools(active.connection.connectionId())
+                    .block(Duration.ofSeconds(10));  // 10초 타임아웃
+
+            if (result == null || result.tools() == null) {
+                log.warn("도구 목록이 비어있음: {}", connector.getName());
+                return null;
+            }
+            tools = result.tools();
+            toolCatalog.putTools(connector.getName(), tools);
+            log.info("도구 {} 개 발견: {}", tools.size(), connector.getName());
+            return tools;
+        } catch (Exception e) {
+            log.error("도구 목록 조회 실패: {}", connector.getName(), e);
+            // 에러가 발생해도 다음 커넥터 계속 처리
+            return null;
+        }
+    }
+
     /**
      * tools/call 처리 - prefix 파싱하여 적절한 커넥터로 라우팅
+     *
+     * 세션에 아직 연결되지 않은 커넥터는 이 시점에 연결한다.
      */
-    private Map<String, Object> handleToolsCall(String userId, UnifiedSession session, Object id, Object params) {
+    private JsonRpcResponse handleToolsCall(String userId, UnifiedSession session, Object id,
+                                            McpMessages.ToolCallParams params, Consumer<Object> notifier) {
         try {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> paramsMap = (Map<String, Object>) params;
-            String fullToolName = (String) paramsMap.get("name");
-            @SuppressWarnings("unchecked")
-            Map<String, Object> arguments = (Map<String, Object>) paramsMap.get("arguments");
+            if (params == null || params.name() == null) {
+                return createErrorResponse(id, -32602, "Missing tool name");
+            }
+            String fullToolName = params.name();
+            Map<String, Object> arguments = params.arguments();
 
             // 도구 이름 파싱 (connector__toolName)
             String[] parts = fullToolName.split("__", 2);
@@ -257,37 +488,121 @@ public class McpUnifiedProxyService {
             String connectorName = parts[0];
             String toolName = parts[1];
 
-            // 연결 ID 가져오기
-            Long connectionId = session.connections.get(connectorName);
-            if (connectionId == null) {
-                return createErrorResponse(id, -32002, "Connector not connected: " + connectorName);
+            // 사용자 카탈로그 뷰에 없는 도구는 존재하지 않는 것으로 응답
+            if (!catalogViews.allows(userId, connectorName, toolName)) {
+                return createErrorResponse(id, -32602, "Unknown tool: " + fullToolName);
             }
 
-            // Notion 페이지 생성 시 parent 자동 설정
-            if ("notion".equals(connectorName) && "API-post-page".equals(toolName)) {
-                arguments = handleNotionPageCreation(connectionId, arguments);
+            McpConnector connector = connectorRegistry.getByName(connectorName);
+            if (connector == null || !Boolean.TRUE.equals(connector.getEnabled())) {
+                return createErrorResponse(id, -32602, "Unknown connector: " + connectorName);
             }
 
-            // 도구 실행
-            McpSchema.CallToolResult result = connectionService.callTool(connectionId, toolName, arguments).block();
+            // 연결 가져오기 (없으면 활성화)
+            SessionConnector active = acquireConnector(session, connector);
+            if (active == null) {
+                return createErrorResponse(id, -32002, "Connector not connected: " + connectorName);
+            }
 
-            // 로깅
-            logToolUsage(connectionId, connectorName, toolName, arguments, result);
+            try {
+                McpConnectionDescriptor connection = active.connection;
+                Long connectionId = connection.connectionId();
 
-            return Map.of(
-                    "jsonrpc", "2.0",
-                    "id", id,
-                    "result", Map.of(
-                            "content", result.content(),
-                            "isError", result.isError() != null ? result.isError() : false
-                    )
-            );
+                // Notion 페이지 생성 시 parent 자동 설정
+                if ("notion".equals(connectorName) && "API-post-page".equals(toolName)) {
+                    arguments = handleNotionPageCreation(connectionId, arguments);
+                }
+
+                // 도구 실행
+                // 클라이언트가 progressToken을 보냈으면 프록시 토큰으로 바꿔 업스트림에 전달하고 알림을 되돌려 보낸다
+                Object progressToken = params.progressToken();
+                String upstreamToken = progressToken != null
+                        ? notificationHub.registerProgress(progress -> notifier.accept(notificationHub.progressMessage(progressToken, progress)))
+                        : null;
+
+                // notifications/cancelled로 취소할 수 있도록 JSON-RPC id로 등록
+                // 취소되면 이 스레드를 중단해 업스트림 호출 대기를 끝내고 응답 없이 반환
+                InFlightCall call = new InFlightCall();
+                boolean tracked = session != null && id != null && session.inFlightCalls.putIfAbsent(id, call) == null;
+
+                McpToolInvocation invocation = null;
+                RuntimeException failure = null;
+                try {
+                    invocation = connectionService.executeTool(connectionId, toolName, arguments,
+                            upstreamToken != null ? Map.of("progressToken", upstreamToken) : null,
+                            session != null ? session.sessionId : null).block();
+                } catch (RuntimeException e) {
+                    failure = e;
+                } finally {
+                    if (tracked) {
+                        session.inFlightCalls.remove(id, call);
+                    }
+                    if (upstreamToken != null) {
+                        notificationHub.unregisterProgress(upstreamToken);
+                    }
+                }
+
+                // 취소 요청 또는 요청 스트림 종료로 중단된 경우
+                if (call.finish() || (failure != null && isInterruption(failure))) {
+                    Thread.interrupted();  // 감사 로그 저장 전에 중단 상태 해제
+                    log.info("도구 호출 취소됨: id={}, tool={}", id, fullToolName);
+                    logToolUsage(connection, toolName, arguments, null, ToolCallOutcome.CANCELLED, false);
+                    return null;  // 취소된 요청에는 응답하지 않음
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+
+                // 로깅
+                McpSchema.CallToolResult result = invocation.result();
+                logToolUsage(connection, toolName, arguments, result,
+                        Boolean.TRUE.equals(result.isError()) ? ToolCallOutcome.ERROR : ToolCallOutcome.SUCCESS,
+                        invocation.cacheHit());
+
+                return JsonRpcResponse.result(id, new McpMessages.ToolCallResult(
+                        result.content(),
+                        Boolean.TRUE.equals(result.isError())
+                ));
+            } finally {
+                active.release();
+                session.calls.exit();
+            }
         } catch (Exception e) {
             log.error("tools/call 에러", e);
             return createErrorResponse(id, -32603, "Internal error: " + e.getMessage());
         }
     }
 
+    /**
+     * notifications/cancelled 처리 - 진행 중인 tools/call을 취소하고 슬롯을 즉시 반환
+     * (이미 끝났거나 모르는 requestId는 무시)
+     */
+    private void cancelRequest(UnifiedSession session, McpMessages.CancelledParams params) {
+        Object requestId = params != null ? params.requestId() : null;
+        if (session == null || requestId == null) {
+            log.warn("취소 대상 요청을 찾을 수 없음: requestId={}", requestId);
+            return;
+        }
+
+        InFlightCall call = session.inFlightCalls.get(requestId);
+        if (call == null) {
+            log.info("취소 대상 요청 없음 (이미 완료): sessionId={}, requestId={}", session.sessionId, requestId);
+            return;
+        }
+        log.info("도구 호출 취소 요청: sessionId={}, requestId={}, reason={}",
+                session.sessionId, requestId, params.reason());
+        call.cancel();
+    }
+
+    private static boolean isInterruption(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Notion 페이지 생성 시 parent가 없으면 자동으로 설정
      */
@@ -367,46 +682,391 @@ public class McpUnifiedProxyService {
     }
 
     /**
-     * 에러 응답 생성
+     * 세션에 커넥터 연결 (이미 연결되어 있으면 그대로 반환, 실패 시 null)
      */
-    private Map<String, Object> createErrorResponse(Object id, int code, String message) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("jsonrpc", "2.0");
-        response.put("id", id);  // null 허용
+    private SessionConnector activateConnector(UnifiedSession session, McpConnector connector) {
+        if (session.closed) {
+            return null;  // 만료/정리된 세션
+        }
+        SessionConnector active = session.connections.computeIfAbsent(connector.getName(), name -> {
+            CompletableFuture<McpConnection> connecting = null;
+            try {
+                log.info("커넥터 연결 시작: {}", name);
+                // 연결은 별도 스레드에서 실행해야 30초 타임아웃이 적용됨 (fromCallable은 구독한 스레드에서 실행)
+                connecting = connectionService.connect(
+                        connector.getId(),
+                        session.userId,
+                        resolveEnvironment(name)
+                ).subscribeOn(Schedulers.boundedElastic()).toFuture();
+                McpConnection connected = connecting.get(30, TimeUnit.SECONDS);  // 30초 타임아웃
+                log.info("커넥터 연결 완료: {} → connectionId={}", name, connected.getId());
+                return new SessionConnector(connectionService.getConnectionDescriptor(connected.getId()));
+            } catch (TimeoutException | InterruptedException e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                // 늦게 끝난 연결은 이 세션이 사용하지 않으므로 참조 해제
+                connecting.thenAccept(late -> connectionService.disconnect(late.getId()).subscribe());
+                log.error("커넥터 연결 대기 종료 (시간 초과 또는 중단): {}", name);
+                return null;
+            } catch (Exception e) {
+                log.error("커넥터 연결 실패: {}", name, e);
+                return null;
+            }
+        });
+        // 연결을 기다리는 동안 세션이 종료되면 closeSession이 이 항목을 보지 못하므로 여기서 해제
+        if (active != null && session.closed) {
+            if (session.connections.remove(connector.getName(), active)) {
+                connectionService.disconnect(active.connection.connectionId()).subscribe();
+            }
+            return null;
+        }
+        return active;
+    }
 
-        Map<String, Object> error = new HashMap<>();
-        error.put("code", code);
-        error.put("message", message);
-        response.put("error", error);
+    /**
+     * 도구 호출용 커넥터 획득 (호출이 끝나면 커넥터 release와 세션 calls.exit 필요)
+     * 세션 만료와 유휴 커넥터 정리는 호출 수가 0일 때 한 번에 점유하므로, 점유된 세션은 null, 점유된 커넥터는 다시 활성화한다.
+     */
+    private SessionConnector acquireConnector(UnifiedSession session, McpConnector connector) {
+        if (!session.calls.tryEnter()) {
+            return null;  // 만료 처리 중인 세션
+        }
+        while (true) {
+            SessionConnector active = activateConnector(session, connector);
+            if (active == null) {
+                session.calls.exit();
+                return null;
+            }
+            if (active.calls.tryEnter()) {
+                return active;
+            }
+            // 정리 작업이 점유한 커넥터 - 세션에서 제거되면 새로 연결
+            Thread.onSpinWait();
+        }
+    }
 
-        return response;
+    /**
+     * 커넥터 연결용 환경 변수 (커넥터별 기본값)
+     */
+    private Map<String, String> resolveEnvironment(String connectorName) {
+        // TODO: 사용자별 토큰을 데이터베이스나 설정에서 가져오도록 구현 필요
+        Map<String, String> env = new HashMap<>();
+        if ("notion".equals(connectorName)) {
+            // TODO: 실제 사용 시 환경 변수나 사용자 설정에서 토큰을 가져와야 함
+            String notionToken = System.getenv("NOTION_TOKEN");
+            if (notionToken != null && !notionToken.isEmpty()) {
+                env.put("NOTION_TOKEN", notionToken);
+            }
+        }
+        return env;
     }
 
     /**
-     * 도구 사용 로깅
+     * 새 세션 생성 후 SSE 스트림 연결
+     */
+    private Flux<ServerSentEvent<String>> openSession(String userId) {
+        String sessionId = UUID.randomUUID().toString();
+        UnifiedSession session = new UnifiedSession(sessionId, userId, UUID.randomUUID().toString(), SessionKind.SSE);
+        activeSessions.put(sessionId, session);
+        resumableSessions.put(session.resumeToken, session);
+        // SSE 스트림이 연결되어 있는 동안은 유휴 만료 없음
+        sessionLifecycle.register(sessionId, userId, Duration.ZERO, () -> closeIfIdle(session));
+
+        log.info("통합 세션 생성: sessionId={}", sessionId);
+
+        Attachment attachment = attach(session, null);
+
+        // 초기화 이벤트 전송 (재개 토큰 포함)
+        emitEvent(session, "session", sessionEventData(session, "connected"));
+
+        return stream(session, attachment);
+    }
+
+    /**
+     * 기존 세션에 SSE 스트림 다시 연결
+     */
+    private Flux<ServerSentEvent<String>> resumeSession(UnifiedSession session, String lastEventId) {
+        Attachment attachment = attach(session, parseEventId(lastEventId));
+        sessionLifecycle.setIdleTimeout(session.sessionId, Duration.ZERO);
+
+        log.info("통합 세션 재개: sessionId={}, lastEventId={}, 재전송 이벤트={}",
+                session.sessionId, lastEventId, attachment.replay.size());
+
+        // 재개 알림은 연결마다 새로 보내므로 버퍼에 남기지 않는다
+        ServerSentEvent<String> resumed = ServerSentEvent.<String>builder()
+                .event("session")
+                .data(sessionEventData(session, "resumed"))
+                .build();
+
+        return Flux.concat(Flux.just(resumed), stream(session, attachment));
+    }
+
+    /**
+     * 세션에 새 SSE 싱크 연결
+     * 싱크 교체와 재전송 대상 조회를 같은 잠금 안에서 처리하여 이벤트가 누락되거나 중복되지 않도록 한다.
+     *
+     * @param lastEventId 재전송 기준 이벤트 ID (null이면 재전송하지 않음)
+     */
+    private Attachment attach(UnifiedSession session, Long lastEventId) {
+        Sinks.Many<ServerSentEvent<String>> sink = Sinks.many().multicast().onBackpressureBuffer();
+        Sinks.Many<ServerSentEvent<String>> previous;
+        List<ServerSentEvent<String>> replay;
+        int generation;
+
+        synchronized (session) {
+            previous = session.sink;
+            session.sink = sink;
+            session.parkedAtNanos = 0;
+            generation = ++session.attachments;
+            replay = lastEventId == null
+                    ? List.of()
+                    : session.replayBuffer.stream()
+                            .filter(event -> Long.parseLong(event.id()) > lastEventId)
+                            .toList();
+        }
+
+        // 이전 스트림이 아직 열려 있으면 종료 (이전 스트림의 doFinally는 세대가 달라 무시됨)
+        if (previous != null) {
+            previous.tryEmitComplete();
+        }
+        return new Attachment(generation, sink, replay);
+    }
+
+    private Flux<ServerSentEvent<String>> stream(UnifiedSession session, Attachment attachment) {
+        return Flux.concat(Flux.fromIterable(attachment.replay), attachment.sink.asFlux())
+                .timeout(Duration.ofHours(1))
+                .doFinally(signal -> detach(session, attachment.generation));
+    }
+
+    /**
+     * SSE 스트림 종료 처리 - 재개 대기 상태로 전환 (업스트림 연결 유지)
+     */
+    private void detach(UnifiedSession session, int generation) {
+        // Streamable HTTP 세션은 알림 스트림이 끊겨도 POST로 계속 사용할 수 있으므로 유휴 만료 시간까지 유지
+        Duration grace = session.kind == SessionKind.STREAMABLE
+                ? properties.getStreamableSessionIdleTimeout()
+                : properties.getResumeGrace();
+        synchronized (session) {
+            if (session.attachments != generation) {
+                return;  // 이미 다른 스트림으로 재개됨
+            }
+            if (grace != null && grace.toNanos() > 0 && !shutdownCoordinator.isShuttingDown()) {
+                session.sink = null;
+                session.parkedAtNanos = System.nanoTime();
+                sessionLifecycle.setIdleTimeout(session.sessionId, grace);
+                log.info("통합 세션 재개 대기: sessionId={}, grace={}", session.sessionId, grace);
+                return;
+            }
+        }
+        closeSession(session);
+    }
+
+    /**
+     * 세션 종료 및 모든 연결 해제
      */
-    private void logToolUsage(Long connectionId, String connectorName, String toolName,
-                               Map<String, Object> arguments, McpSchema.CallToolResult result) {
+    private void closeSession(UnifiedSession session) {
+        if (!activeSessions.remove(session.sessionId, session)) {
+            return;
+        }
+        session.closed = true;
+        if (session.resumeToken != null) {
+            resumableSessions.remove(session.resumeToken, session);
+        }
+        sessionLifecycle.unregister(session.sessionId);
+
+        // 진행 중인 도구 호출 취소
+        session.inFlightCalls.values().forEach(InFlightCall::cancel);
+
+        session.connections.forEach((name, active) -> {
+            if (session.connections.remove(name, active)) {
+                connectionService.disconnect(active.connection.connectionId()).subscribe();
+            }
+        });
+
+        // 연결된 SSE 스트림이 있으면 종료
+        Sinks.Many<ServerSentEvent<String>> sink = session.sink;
+        if (sink != null) {
+            sink.tryEmitComplete();
+        }
+        log.info("통합 세션 종료: sessionId={}", session.sessionId);
+    }
+
+    /**
+     * 유휴 만료/세션 수 초과 시 세션 종료 (도구 호출이 진행 중이면 종료하지 않음)
+     */
+    private boolean closeIfIdle(UnifiedSession session) {
+        if (!session.calls.tryRetire()) {
+            return false;
+        }
+        closeSession(session);
+        return true;
+    }
+
+    /**
+     * 세션에 SSE 이벤트 전송 (재전송 버퍼에 보관, 스트림이 끊겨 있으면 버퍼에만 남음)
+     */
+    private void emitEvent(UnifiedSession session, String event, String data) {
+        synchronized (session) {
+            ServerSentEvent<String> sse = ServerSentEvent.<String>builder()
+                    .id(String.valueOf(++session.lastEventId))
+                    .event(event)
+                    .data(data)
+                    .build();
+            session.replayBuffer.addLast(sse);
+            while (session.replayBuffer.size() > properties.getReplayBufferSize()) {
+                session.replayBuffer.removeFirst();
+            }
+            if (session.sink != null) {
+                session.sink.tryEmitNext(sse);
+            }
+        }
+    }
+
+    private String sessionEventData(UnifiedSession session, String status) {
+        try {
+            return objectMapper.writeValueAsString(Map.of(
+                    "sessionId", session.sessionId,
+                    "resumeToken", session.resumeToken,
+                    "status", status
+            ));
+        } catch (Exception e) {
+            throw new IllegalStateException("세션 이벤트 직렬화 실패", e);
+        }
+    }
+
+    private Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
         try {
-            var connection = connectionService.getConnectionStatus(connectionId);
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            log.warn("잘못된 Last-Event-ID: {}", lastEventId);
+            return null;
+        }
+    }
+
+    /**
+     * 세션에서 오래 사용되지 않은 커넥터 연결 해제
+     */
+    @Scheduled(fixedDelayString = "${mcp.unified.idle-sweep-interval-ms:30000}")
+    public void releaseIdleConnectors() {
+        Duration idleTimeout = properties.getConnectorIdleTimeout();
+        if (idleTimeout == null || idleTimeout.isZero() || idleTimeout.isNegative()) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        activeSessions.values().forEach(session ->
+                session.connections.forEach((name, active) -> {
+                    if (now - active.lastUsedNanos < idleTimeout.toNanos() || !active.calls.tryRetire()) {
+                        return;
+                    }
+                    if (session.connections.remove(name, active)) {
+                        log.info("유휴 커넥터 연결 해제: sessionId={}, connector={}", session.sessionId, name);
+                        connectionService.disconnect(active.connection.connectionId()).subscribe();
+                    }
+                }));
+    }
+
+    /**
+     * 에러 응답 생성
+     */
+    private JsonRpcResponse createErrorResponse(Object id, int code, String message) {
+        return JsonRpcResponse.error(id, code, message);
+    }
 
-            var log = com.example.mcplogging.entity.ToolUsageLog.builder()
-                    .connection(connection)
-                    .connectorName(connectorName)
+    /**
+     * 도구 사용 로깅
+     */
+    private void logToolUsage(McpConnectionDescriptor connection, String toolName, Map<String, Object> arguments,
+                               McpSchema.CallToolResult result, ToolCallOutcome outcome, boolean cacheHit) {
+        try {
+            var log = ToolUsageLog.builder()
+                    .connectorName(connection.connectorName())
                     .toolName(toolName)
-                    .toolParameters(objectMapper.writeValueAsString(arguments))
-                    .toolResponse(objectMapper.writeValueAsString(result.content()))
-                    .mcpRequestRaw(objectMapper.writeValueAsString(Map.of("name", toolName, "arguments", arguments)))
-                    .mcpResponseRaw(objectMapper.writeValueAsString(result))
+                    .toolResponse(result != null ? objectMapper.writeValueAsString(result.content()) : null)
+                    .mcpResponseRaw(result != null ? objectMapper.writeValueAsString(result) : null)
+                    .outcome(outcome)
+                    .cacheHit(cacheHit)
                     .executedAt(LocalDateTime.now())
                     .build();
 
-            toolUsageLogRepository.save(log);
+            auditService.record(connection.connectionId(), log,
+                    arguments, Map.of("name", toolName, "arguments", arguments));
         } catch (Exception e) {
             this.log.error("도구 사용 로깅 실패", e);
         }
     }
 
+    /**
+     * 업스트림 tools/list_changed 알림 - 카탈로그 갱신 후 해당 커넥터 도구를 볼 수 있는 세션에 전달
+     */
+    private void onUpstreamToolsChanged(String connectorName, List<McpSchema.Tool> tools) {
+        // 뷰에서 숨긴 커넥터의 변경이 드러나지 않도록 이전/새 목록의 도구로 판단
+        Set<String> toolNames = new HashSet<>();
+        List<McpSchema.Tool> previous = toolCatalog.getTools(connectorName);
+        if (previous != null) {
+            previous.forEach(tool -> toolNames.add(tool.name()));
+        }
+        tools.forEach(tool -> toolNames.add(tool.name()));
+        toolCatalog.putTools(connectorName, tools);
+
+        Map<String, Object> notification = Map.of(
+                "jsonrpc", "2.0",
+                "method", "notifications/tools/list_changed"
+        );
+        activeSessions.values().stream()
+                .filter(session -> catalogViews.allowsAny(session.userId, connectorName, toolNames))
+                .forEach(session -> sessionNotifier(session).accept(notification));
+    }
+
+    /**
+     * 업스트림 로그 알림 - 해당 연결을 사용하는 세션에 전달
+     */
+    private void onUpstreamLog(Long connectionId, McpSchema.LoggingMessageNotification notification) {
+        Map<String, Object> message = notificationHub.loggingMessage(notification);
+        activeSessions.values().stream()
+                .filter(session -> McpNotificationHub.isLoggable(session.logLevel, notification.level()))
+                .filter(session -> session.connections.values().stream()
+                        .anyMatch(active -> active.connection.connectionId().equals(connectionId)))
+                .forEach(session -> sessionNotifier(session).accept(message));
+    }
+
+    /**
+     * 세션 알림 스트림으로 JSON-RPC 알림 전송 (임시 세션은 스트림이 없으므로 무시)
+     */
+    private Consumer<Object> sessionNotifier(UnifiedSession session) {
+        if (session == null || session.kind == SessionKind.TEMP) {
+            return notification -> { };
+        }
+        return notification -> emitEvent(session, "message", toJson(notification));
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalStateException("JSON 직렬화 실패", e);
+        }
+    }
+
+    /**
+     * 모든 세션 종료 (서버 종료 시 SSE 스트림 완료)
+     */
+    private void closeAllSessions() {
+        log.info("통합 세션 전체 종료: {} 개", activeSessions.size());
+        activeSessions.values().forEach(session -> {
+            Sinks.Many<ServerSentEvent<String>> sink = session.sink;
+            if (sink != null) {
+                sink.tryEmitComplete();
+            }
+        });
+        activeSessions.clear();
+        resumableSessions.clear();
+    }
+
     /**
      * 상태 조회
      */
@@ -414,11 +1074,13 @@ public class McpUnifiedProxyService {
         return Mono.fromCallable(() -> Map.of(
                 "success", true,
                 "activeSessions", activeSessions.size(),
+                "lifecycle", sessionLifecycle.getStats(),
                 "sessions", activeSessions.entrySet().stream()
                         .map(entry -> Map.of(
                                 "sessionId", entry.getKey(),
                                 "userId", entry.getValue().userId,
-                                "connections", entry.getValue().connections.size()
+                                "connections", entry.getValue().connections.size(),
+                                "parked", entry.getValue().parkedAtNanos != 0
                         ))
                         .toList()
         ));
@@ -430,13 +1092,105 @@ public class McpUnifiedProxyService {
     private static class UnifiedSession {
         final String sessionId;
         final String userId;
-        final Sinks.Many<ServerSentEvent<String>> sink;
-        final Map<String, Long> connections = new ConcurrentHashMap<>(); // connectorName → connectionId
+        final String resumeToken;  // SSE 세션만 사용
+        final SessionKind kind;
+        volatile boolean closed;
+        volatile McpSchema.LoggingLevel logLevel;  // logging/setLevel (null이면 모두 전달)
+        final Map<String, SessionConnector> connections = new ConcurrentHashMap<>(); // connectorName → connection
+        final Map<Object, InFlightCall> inFlightCalls = new ConcurrentHashMap<>(); // JSON-RPC id → 진행 중인 tools/call
+        final CallGate calls = new CallGate();  // 세션 전체의 진행 중인 도구 호출 (유휴 만료 판단)
+
+        // 아래 필드는 세션 잠금 안에서만 변경
+        volatile Sinks.Many<ServerSentEvent<String>> sink;  // 스트림이 끊겨 있으면 null
+        final Deque<ServerSentEvent<String>> replayBuffer = new ArrayDeque<>();
+        long lastEventId;
+        int attachments;
+        long parkedAtNanos;  // 재개 대기 시작 시각 (0이면 연결 중)
 
-        UnifiedSession(String sessionId, String userId, Sinks.Many<ServerSentEvent<String>> sink) {
+        UnifiedSession(String sessionId, String userId, String resumeToken, SessionKind kind) {
             this.sessionId = sessionId;
             this.userId = userId;
-            this.sink = sink;
+            this.resumeToken = resumeToken;
+            this.kind = kind;
+        }
+    }
+
+    /**
+     * 진행 중인 tools/call - 취소 시 실행 스레드를 중단
+     * 완료와 취소가 겹쳐도 끝난 스레드에 중단 신호가 남지 않도록 상태 전이는 잠금 안에서 처리
+     */
+    private static class InFlightCall {
+        private final Thread thread = Thread.currentThread();
+        private boolean done;
+        private boolean cancelled;
+
+        synchronized void cancel() {
+            if (!done && !cancelled) {
+                cancelled = true;
+                thread.interrupt();
+            }
+        }
+
+        /**
+         * @return 취소된 호출이면 true (중단 신호는 호출자가 해제)
+         */
+        synchronized boolean finish() {
+            done = true;
+            return cancelled;
+        }
+    }
+
+    /**
+     * 세션 종류
+     * SSE: GET /mcp/sse 스트림으로 생성, STREAMABLE: Streamable HTTP initialize로 생성 (Mcp-Session-Id),
+     * TEMP: 세션 없이 들어온 요청용 임시 세션
+     */
+    private enum SessionKind {
+        SSE, STREAMABLE, TEMP
+    }
+
+    /**
+     * 세션에 연결된 SSE 스트림
+     */
+    private record Attachment(int generation, Sinks.Many<ServerSentEvent<String>> sink,
+                              List<ServerSentEvent<String>> replay) {
+    }
+
+    /**
+     * 세션에 활성화된 커넥터 연결
+     */
+    private static class SessionConnector {
+        final McpConnectionDescriptor connection;
+        final CallGate calls = new CallGate();
+        volatile long lastUsedNanos = System.nanoTime();
+
+        SessionConnector(McpConnectionDescriptor connection) {
+            this.connection = connection;
+        }
+
+        void release() {
+            lastUsedNanos = System.nanoTime();
+            calls.exit();
+        }
+    }
+
+    /**
+     * 진행 중인 호출 수
+     * 정리하는 쪽은 0일 때 음수로 바꿔 한 번에 점유하고 (tryRetire), 점유된 뒤에는 새 호출을 받지 않는다 (tryEnter 실패).
+     */
+    private static final class CallGate {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        boolean tryEnter() {
+            return calls.getAndUpdate(count -> count < 0 ? count : count + 1) >= 0;
+        }
+
+        void exit() {
+            calls.decrementAndGet();
+        }
+
+        boolean tryRetire() {
+            return calls.compareAndSet(0, Integer.MIN_VALUE);
         }
     }
 }
@@ -0,0 +1,286 @@
+package com.example.mcplogging.service;
+
+import com.example.mcplogging.config.UnifiedProxyProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 프록시 세션 생명주기 관리
+ *
+ * - 유휴 만료: 해시 타이머 휠로 관리하며, 활동 기록(touch)은 시각만 갱신하고
+ *   만료 시점에 실제 유휴 시간을 다시 확인하여 필요하면 재등록한다.
+ * - 사용자별 최대 세션 수: 초과 시 가장 오래 사용되지 않은 세션을 정리한다.
+ * - 세션 종료 콜백에서 세션이 보유한 업스트림 연결을 모두 해제한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SessionLifecycleManager {
+
+    private static final int WHEEL_SIZE = 512;
+
+    private final UnifiedProxyProperties properties;
+
+    // Key: sessionId
+    private final Map<String, ManagedSession> sessions = new ConcurrentHashMap<>();
+
+    // Key: userId, Value: 사용자 세션 (세션 등록/해제 시 sessions와 함께 잠금 안에서 변경)
+    private final Map<String, Set<ManagedSession>> sessionsByUser = new ConcurrentHashMap<>();
+
+    // 타이머 휠 (버킷 변경은 wheelLock 안에서만)
+    private final List<Set<ManagedSession>> wheel = new ArrayList<>(WHEEL_SIZE);
+    private final Object wheelLock = new Object();
+    private long tickNanos;
+    private long startNanos;
+    private long currentTick;
+
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mcp-session-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void init() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(new HashSet<>());
+        }
+        tickNanos = properties.getExpiryTick().toNanos();
+        startNanos = System.nanoTime();
+        ticker.scheduleAtFixedRate(this::advance, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    /**
+     * 세션 등록 - 사용자 세션 수가 상한에 도달했으면 가장 오래 사용되지 않은 세션부터 정리
+     *
+     * @param idleTimeout 유휴 만료 시간 (0이면 만료되지 않음)
+     * @param closer      세션 종료 작업 (사용 중이라 종료할 수 없으면 false 반환)
+     */
+    public void register(String sessionId, String userId, Duration idleTimeout, BooleanSupplier closer) {
+        evictOverflow(userId);
+
+        ManagedSession session = new ManagedSession(sessionId, userId, closer);
+        session.idleTimeoutNanos = idleTimeout.toNanos();
+        sessions.put(sessionId, session);
+        sessionsByUser.computeIfAbsent(userId, key -> ConcurrentHashMap.newKeySet()).add(session);
+        arm(session);
+    }
+
+    /**
+     * 세션 활동 기록 (시각만 갱신, 휠 재배치는 만료 시점에 처리)
+     */
+    public void touch(String sessionId) {
+        ManagedSession session = sessions.get(sessionId);
+        if (session != null) {
+            session.lastActivityNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * 유휴 만료 시간 변경 (예: SSE 스트림 연결 중에는 0, 재개 대기 중에는 grace)
+     */
+    public void setIdleTimeout(String sessionId, Duration idleTimeout) {
+        ManagedSession session = sessions.get(sessionId);
+        if (session == null) {
+            return;
+        }
+        session.lastActivityNanos = System.nanoTime();
+        session.idleTimeoutNanos = idleTimeout.toNanos();
+        arm(session);
+    }
+
+    /**
+     * 세션 등록 해제 (세션이 직접 종료된 경우)
+     */
+    public void unregister(String sessionId) {
+        ManagedSession session = sessions.remove(sessionId);
+        if (session == null) {
+            return;
+        }
+        sessionsByUser.computeIfPresent(session.userId, (userId, userSessions) -> {
+            userSessions.remove(session);
+            return userSessions.isEmpty() ? null : userSessions;
+        });
+        synchronized (wheelLock) {
+            disarm(session);
+        }
+    }
+
+    /**
+     * 세션 수 및 만료/정리 통계
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sessions", sessions.size());
+        stats.put("users", sessionsByUser.size());
+        stats.put("maxSessionsPerUser", properties.getMaxSessionsPerUser());
+        stats.put("expired", expired.get());
+        stats.put("evicted", evicted.get());
+        return stats;
+    }
+
+    // ===== Private Helper Methods =====
+
+    /**
+     * 사용자 세션 수가 상한 이상이면 유휴 시간이 가장 긴 세션부터 정리
+     */
+    private void evictOverflow(String userId) {
+        int max = properties.getMaxSessionsPerUser();
+        if (max <= 0) {
+            return;
+        }
+
+        Set<ManagedSession> userSessions = sessionsByUser.get(userId);
+        if (userSessions == null || userSessions.size() < max) {
+            return;
+        }
+
+        List<ManagedSession> candidates = userSessions.stream()
+                .sorted(Comparator.comparingLong(session -> session.lastActivityNanos))
+                .toList();
+        int excess = candidates.size() - max + 1;
+        for (ManagedSession candidate : candidates) {
+            if (excess <= 0) {
+                break;
+            }
+            if (close(candidate)) {
+                evicted.incrementAndGet();
+                excess--;
+                log.info("사용자 세션 수 초과로 세션 정리: sessionId={}, userId={}", candidate.sessionId, userId);
+            }
+        }
+    }
+
+    /**
+     * 세션 종료 콜백 실행, 성공하면 등록 해제
+     */
+    private boolean close(ManagedSession session) {
+        boolean closed;
+        try {
+            closed = session.closer.getAsBoolean();
+        } catch (Exception e) {
+            log.error("세션 종료 실패: sessionId={}", session.sessionId, e);
+            closed = false;
+        }
+        if (closed) {
+            unregister(session.sessionId);
+        }
+        return closed;
+    }
+
+    /**
+     * 현재 유휴 만료 시각에 맞춰 휠에 배치
+     */
+    private void arm(ManagedSession session) {
+        synchronized (wheelLock) {
+            disarm(session);
+            if (session.idleTimeoutNanos <= 0 || !sessions.containsKey(session.sessionId)) {
+                return;
+            }
+            long deadline = session.lastActivityNanos + session.idleTimeoutNanos;
+            long deadlineTick = Math.max((deadline - startNanos + tickNanos - 1) / tickNanos, currentTick + 1);
+            session.deadlineTick = deadlineTick;
+            session.bucket = wheel.get((int) (deadlineTick % WHEEL_SIZE));
+            session.bucket.add(session);
+        }
+    }
+
+    private void disarm(ManagedSession session) {
+        if (session.bucket != null) {
+            session.bucket.remove(session);
+            session.bucket = null;
+        }
+    }
+
+    /**
+     * 경과한 틱만큼 휠을 돌리며 만료 시각이 된 세션 처리
+     */
+    private void advance() {
+        try {
+            long targetTick = (System.nanoTime() - startNanos) / tickNanos;
+            List<ManagedSession> due = new ArrayList<>();
+
+            synchronized (wheelLock) {
+                while (currentTick < targetTick) {
+                    currentTick++;
+                    Set<ManagedSession> bucket = wheel.get((int) (currentTick % WHEEL_SIZE));
+                    bucket.removeIf(session -> {
+                        if (session.deadlineTick > currentTick) {
+                            return false;  // 이후 회차
+                        }
+                        session.bucket = null;
+                        due.add(session);
+                        return true;
+                    });
+                }
+            }
+
+            long now = System.nanoTime();
+            for (ManagedSession session : due) {
+                long idleTimeout = session.idleTimeoutNanos;
+                if (idleTimeout <= 0) {
+                    continue;
+                }
+                // 만료 시각 이후 활동이 있었거나 종료할 수 없는 상태면 다시 배치
+                if (now - session.lastActivityNanos < idleTimeout) {
+                    arm(session);
+                } else if (close(session)) {
+                    expired.incrementAndGet();
+                    log.info("유휴 세션 만료: sessionId={}, userId={}", session.sessionId, session.userId);
+                } else {
+                    session.lastActivityNanos = now;
+                    arm(session);
+                }
+            }
+        } catch (Exception e) {
+            log.error("세션 만료 처리 실패", e);
+        }
+    }
+
+    /**
+     * 관리 대상 세션
+     */
+    private static class ManagedSession {
+        final String sessionId;
+        final String userId;
+        final BooleanSupplier closer;
+        volatile long lastActivityNanos = System.nanoTime();
+        volatile long idleTimeoutNanos;
+
+        // wheelLock 안에서만 변경
+        long deadlineTick;
+        Set<ManagedSession> bucket;
+
+        ManagedSession(String sessionId, String userId, BooleanSupplier closer) {
+            this.sessionId = sessionId;
+            this.userId = userId;
+            this.closer = closer;
+        }
+    }
+}
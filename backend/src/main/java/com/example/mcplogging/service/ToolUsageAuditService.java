@@ -0,0 +1,61 @@
+package com.example.mcplogging.service;
+
+import com.example.mcplogging.entity.AuditPayload;
+import com.example.mcplogging.entity.ToolUsageLog;
+import com.example.mcplogging.repository.AuditPayloadRepository;
+import com.example.mcplogging.repository.McpConnectionRepository;
+import com.example.mcplogging.repository.ToolUsageLogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 도구 사용 감사 로그 기록
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ToolUsageAuditService {
+
+    private final ToolUsageLogRepository toolUsageLogRepository;
+    private final McpConnectionRepository connectionRepository;
+    private final AuditPayloadRepository payloadRepository;
+    private final AuditPayloadStore payloadStore;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 감사 로그 저장
+     * 인자/원본 요청은 먼저 AuditPayloadStore에 중복 없이 저장하고 (트랜잭션 밖, 커넥션 하나씩),
+     * 로그는 연결/페이로드를 프록시 참조(getReferenceById)로만 연결하여 SELECT 없이 INSERT 한 번으로 저장한다.
+     * 참조한 페이로드가 정리 작업과 겹쳐 삭제된 경우 한 번 다시 시도한다.
+     */
+    public void record(Long connectionId, ToolUsageLog usageLog, Object toolParameters, Object mcpRequest) {
+        try {
+            save(connectionId, usageLog, toolParameters, mcpRequest);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("감사 로그 페이로드 참조 실패, 다시 시도: {}", e.getMessage());
+            payloadStore.invalidateCache();
+            usageLog.setId(null);
+            save(connectionId, usageLog, toolParameters, mcpRequest);
+        }
+    }
+
+    private void save(Long connectionId, ToolUsageLog usageLog, Object toolParameters, Object mcpRequest) {
+        Long toolParametersId = payloadStore.acquire(toolParameters);
+        Long mcpRequestId = payloadStore.acquire(mcpRequest);
+        transactionTemplate.executeWithoutResult(tx -> {
+            if (connectionId != null) {
+                usageLog.setConnection(connectionRepository.getReferenceById(connectionId));
+            }
+            usageLog.setToolParametersPayload(payloadReference(toolParametersId));
+            usageLog.setMcpRequestPayload(payloadReference(mcpRequestId));
+            toolUsageLogRepository.saveAndFlush(usageLog);
+        });
+    }
+
+    private AuditPayload payloadReference(Long payloadId) {
+        return payloadId != null ? payloadRepository.getReferenceById(payloadId) : null;
+    }
+}
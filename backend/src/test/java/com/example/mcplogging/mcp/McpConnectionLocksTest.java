@@ -0,0 +1,74 @@
+package com.example.mcplogging.mcp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class McpConnectionLocksTest {
+
+    private final McpConnectionLocks locks = new McpConnectionLocks();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void sameIdentityWaitsForHolder() throws Exception {
+        locks.lock("1:user:a");
+
+        Future<?> waiter = executor.submit(() -> {
+            locks.lock("1:user:a");
+            locks.unlock("1:user:a");
+        });
+        assertThatThrownBy(() -> waiter.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+        locks.unlock("1:user:a");
+        waiter.get(5, TimeUnit.SECONDS);
+        assertThat(locks.size()).isZero();
+    }
+
+    @Test
+    void otherIdentityIsNotBlocked() throws Exception {
+        locks.lock("1:user:a");
+        try {
+            CountDownLatch acquired = new CountDownLatch(1);
+            executor.submit(() -> {
+                locks.lock("1:user:b");
+                acquired.countDown();
+                locks.unlock("1:user:b");
+            });
+
+            assertThat(acquired.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            locks.unlock("1:user:a");
+        }
+    }
+
+    @Test
+    void entryIsRemovedOnlyAfterLastHolder() {
+        locks.lock("1:user:a");
+        locks.lock("1:user:a");  // 같은 스레드에서 다시 잡음
+        assertThat(locks.size()).isEqualTo(1);
+
+        locks.unlock("1:user:a");
+        assertThat(locks.size()).isEqualTo(1);
+        locks.unlock("1:user:a");
+        assertThat(locks.size()).isZero();
+    }
+
+    @Test
+    void unlockWithoutLockFails() {
+        assertThatThrownBy(() -> locks.unlock("1:user:a")).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.mcplogging.mcp.service;
+
+import com.example.mcplogging.config.HedgingProperties;
+import com.example.mcplogging.config.ReplicaProperties;
+import com.example.mcplogging.service.McpToolCatalog;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class McpHedgingPolicyTest {
+
+    private final HedgingProperties properties = new HedgingProperties();
+    private final McpToolCatalog toolCatalog = mock(McpToolCatalog.class);
+    private final McpToolResultCache resultCache = mock(McpToolResultCache.class);
+    private McpHedgingPolicy policy;
+    private McpReplicaSet replicas;
+
+    @BeforeEach
+    void setUp() {
+        properties.setEnabled(true);
+        properties.setMinSamples(5);
+        properties.setMinDelay(Duration.ofMillis(1));
+        when(resultCache.isReadOnly("fs", "read")).thenReturn(true);
+        policy = new McpHedgingPolicy(properties, toolCatalog, resultCache);
+        replicas = replicas(2);
+    }
+
+    // ===== 대상 판단 =====
+
+    @Test
+    void onlyReadOnlyToolsWithTwoAvailableReplicasAreEligible() {
+        assertThat(policy.hedgeDelayNanos("fs", "write", replicas)).isEqualTo(-1);
+        assertThat(policy.hedgeDelayNanos(null, "read", replicas)).isEqualTo(-1);
+        assertThat(policy.hedgeDelayNanos("fs", "read", replicas(1))).isEqualTo(-1);
+
+        properties.setEnabled(false);
+        assertThat(policy.hedgeDelayNanos("fs", "read", replicas)).isEqualTo(-1);
+    }
+
+    @Test
+    void readOnlyHintAnnotationMakesToolEligible() {
+        McpSchema.Tool annotated = McpSchema.Tool.builder()
+                .name("search")
+                .annotations(new McpSchema.ToolAnnotations(null, true, null, null, null, null))
+                .build();
+        McpSchema.Tool plain = McpSchema.Tool.builder().name("delete").build();
+        when(toolCatalog.getTools("git")).thenReturn(List.of(annotated, plain));
+
+        assertThat(policy.hedgeDelayNanos("git", "search", replicas)).isEqualTo(Long.MAX_VALUE);
+        assertThat(policy.hedgeDelayNanos("git", "delete", replicas)).isEqualTo(-1);
+    }
+
+    // ===== 대기 시간 =====
+
+    @Test
+    void waitsWithoutHedgingUntilEnoughSamples() {
+        record(4, 50);
+        assertThat(policy.hedgeDelayNanos("fs", "read", replicas)).isEqualTo(Long.MAX_VALUE);
+
+        record(1, 50);
+        assertThat(policy.hedgeDelayNanos("fs", "read", replicas)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    void delayIsConfiguredPercentileOfRecentSamples() {
+        for (int ms = 1; ms <= 100; ms++) {
+            policy.recordLatency("fs", "read", TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+
+        assertThat(policy.hedgeDelayNanos("fs", "read", replicas)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(95));
+        properties.setPercentile(50);
+        assertThat(policy.hedgeDelayNanos("fs", "read", replicas)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    void delayIsNotShorterThanMinDelay() {
+        properties.setMinDelay(Duration.ofMillis(20));
+        record(10, 2);
+
+        assertThat(policy.hedgeDelayNanos("fs", "read", replicas)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    // ===== 예산 =====
+
+    @Test
+    void hedgeRateStaysWithinBudgetPercent() {
+        properties.setBudgetPercent(5);
+        properties.setMaxBurst(1);
+
+        int hedged = 0;
+        for (int i = 0; i < 1000; i++) {
+            policy.hedgeDelayNanos("fs", "read", replicas);
+            if (policy.tryHedge()) {
+                hedged++;
+            }
+        }
+
+        assertThat(hedged).isEqualTo(50);
+        assertThat(policy.getStats())
+                .containsEntry("eligible", 1000L)
+                .containsEntry("hedged", 50L)
+                .containsEntry("budgetDenied", 950L);
+    }
+
+    @Test
+    void budgetStartsEmpty() {
+        assertThat(policy.tryHedge()).isFalse();
+        assertThat(policy.getStats()).containsEntry("budgetDenied", 1L);
+    }
+
+    @Test
+    void savedBudgetIsCappedAtMaxBurst() {
+        properties.setBudgetPercent(50);
+        properties.setMaxBurst(3);
+        for (int i = 0; i < 100; i++) {
+            policy.hedgeDelayNanos("fs", "read", replicas);
+        }
+
+        int burst = 0;
+        while (policy.tryHedge()) {
+            burst++;
+        }
+
+        assertThat(burst).isEqualTo(3);
+    }
+
+    @Test
+    void ineligibleCallsDoNotEarnBudget() {
+        properties.setBudgetPercent(100);
+        for (int i = 0; i < 10; i++) {
+            policy.hedgeDelayNanos("fs", "write", replicas);
+        }
+
+        assertThat(policy.tryHedge()).isFalse();
+    }
+
+    // ===== Helpers =====
+
+    private void record(int count, long millis) {
+        for (int i = 0; i < count; i++) {
+            policy.recordLatency("fs", "read", TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+    }
+
+    private static McpReplicaSet replicas(int count) {
+        McpReplicaSet set = new McpReplicaSet("fs", ReplicaProperties.Routing.LEAST_OUTSTANDING, 3, 0,
+                Collections.nCopies(count, "stdio"), index -> mock(McpSyncClient.class));
+        for (int i = 0; i < count; i++) {
+            set.setClient(i, mock(McpSyncClient.class));
+        }
+        return set;
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.mcplogging.mcp.service;
+
+import com.example.mcplogging.config.ReplicaProperties;
+import io.modelcontextprotocol.client.McpSyncClient;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class McpReplicaSetTest {
+
+    // ===== 라우팅 =====
+
+    @Test
+    void leastOutstandingAvoidsBusyReplica() {
+        McpReplicaSet set = newSet(ReplicaProperties.Routing.LEAST_OUTSTANDING, 3, 3);
+        McpReplicaSet.Replica busy = set.get(0);
+        set.begin(busy);
+        set.begin(set.get(1));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(set.choose(null)).isSameAs(set.get(2));
+        }
+    }
+
+    @Test
+    void leastOutstandingRotatesOnTies() {
+        McpReplicaSet set = newSet(ReplicaProperties.Routing.LEAST_OUTSTANDING, 3, 3);
+
+        Set<Integer> chosen = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            chosen.add(set.choose(null).index());
+        }
+
+        assertThat(chosen).containsExactlyInAnyOrder(0, 1, 2);
+    }
+
+    @Test
+    void powerOfTwoNeverPicksEjectedReplica() {
+        McpReplicaSet set = newSet(ReplicaProperties.Routing.POWER_OF_TWO, 3, 1);
+        fail(set, set.get(1));
+
+        for (int i = 0; i < 200; i++) {
+            assertThat(set.choose(null).index()).isNotEqualTo(1);
+        }
+    }
+
+    @Test
+    void consistentHashIsStickyAndMovesOnlyEjectedKeys() {
+        McpReplicaSet set = newSet(ReplicaProperties.Routing.CONSISTENT_HASH, 3, 1);
+
+        Map<String, Integer> owners = new HashMap<>();
+        for (int i = 0; i < 300; i++) {
+            String key = "session-" + i;
+            owners.put(key, set.choose(key).index());
+            assertThat(set.choose(key).index()).isEqualTo(owners.get(key));
+        }
+        // 가상 노드로 키가 모든 복제본에 나뉨
+        assertThat(new HashSet<>(owners.values())).containsExactlyInAnyOrder(0, 1, 2);
+
+        fail(set, set.get(0));
+        owners.forEach((key, owner) -> {
+            int now = set.choose(key).index();
+            if (owner == 0) {
+                assertThat(now).isNotEqualTo(0);
+            } else {
+                assertThat(now).as(key).isEqualTo(owner);
+            }
+        });
+    }
+
+    @Test
+    void consistentHashWithoutKeyFallsBackToLeastOutstanding() {
+        McpReplicaSet set = newSet(ReplicaProperties.Routing.CONSISTENT_HASH, 2, 1);
+        set.begin(set.get(0));
+
+        assertThat(set.choose(null)).isSameAs(set.get(1));
+    }
+
+    @Test
+    void chooseOtherSkipsExcludedAndEjectedReplicas() {
+        McpReplicaSet set = newSet(ReplicaProperties.Routing.LEAST_OUTSTANDING, 3, 1);
+        fail(set, set.get(2));
+
+        assertThat(set.chooseOther(set.get(0))).isSameAs(set.get(1));
+        fail(set, set.get(1));
+        assertThat(set.chooseOther(set.get(0))).isNull();
+    }
+
+    // ===== 제외 / 복귀 =====
+
+    @Test
+    void ejectsAfterConsecutiveFailuresOnly() {
+        McpReplicaSet set = newSet(ReplicaProperties.Routing.LEAST_OUTSTANDING, 2, 3);
+        McpReplicaSet.Replica replica = set.get(0);
+
+        fail(set, replica);
+        fail(set, replica);
+        succeed(set, replica);
+        fail(set, replica);
+        fail(set, replica);
+        assertThat(set.availableCount()).isEqualTo(2);
+
+        fail(set, replica);
+        assertThat(set.availableCount()).isEqualTo(1);
+        assertThat(stats(set, 0)).containsEntry("ejected", true).containsEntry("failures", 5L);
+    }
+
+    @Test
+    void cancelledCallIsNeitherSuccessNorFailure() {
+        McpReplicaSet set = newSet(ReplicaProperties.Routing.LEAST_OUTSTANDING, 2, 1);
+        McpReplicaSet.Replica replica = set.get(0);
+
+        set.begin(replica);
+        set.cancelled(replica);
+
+        assertThat(set.availableCount()).isEqualTo(2);
+        assertThat(stats(set, 0)).containsEntry("outstanding", 0).containsEntry("failures", 0L);
+    }
+
+    @Test
+    void fallsBackToEjectedReplicaWhenAllAreEjected() {
+        McpReplicaSet set = newSet(ReplicaProperties.Routing.LEAST_OUTSTANDING, 2, 1);
+        fail(set, set.get(0));
+        fail(set, set.get(1));
+        set.begin(set.get(0));
+
+        assertThat(set.availableCount()).isZero();
+        assertThat(set.choose(null)).isSameAs(set.get(1));
+    }
+
+    @Test
+    void failsWhenNoReplicaHasClient() {
+        McpReplicaSet set = newSet(ReplicaProperties.Routing.LEAST_OUTSTANDING, 2, 1);
+        set.setClient(0, null);
+        set.setClient(1, null);
+
+        assertThatThrownBy(() -> set.choose(null)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void healthCheckRestoresReplicaThatAnswersPing() {
+        McpReplicaSet set = newSet(ReplicaProperties.Routing.LEAST_OUTSTANDING, 2, 1);
+        McpSyncClient healthy = set.get(0).client();
+        McpSyncClient broken = set.get(1).client();
+        when(broken.ping()).thenThrow(new IllegalStateException("timeout"));
+        fail(set, set.get(0));
+        fail(set, set.get(1));
+
+        set.checkHealth();
+
+        verify(healthy).ping();
+        assertThat(stats(set, 0)).containsEntry("ejected", false);
+        assertThat(stats(set, 1)).containsEntry("ejected", true);
+    }
+
+    @Test
+    void healthCheckRecreatesMissingClient() {
+        McpSyncClient recreated = mock(McpSyncClient.class);
+        McpReplicaSet set = newSet(ReplicaProperties.Routing.LEAST_OUTSTANDING, 2, 1,
+                index -> recreated);
+        set.setClient(1, null);
+        assertThat(set.availableCount()).isEqualTo(1);
+
+        set.checkHealth();
+
+        assertThat(set.get(1).client()).isSameAs(recreated);
+        assertThat(set.availableCount()).isEqualTo(2);
+    }
+
+    @Test
+    void closedSetRejectsNewClients() {
+        McpReplicaSet set = newSet(ReplicaProperties.Routing.LEAST_OUTSTANDING, 2, 1);
+        McpSyncClient first = set.get(0).client();
+        set.close();
+
+        McpSyncClient late = mock(McpSyncClient.class);
+        assertThat(set.setClient(0, late)).isSameAs(late);
+        assertThat(set.get(0).client()).isNull();
+        verify(first).close();
+    }
+
+    @Test
+    void singleClientIsNeverEjected() {
+        McpSyncClient client = mock(McpSyncClient.class);
+        McpReplicaSet set = McpReplicaSet.single("fs", "stdio", client);
+
+        for (int i = 0; i < 5; i++) {
+            fail(set, set.get(0));
+        }
+
+        assertThat(set.choose("any").client()).isSameAs(client);
+        assertThat(set.availableCount()).isEqualTo(1);
+    }
+
+    // ===== Helpers =====
+
+    private static McpReplicaSet newSet(ReplicaProperties.Routing routing, int count, int ejectAfterFailures) {
+        return newSet(routing, count, ejectAfterFailures, index -> {
+            throw new IllegalStateException("not expected");
+        });
+    }
+
+    private static McpReplicaSet newSet(ReplicaProperties.Routing routing, int count, int ejectAfterFailures,
+                                        IntFunction<McpSyncClient> factory) {
+        // 제외 기간 0 - checkHealth가 바로 상태 확인
+        McpReplicaSet set = new McpReplicaSet("fs", routing, ejectAfterFailures, 0,
+                Collections.nCopies(count, "stdio"), factory);
+        for (int i = 0; i < count; i++) {
+            set.setClient(i, mock(McpSyncClient.class));
+        }
+        return set;
+    }
+
+    private static void fail(McpReplicaSet set, McpReplicaSet.Replica replica) {
+        set.begin(replica);
+        set.end(replica, false);
+    }
+
+    private static void succeed(McpReplicaSet set, McpReplicaSet.Replica replica) {
+        set.begin(replica);
+        set.end(replica, true);
+    }
+
+    private static Map<String, Object> stats(McpReplicaSet set, int index) {
+        List<Map<String, Object>> stats = set.getStats();
+        return stats.get(index);
+    }
+}
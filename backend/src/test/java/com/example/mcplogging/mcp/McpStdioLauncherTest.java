@@ -0,0 +1,182 @@
+package com.example.mcplogging.mcp.service;
+
+import com.example.mcplogging.config.LauncherProperties;
+import com.example.mcplogging.entity.McpConnector;
+import com.example.mcplogging.service.McpConnectorRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * npm 대신 패키지 디렉토리만 만드는 스크립트로 설치
+ */
+@DisabledOnOs(OS.WINDOWS)
+class McpStdioLauncherTest {
+
+    private static final List<String> ARGS = List.of("-y", "fake-pkg", "--flag");
+
+    @TempDir
+    Path tempDir;
+
+    private final LauncherProperties properties = new LauncherProperties();
+    private final McpConnector connector = McpConnector.builder().name("fake").command("npx").build();
+    private McpStdioLauncher launcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties.setCacheDir(tempDir.resolve("cache").toString());
+        properties.setNpmCommand(fakeNpm("exit 0").toString());
+        launcher = new McpStdioLauncher(properties, mock(McpConnectorRegistry.class), new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() {
+        launcher.shutdown();
+    }
+
+    @Test
+    void installsInBackgroundThenRunsInstalledBin() throws Exception {
+        McpStdioLauncher.LaunchSpec fallback = launcher.resolve(connector, ARGS);
+        assertThat(fallback.resolved()).isFalse();
+        assertThat(fallback.command()).isEqualTo("npx");
+
+        await(() -> resolvedBin() != null);
+        McpStdioLauncher.LaunchSpec launch = launcher.resolve(connector, ARGS);
+
+        assertThat(launch.resolved()).isTrue();
+        assertThat(launch.command()).isEqualTo("node");
+        assertThat(launch.args()).containsExactly(resolvedBin(), "--flag");
+        assertThat(launch.installation().installDir().getParent()).isEqualTo(packageRoot());
+    }
+
+    @Test
+    void refreshInstallsIntoNewDirAndRemovesOldOneAfterLastProcessEnds() throws Exception {
+        launcher.resolve(connector, ARGS);
+        await(() -> resolvedBin() != null);
+        McpStdioLauncher.LaunchSpec first = launcher.resolve(connector, ARGS);
+        Path oldDir = first.installation().installDir();
+
+        // 갱신 간격이 지나면 기존 설치본으로 실행하면서 새 디렉토리에 다시 설치
+        properties.setRefreshInterval(Duration.ofMillis(1));
+        Thread.sleep(5);
+        McpStdioLauncher.LaunchSpec second = launcher.resolve(connector, ARGS);
+        assertThat(second.installation().installDir()).isEqualTo(oldDir);
+        properties.setRefreshInterval(Duration.ZERO);
+        await(() -> !resolvedBin().startsWith(oldDir.toString()) && installing().isEmpty());
+
+        McpStdioLauncher.LaunchSpec third = launcher.resolve(connector, ARGS);
+        Path newDir = third.installation().installDir();
+        assertThat(newDir).isNotEqualTo(oldDir);
+        assertThat(oldDir).exists();  // 이전 설치본으로 실행한 프로세스가 남아 있음
+
+        launcher.release(first);
+        assertThat(oldDir).exists();
+        launcher.release(second);
+        assertThat(oldDir).doesNotExist();
+        assertThat(newDir).exists();
+
+        launcher.release(third);
+        assertThat(newDir).exists();  // 현재 설치본은 유지
+    }
+
+    @Test
+    void failedInstallKeepsFallbackAndLeavesNoDirectory() throws Exception {
+        properties.setNpmCommand(fakeNpm("exit 1").toString());
+
+        launcher.resolve(connector, ARGS);
+        await(() -> installing().isEmpty() && Files.exists(packageRoot()) && listDirs(packageRoot()).isEmpty());
+
+        assertThat(launcher.resolve(connector, ARGS).resolved()).isFalse();
+        assertThat(resolvedBin()).isNull();
+    }
+
+    @Test
+    void replacesLegacyInstallInPackageRoot() throws Exception {
+        // 이전 버전은 패키지 디렉토리에 바로 설치
+        writePackage(packageRoot());
+        McpStdioLauncher.LaunchSpec legacy = launcher.resolve(connector, ARGS);
+        assertThat(legacy.installation().installDir()).isEqualTo(packageRoot());
+
+        // 표시 파일이 없으면 갱신 대상
+        await(() -> !resolvedBin().startsWith(packageRoot().resolve("node_modules").toString())
+                && installing().isEmpty());
+        assertThat(packageRoot().resolve("node_modules")).exists();
+
+        launcher.release(legacy);
+        assertThat(packageRoot().resolve("node_modules")).doesNotExist();
+        assertThat(launcher.resolve(connector, ARGS).args().get(0)).isEqualTo(resolvedBin());
+    }
+
+    // ===== Helpers =====
+
+    private Path packageRoot() {
+        return tempDir.resolve("cache").resolve("fake-pkg").toAbsolutePath();
+    }
+
+    private Path fakeNpm(String onInstalled) throws Exception {
+        // npm install --prefix <dir> ... <spec>
+        Path script = tempDir.resolve("npm-" + onInstalled.replace(' ', '-'));
+        Files.writeString(script, """
+                #!/bin/sh
+                prefix="$3"
+                mkdir -p "$prefix/node_modules/fake-pkg"
+                echo '{"name":"fake-pkg","bin":{"fake-pkg":"server.js"}}' > "$prefix/node_modules/fake-pkg/package.json"
+                touch "$prefix/node_modules/fake-pkg/server.js"
+                %s
+                """.formatted(onInstalled));
+        Files.setPosixFilePermissions(script, PosixFilePermissions.fromString("rwx------"));
+        return script;
+    }
+
+    private static void writePackage(Path prefix) throws Exception {
+        Path packageDir = Files.createDirectories(prefix.resolve("node_modules").resolve("fake-pkg"));
+        Files.writeString(packageDir.resolve("package.json"), "{\"name\":\"fake-pkg\",\"bin\":\"server.js\"}");
+        Files.createFile(packageDir.resolve("server.js"));
+    }
+
+    private static List<Path> listDirs(Path dir) {
+        try (var children = Files.list(dir)) {
+            return children.filter(Files::isDirectory).toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private String resolvedBin() {
+        return ((Map<String, String>) launcher.getStats().get("resolvedPackages")).get("fake-pkg");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> installing() {
+        return (List<String>) launcher.getStats().get("installing");
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not met");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.mcplogging.mcp.service;
+
+import com.example.mcplogging.config.ToolCacheProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class McpToolResultCacheTest {
+
+    private static final McpConnectionDescriptor CONNECTION = connection(1L, "env-a");
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private McpToolResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        ToolCacheProperties.Rule rule = new ToolCacheProperties.Rule();
+        rule.setCacheable(List.of("read_*"));
+        rule.setMutating(List.of("write"));
+        rule.setCoalesce(List.of("search"));
+        rule.setIgnoredArguments(List.of("traceId"));
+
+        ToolCacheProperties properties = new ToolCacheProperties();
+        properties.setEnabled(true);
+        properties.setRules(Map.of("fs", rule));
+        cache = new McpToolResultCache(properties, new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    // ===== 캐시 키 정규화 =====
+
+    @Test
+    void argumentOrderAndIgnoredArgumentsShareCacheKey() {
+        AtomicInteger calls = new AtomicInteger();
+
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("path", "/a");
+        first.put("options", orderedMap("depth", 2, "all", true));
+        first.put("traceId", "t-1");
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("traceId", "t-2");
+        second.put("options", orderedMap("all", true, "depth", 2));
+        second.put("path", "/a");
+
+        McpToolInvocation miss = cache.call(CONNECTION, "read_file", first, counting(calls, "one"));
+        McpToolInvocation hit = cache.call(CONNECTION, "read_file", second, counting(calls, "two"));
+
+        assertThat(miss.cacheHit()).isFalse();
+        assertThat(hit.cacheHit()).isTrue();
+        assertThat(text(hit.result())).isEqualTo("one");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void differentArgumentsOrConnectionsMiss() {
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.call(CONNECTION, "read_file", Map.of("path", "/a"), counting(calls, "a"));
+        cache.call(CONNECTION, "read_file", Map.of("path", "/b"), counting(calls, "b"));
+        cache.call(connection(2L, "env-a"), "read_file", Map.of("path", "/a"), counting(calls, "c"));
+
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void errorResultsAreNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<McpSchema.CallToolResult> failing = () -> {
+            calls.incrementAndGet();
+            return McpSchema.CallToolResult.builder()
+                    .content(List.of(new McpSchema.TextContent("boom")))
+                    .isError(true)
+                    .build();
+        };
+
+        cache.call(CONNECTION, "read_file", Map.of("path", "/a"), failing);
+        McpToolInvocation second = cache.call(CONNECTION, "read_file", Map.of("path", "/a"), failing);
+
+        assertThat(second.cacheHit()).isFalse();
+        assertThat(calls).hasValue(2);
+    }
+
+    // ===== 무효화 세대 =====
+
+    @Test
+    void mutatingToolInvalidatesConnectorCache() {
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.call(CONNECTION, "read_file", Map.of("path", "/a"), counting(calls, "before"));
+        cache.call(CONNECTION, "write", Map.of("path", "/a"), counting(calls, "write"));
+        McpToolInvocation after = cache.call(CONNECTION, "read_file", Map.of("path", "/a"), counting(calls, "after"));
+
+        assertThat(after.cacheHit()).isFalse();
+        assertThat(text(after.result())).isEqualTo("after");
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void readThatOverlapsInvalidationIsNotServedLater() throws Exception {
+        CountDownLatch readStarted = new CountDownLatch(1);
+        CountDownLatch releaseRead = new CountDownLatch(1);
+
+        // 읽기 실행 중에 변경 도구가 끝나면, 그 읽기 결과는 이전 세대 키로 저장되어 다시 조회되지 않아야 함
+        Future<McpToolInvocation> staleRead = executor.submit(() ->
+                cache.call(CONNECTION, "read_file", Map.of("path", "/a"), () -> {
+                    readStarted.countDown();
+                    await(releaseRead);
+                    return result("stale");
+                }));
+        assertThat(readStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        cache.call(CONNECTION, "write", Map.of("path", "/a"), () -> result("write"));
+        releaseRead.countDown();
+        assertThat(text(staleRead.get(5, TimeUnit.SECONDS).result())).isEqualTo("stale");
+
+        McpToolInvocation next = cache.call(CONNECTION, "read_file", Map.of("path", "/a"), () -> result("fresh"));
+        assertThat(next.cacheHit()).isFalse();
+        assertThat(text(next.result())).isEqualTo("fresh");
+    }
+
+    // ===== 동일 호출 병합 =====
+
+    @Test
+    void concurrentIdenticalCallsShareOneUpstreamCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<McpSchema.CallToolResult> blocking = () -> {
+            calls.incrementAndGet();
+            await(release);
+            return result("shared");
+        };
+
+        Future<McpToolInvocation> leader = executor.submit(() -> cache.call(CONNECTION, "search", Map.of("q", "x"), blocking));
+        awaitInFlight(1);
+        Future<McpToolInvocation> follower = executor.submit(() -> cache.call(CONNECTION, "search", Map.of("q", "x"), blocking));
+        awaitCoalesced(1);
+        release.countDown();
+
+        assertThat(text(leader.get(5, TimeUnit.SECONDS).result())).isEqualTo("shared");
+        assertThat(text(follower.get(5, TimeUnit.SECONDS).result())).isEqualTo("shared");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void callsWithDifferentCredentialsAreNotCoalesced() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        Future<McpToolInvocation> leader = executor.submit(() -> cache.call(CONNECTION, "search", Map.of("q", "x"), () -> {
+            await(release);
+            return result("env-a");
+        }));
+        awaitInFlight(1);
+        // 같은 호출이 진행 중이어도 환경 변수 지문이 다르면 직접 실행
+        McpToolInvocation other = cache.call(connection(2L, "env-b"), "search", Map.of("q", "x"), counting(calls, "env-b"));
+        release.countDown();
+
+        assertThat(text(other.result())).isEqualTo("env-b");
+        assertThat(text(leader.get(5, TimeUnit.SECONDS).result())).isEqualTo("env-a");
+        assertThat(calls).hasValue(1);
+        assertThat(cache.getStats()).containsEntry("coalesced", 0L);
+    }
+
+    @Test
+    void followerRetriesWhenLeaderIsCancelled() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger followerCalls = new AtomicInteger();
+
+        Future<McpToolInvocation> leader = executor.submit(() -> cache.call(CONNECTION, "search", Map.of("q", "x"), () -> {
+            await(release);
+            // notifications/cancelled로 실행 스레드가 중단된 경우와 같은 예외
+            throw new IllegalStateException("도구 호출이 중단됨", new InterruptedException());
+        }));
+        awaitInFlight(1);
+        Future<McpToolInvocation> follower = executor.submit(() ->
+                cache.call(CONNECTION, "search", Map.of("q", "x"), counting(followerCalls, "retried")));
+        awaitCoalesced(1);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(text(follower.get(5, TimeUnit.SECONDS).result())).isEqualTo("retried");
+        assertThat(followerCalls).hasValue(1);
+        assertThat(cache.getStats()).containsEntry("inFlight", 0);
+    }
+
+    @Test
+    void followerReceivesLeaderFailure() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger followerCalls = new AtomicInteger();
+
+        executor.submit(() -> cache.call(CONNECTION, "search", Map.of("q", "x"), () -> {
+            await(release);
+            throw new IllegalStateException("upstream down");
+        }));
+        awaitInFlight(1);
+        Future<McpToolInvocation> follower = executor.submit(() ->
+                cache.call(CONNECTION, "search", Map.of("q", "x"), counting(followerCalls, "unused")));
+        awaitCoalesced(1);
+        release.countDown();
+
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("upstream down");
+        assertThat(followerCalls).hasValue(0);
+    }
+
+    // ===== Helpers =====
+
+    private static McpConnectionDescriptor connection(Long connectionId, String envFingerprint) {
+        return new McpConnectionDescriptor(connectionId, 10L, "fs", "user", envFingerprint, LocalDateTime.now());
+    }
+
+    private static Map<String, Object> orderedMap(String k1, Object v1, String k2, Object v2) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put(k1, v1);
+        map.put(k2, v2);
+        return map;
+    }
+
+    private static McpSchema.CallToolResult result(String text) {
+        return McpSchema.CallToolResult.builder()
+                .content(List.of(new McpSchema.TextContent(text)))
+                .isError(false)
+                .build();
+    }
+
+    private static Supplier<McpSchema.CallToolResult> counting(AtomicInteger calls, String text) {
+        return () -> {
+            calls.incrementAndGet();
+            return result(text);
+        };
+    }
+
+    private static String text(McpSchema.CallToolResult result) {
+        return ((McpSchema.TextContent) result.content().get(0)).text();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("latch timeout");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void awaitInFlight(int expected) throws InterruptedException {
+        awaitStat("inFlight", expected);
+    }
+
+    private void awaitCoalesced(long expected) throws InterruptedException {
+        awaitStat("coalesced", expected);
+    }
+
+    private void awaitStat(String key, Object expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!expected.equals(cache.getStats().get(key)) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(cache.getStats()).containsEntry(key, expected);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.mcplogging.service;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MurmurHash3 x64_128 (seed 0) 참조 값 - 참조 구현(Guava Hashing.murmur3_128)의 h1/h2를 hex로 이어 붙인 값
+ * 블록(16바이트) 경계와 8바이트 전후 꼬리, 멀티바이트 UTF-8을 포함한다.
+ */
+class AuditPayloadStoreTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', textBlock = """
+            ''                                          | 00000000000000000000000000000000
+            a                                           | 85555565f6597889e6b53a48510e895a
+            hello                                       | cbd8a7b341bd9b025b1e906a48ae1d19
+            'hello, world'                              | 342fac623a5ebc8e4cdcbc079642414d
+            0123456789abcdef                            | 4be06d94cf4ad1a787c35b5c63a708da
+            0123456789abcdefX                           | cdebd2acb570d6f78f72119782104b27
+            The quick brown fox jumps over the lazy dog | e34bbc7bbc071b6c7a433ca9c49a9347
+            '{"b":[1,2],"a":"한글"}'                     | 97ad665f0d75160283d0e8e670a3273b
+            """)
+    void hashMatchesMurmur3ReferenceVectors(String input, String expected) {
+        assertThat(AuditPayloadStore.hash(input.getBytes(StandardCharsets.UTF_8))).isEqualTo(expected);
+    }
+}
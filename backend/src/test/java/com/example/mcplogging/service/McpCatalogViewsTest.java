@@ -0,0 +1,73 @@
+package com.example.mcplogging.service;
+
+import com.example.mcplogging.config.CatalogViewProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class McpCatalogViewsTest {
+
+    @Test
+    void userAssignmentWinsOverTeamAndDefault() {
+        McpCatalogViews views = new McpCatalogViews(properties("restricted"));
+
+        assertThat(views.viewFor("alice")).isEqualTo("fs-only");
+        assertThat(views.viewFor("bob")).isEqualTo("git-only");
+        assertThat(views.viewFor("carol")).isEqualTo("restricted");
+    }
+
+    @Test
+    void usersWithoutViewSeeEverything() {
+        McpCatalogViews views = new McpCatalogViews(properties(null));
+
+        assertThat(views.viewFor("carol")).isNull();
+        assertThat(views.allows("carol", "secret", "dump")).isTrue();
+        assertThat(views.allowsAny("carol", "secret", Set.of("dump"))).isTrue();
+    }
+
+    @Test
+    void allowsAnyChecksConnectorToolsAgainstView() {
+        McpCatalogViews views = new McpCatalogViews(properties(null));
+
+        // bob(git-only)은 fs 커넥터의 변경을 알 수 없어야 함
+        assertThat(views.allowsAny("bob", "fs", Set.of("read", "write"))).isFalse();
+        assertThat(views.allowsAny("bob", "git", Set.of("push", "log"))).isTrue();
+        assertThat(views.allowsAny("bob", "git", Set.of("push"))).isFalse();
+        assertThat(views.allowsAny("bob", "git", Set.of())).isFalse();
+    }
+
+    @Test
+    void undefinedTeamOrDefaultViewFailsAtStartup() {
+        CatalogViewProperties undefinedTeam = properties(null);
+        undefinedTeam.getViews().get("fs-only").setTeams(List.of("missing"));
+        assertThatThrownBy(() -> new McpCatalogViews(undefinedTeam)).isInstanceOf(IllegalStateException.class);
+
+        assertThatThrownBy(() -> new McpCatalogViews(properties("missing"))).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static CatalogViewProperties properties(String defaultView) {
+        CatalogViewProperties.View fsOnly = new CatalogViewProperties.View();
+        fsOnly.setAllow(List.of("fs"));
+        fsOnly.setUsers(List.of("alice"));
+
+        CatalogViewProperties.View gitOnly = new CatalogViewProperties.View();
+        gitOnly.setAllow(List.of("git/*"));
+        gitOnly.setDeny(List.of("git/push"));
+        gitOnly.setTeams(List.of("dev"));
+
+        CatalogViewProperties.View restricted = new CatalogViewProperties.View();
+        restricted.setDeny(List.of("*"));
+
+        CatalogViewProperties properties = new CatalogViewProperties();
+        properties.getViews().put("fs-only", fsOnly);
+        properties.getViews().put("git-only", gitOnly);
+        properties.getViews().put("restricted", restricted);
+        properties.getTeams().put("dev", List.of("alice", "bob"));
+        properties.setDefaultView(defaultView);
+        return properties;
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.mcplogging.service;
+
+import com.example.mcplogging.config.CatalogViewProperties;
+import com.example.mcplogging.config.UnifiedProxyProperties;
+import com.example.mcplogging.dto.McpMessages;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class McpToolsListCacheTest {
+
+    private static final List<String> CONNECTORS = List.of("fs", "git");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // ===== 페이지 / 커서 =====
+
+    @Test
+    void walksAllPagesThroughNextCursor() throws Exception {
+        McpToolsListCache cache = newCache(2, new CatalogViewProperties());
+        McpToolsListCache.Catalog catalog = render(cache, 1, tools("read", "write", "delete"), tools("log", "diff"));
+
+        List<String> names = new ArrayList<>();
+        List<String> cursors = new ArrayList<>();
+        String cursor = null;
+        do {
+            McpMessages.RenderedToolsList page = cache.page(catalog, cursor);
+            names.addAll(toolNames(page));
+            assertThat(page.etag()).isEqualTo(catalog.etag());
+            cursor = page.nextCursor();
+            cursors.add(cursor);
+        } while (cursor != null);
+
+        assertThat(names).containsExactly("fs__read", "fs__write", "fs__delete", "git__log", "git__diff");
+        assertThat(cursors).hasSize(3).endsWith((String) null);
+    }
+
+    @Test
+    void singlePageHasNoCursorAndRejectsAnyCursor() throws Exception {
+        McpToolsListCache cache = newCache(0, new CatalogViewProperties());
+        McpToolsListCache.Catalog catalog = render(cache, 1, tools("read", "write", "delete"), tools("log"));
+
+        McpMessages.RenderedToolsList page = cache.page(catalog, null);
+
+        assertThat(toolNames(page)).hasSize(4);
+        assertThat(page.nextCursor()).isNull();
+        assertThatThrownBy(() -> cache.page(catalog, cursor(catalog.etag(), 2)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    void rejectsMalformedOrOutOfRangeCursors() {
+        McpToolsListCache cache = newCache(2, new CatalogViewProperties());
+        McpToolsListCache.Catalog catalog = render(cache, 1, tools("read", "write", "delete"), tools("log", "diff"));
+        String etag = catalog.etag();
+
+        List<String> invalid = List.of(
+                "not base64!",
+                Base64.getUrlEncoder().encodeToString("no-separator".getBytes(StandardCharsets.UTF_8)),
+                cursor(etag, 0),
+                cursor(etag, 3),
+                cursor(etag, 6),
+                cursor(etag, -2),
+                cursor("0123456789abcdef0123456789abcdef", 2),
+                cursor(etag, 2) + "x");
+        for (String cursor : invalid) {
+            assertThatThrownBy(() -> cache.page(catalog, cursor))
+                    .as(cursor)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Invalid cursor");
+        }
+        assertThat(cache.page(catalog, cursor(etag, 4)).nextCursor()).isNull();
+    }
+
+    @Test
+    void cursorFromChangedCatalogIsRejected() {
+        McpToolsListCache cache = newCache(2, new CatalogViewProperties());
+        McpToolsListCache.Catalog before = render(cache, 1, tools("read", "write", "delete"), tools("log"));
+        String cursor = cache.page(before, null).nextCursor();
+
+        McpToolsListCache.Catalog after = render(cache, 2, tools("read", "write", "delete", "move"), tools("log"));
+
+        assertThat(after.etag()).isNotEqualTo(before.etag());
+        assertThatThrownBy(() -> cache.page(after, cursor))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    void cachesOnlyCompleteCatalogs() {
+        McpToolsListCache cache = newCache(2, new CatalogViewProperties());
+        Map<String, List<McpSchema.Tool>> byConnector = new LinkedHashMap<>();
+        byConnector.put("fs", tools("read"));
+
+        cache.render(CONNECTORS, 1, 1, byConnector, false);
+        assertThat(cache.get(CONNECTORS, 1, 1)).isNull();
+
+        McpToolsListCache.Catalog complete = render(cache, 1, tools("read"), tools("log"));
+        assertThat(cache.get(CONNECTORS, 1, 1)).isSameAs(complete);
+        assertThat(cache.get(CONNECTORS, 2, 1)).isNull();
+        assertThat(cache.get(CONNECTORS, 1, 2)).isNull();
+    }
+
+    @Test
+    void etagDependsOnlyOnContent() {
+        McpToolsListCache.Catalog first = render(newCache(2, new CatalogViewProperties()), 1, tools("read"), tools("log"));
+        McpToolsListCache.Catalog second = render(newCache(2, new CatalogViewProperties()), 7, tools("read"), tools("log"));
+
+        assertThat(second.etag()).isEqualTo(first.etag());
+    }
+
+    // ===== 카탈로그 뷰 =====
+
+    @Test
+    void viewContainsOnlyAllowedToolsWithOwnEtagAndPages() throws Exception {
+        McpToolsListCache cache = newCache(2, viewProperties());
+        McpToolsListCache.Catalog catalog = render(cache, 1, tools("read", "write", "delete_file"), tools("log", "diff"));
+
+        McpToolsListCache.Catalog readOnly = cache.view(catalog, "read-only");
+
+        assertThat(readOnly.etag()).isNotEqualTo(catalog.etag());
+        McpMessages.RenderedToolsList first = cache.page(readOnly, null);
+        McpMessages.RenderedToolsList second = cache.page(readOnly, first.nextCursor());
+        assertThat(toolNames(first)).containsExactly("fs__read", "fs__write");
+        assertThat(toolNames(second)).containsExactly("git__log");
+        assertThat(second.nextCursor()).isNull();
+
+        // 전체 목록의 커서는 뷰 목록에 쓸 수 없음
+        String fullCursor = cache.page(catalog, null).nextCursor();
+        assertThatThrownBy(() -> cache.page(readOnly, fullCursor))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void viewIsComputedOncePerCatalog() {
+        McpToolsListCache cache = newCache(0, viewProperties());
+        McpToolsListCache.Catalog catalog = render(cache, 1, tools("read"), tools("log"));
+
+        McpToolsListCache.Catalog first = cache.view(catalog, "read-only");
+        McpToolsListCache.Catalog second = cache.view(catalog, "read-only");
+
+        assertThat(second).isSameAs(first);
+        assertThat(cache.getStats()).containsEntry("viewRenders", 1L);
+    }
+
+    @Test
+    void unknownViewIsRejected() {
+        McpToolsListCache cache = newCache(0, viewProperties());
+        McpToolsListCache.Catalog catalog = render(cache, 1, tools("read"), tools("log"));
+
+        assertThatThrownBy(() -> cache.view(catalog, "missing"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // ===== Helpers =====
+
+    private static CatalogViewProperties viewProperties() {
+        CatalogViewProperties.View view = new CatalogViewProperties.View();
+        view.setAllow(List.of("fs", "git/log"));
+        view.setDeny(List.of("fs/delete_*"));
+        CatalogViewProperties properties = new CatalogViewProperties();
+        properties.getViews().put("read-only", view);
+        return properties;
+    }
+
+    private McpToolsListCache newCache(int pageSize, CatalogViewProperties viewProperties) {
+        UnifiedProxyProperties properties = new UnifiedProxyProperties();
+        properties.setToolsPageSize(pageSize);
+        return new McpToolsListCache(properties, new McpCatalogViews(viewProperties), objectMapper);
+    }
+
+    private static McpToolsListCache.Catalog render(McpToolsListCache cache, long catalogVersion,
+                                                    List<McpSchema.Tool> fsTools, List<McpSchema.Tool> gitTools) {
+        Map<String, List<McpSchema.Tool>> byConnector = new LinkedHashMap<>();
+        byConnector.put("fs", fsTools);
+        byConnector.put("git", gitTools);
+        return cache.render(CONNECTORS, catalogVersion, 1, byConnector, true);
+    }
+
+    private static List<McpSchema.Tool> tools(String... names) {
+        List<McpSchema.Tool> tools = new ArrayList<>();
+        for (String name : names) {
+            tools.add(McpSchema.Tool.builder()
+                    .name(name)
+                    .description(name + " tool")
+                    .inputSchema(new McpSchema.JsonSchema("object", Map.of(), List.of(), null, null, null))
+                    .build());
+        }
+        return tools;
+    }
+
+    private List<String> toolNames(McpMessages.RenderedToolsList page) throws Exception {
+        List<String> names = new ArrayList<>();
+        for (JsonNode tool : objectMapper.readTree(page.tools())) {
+            names.add(tool.get("name").asText());
+        }
+        return names;
+    }
+
+    private static String cursor(String etag, int offset) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((etag + ":" + offset).getBytes(StandardCharsets.UTF_8));
+    }
+}
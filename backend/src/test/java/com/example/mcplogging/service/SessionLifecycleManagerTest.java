@@ -0,0 +1,164 @@
+package com.example.mcplogging.service;
+
+import com.example.mcplogging.config.UnifiedProxyProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionLifecycleManagerTest {
+
+    private SessionLifecycleManager manager;
+
+    @AfterEach
+    void tearDown() {
+        if (manager != null) {
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    void expiresIdleSessionOnWheelTick() throws Exception {
+        manager = newManager(8);
+        CountDownLatch closed = new CountDownLatch(1);
+
+        manager.register("s1", "user", Duration.ofMillis(50), () -> {
+            closed.countDown();
+            return true;
+        });
+
+        assertThat(closed.await(2, TimeUnit.SECONDS)).isTrue();
+        awaitStat("expired", 1L);
+        assertThat(manager.getStats()).containsEntry("sessions", 0);
+    }
+
+    @Test
+    void touchedSessionIsRearmedInsteadOfClosed() throws Exception {
+        manager = newManager(8);
+        AtomicInteger closes = new AtomicInteger();
+
+        manager.register("s1", "user", Duration.ofMillis(100), () -> {
+            closes.incrementAndGet();
+            return true;
+        });
+        for (int i = 0; i < 10; i++) {
+            Thread.sleep(30);
+            manager.touch("s1");
+        }
+
+        assertThat(closes).hasValue(0);
+        assertThat(manager.getStats()).containsEntry("sessions", 1);
+    }
+
+    @Test
+    void busySessionIsRetriedUntilItCanClose() throws Exception {
+        manager = newManager(8);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // 처음 두 번은 사용 중이라 종료 거부
+        manager.register("s1", "user", Duration.ofMillis(30), () -> attempts.incrementAndGet() > 2);
+
+        awaitStat("expired", 1L);
+        assertThat(attempts.get()).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void zeroIdleTimeoutNeverExpires() throws Exception {
+        manager = newManager(8);
+        AtomicInteger closes = new AtomicInteger();
+
+        manager.register("s1", "user", Duration.ofMillis(30), () -> {
+            closes.incrementAndGet();
+            return true;
+        });
+        manager.setIdleTimeout("s1", Duration.ZERO);
+        Thread.sleep(200);
+
+        assertThat(closes).hasValue(0);
+        assertThat(manager.getStats()).containsEntry("sessions", 1);
+    }
+
+    @Test
+    void unregisteredSessionIsNotExpired() throws Exception {
+        manager = newManager(8);
+        AtomicInteger closes = new AtomicInteger();
+
+        manager.register("s1", "user", Duration.ofMillis(30), () -> {
+            closes.incrementAndGet();
+            return true;
+        });
+        manager.unregister("s1");
+        Thread.sleep(200);
+
+        assertThat(closes).hasValue(0);
+        assertThat(manager.getStats()).containsEntry("sessions", 0).containsEntry("users", 0);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedSessionOverPerUserCap() throws Exception {
+        manager = newManager(2);
+        List<String> closed = new CopyOnWriteArrayList<>();
+
+        manager.register("a", "user", Duration.ZERO, closer(closed, "a", true));
+        Thread.sleep(2);
+        manager.register("b", "user", Duration.ZERO, closer(closed, "b", true));
+        Thread.sleep(2);
+        manager.touch("a");
+        manager.register("other", "someone-else", Duration.ZERO, closer(closed, "other", true));
+        manager.register("c", "user", Duration.ZERO, closer(closed, "c", true));
+
+        assertThat(closed).containsExactly("b");
+        assertThat(manager.getStats())
+                .containsEntry("sessions", 3)
+                .containsEntry("evicted", 1L);
+    }
+
+    @Test
+    void skipsBusySessionWhenEvicting() throws Exception {
+        manager = newManager(2);
+        List<String> closed = new CopyOnWriteArrayList<>();
+
+        manager.register("a", "user", Duration.ZERO, closer(closed, "a", false));
+        Thread.sleep(2);
+        manager.register("b", "user", Duration.ZERO, closer(closed, "b", true));
+        manager.register("c", "user", Duration.ZERO, closer(closed, "c", true));
+
+        // a는 사용 중이라 남고 다음으로 오래된 b가 정리됨
+        assertThat(closed).containsExactly("a", "b");
+        assertThat(manager.getStats()).containsEntry("sessions", 2).containsEntry("evicted", 1L);
+    }
+
+    // ===== Helpers =====
+
+    private static SessionLifecycleManager newManager(int maxSessionsPerUser) {
+        UnifiedProxyProperties properties = new UnifiedProxyProperties();
+        properties.setExpiryTick(Duration.ofMillis(10));
+        properties.setMaxSessionsPerUser(maxSessionsPerUser);
+        SessionLifecycleManager manager = new SessionLifecycleManager(properties);
+        manager.init();
+        return manager;
+    }
+
+    private static BooleanSupplier closer(List<String> closed, String sessionId, boolean result) {
+        return () -> {
+            closed.add(sessionId);
+            return result;
+        };
+    }
+
+    private void awaitStat(String key, Object expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!expected.equals(manager.getStats().get(key)) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(manager.getStats()).containsEntry(key, expected);
+    }
+}